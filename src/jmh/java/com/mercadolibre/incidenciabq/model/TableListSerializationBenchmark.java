@@ -0,0 +1,80 @@
+package com.mercadolibre.incidenciabq.model;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of a GET /api/bigquery/datasets/{datasetId}/tables response body
+ * (List<Table>) for 1k, 30k and 300k tables, written to a discarding stream
+ *
+ * The ObjectMapper is built like Spring Boot's (Jackson2ObjectMapperBuilder defaults). Scores are
+ * milliseconds per response; with -prof gc, gc.alloc.rate.norm is the bytes allocated per response.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class TableListSerializationBenchmark {
+
+    @Param({"1000", "30000", "300000"})
+    public int tables;
+
+    private List<Table> listing;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(new TypeReference<List<Table>>() { });
+        listing = new ArrayList<>(tables);
+        for (int i = 0; i < tables; i++) {
+            listing.add(new Table("events_" + (20240101 + i % 365) + "_" + i, "benchmark_dataset", "benchmark-project",
+                null, null, i % 10 == 0 ? "VIEW" : "TABLE", 1_700_000_000_000L + i, null));
+        }
+    }
+
+    @Benchmark
+    public long serializeTables() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        writer.writeValue(out, listing);
+        return out.bytes;
+    }
+
+    /**
+     * Discards the body but counts it, so the write cannot be optimized away
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long bytes;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.google.api.services.bigquery.model.TableList;
+import com.google.api.services.bigquery.model.TableReference;
+import com.google.cloud.bigquery.Field;
+import com.google.cloud.bigquery.StandardSQLTypeName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import javax.sql.rowset.CachedRowSet;
+import javax.sql.rowset.RowSetMetaDataImpl;
+import javax.sql.rowset.RowSetProvider;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-row cost of MetadataMapper: one tables.list page (1000 tables, the REST page size), one
+ * tables.get schema, and INFORMATION_SCHEMA result sets of the same size for the JDBC backend
+ *
+ * Scores are rows per millisecond; with -prof gc, gc.alloc.rate.norm is the bytes allocated per row.
+ * The JDBC rows come from a JDK CachedRowSet, whose column lookup by name stands in for the driver's:
+ * compare JDBC scores with each other, not with the REST ones.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetadataMapperBenchmark {
+
+    private static final int ROWS = 1000;
+    private static final String PROJECT_ID = "benchmark-project";
+    private static final String DATASET_ID = "benchmark_dataset";
+
+    private List<TableList.Tables> restTables;
+    private List<Field> restFields;
+    private CachedRowSet schemataRows;
+    private CachedRowSet tableRows;
+    private CachedRowSet columnRows;
+
+    @Setup
+    public void setUp() throws SQLException {
+        long createdAt = 1_700_000_000_000L;
+        restTables = new ArrayList<>(ROWS);
+        restFields = new ArrayList<>(ROWS);
+        schemataRows = rowSet("catalog_name", "schema_name");
+        tableRows = rowSet("table_name", "table_type", "creation_time");
+        columnRows = rowSet("column_name", "data_type", "is_nullable");
+        for (int i = 0; i < ROWS; i++) {
+            String tableId = "events_" + (20240101 + i % 365) + "_" + i;
+            restTables.add(new TableList.Tables()
+                .setTableReference(new TableReference().setProjectId(PROJECT_ID).setDatasetId(DATASET_ID).setTableId(tableId))
+                .setType(i % 10 == 0 ? "VIEW" : "TABLE")
+                .setCreationTime(createdAt + i));
+            restFields.add(Field.newBuilder("column_" + i, i % 3 == 0 ? StandardSQLTypeName.INT64 : StandardSQLTypeName.STRING)
+                .setMode(i % 4 == 0 ? Field.Mode.REQUIRED : Field.Mode.NULLABLE)
+                .setDescription(i % 2 == 0 ? "Column " + i : null)
+                .build());
+
+            schemataRows.moveToInsertRow();
+            schemataRows.updateString(1, PROJECT_ID);
+            schemataRows.updateString(2, "dataset_" + i);
+            schemataRows.insertRow();
+            tableRows.moveToInsertRow();
+            tableRows.updateString(1, tableId);
+            tableRows.updateString(2, i % 10 == 0 ? "VIEW" : "BASE TABLE");
+            tableRows.updateTimestamp(3, new Timestamp(createdAt + i));
+            tableRows.insertRow();
+            columnRows.moveToInsertRow();
+            columnRows.updateString(1, "column_" + i);
+            columnRows.updateString(2, i % 3 == 0 ? "INT64" : "STRING");
+            columnRows.updateString(3, i % 4 == 0 ? "NO" : "YES");
+            columnRows.insertRow();
+        }
+        for (CachedRowSet rows : List.of(schemataRows, tableRows, columnRows)) {
+            rows.moveToCurrentRow();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void restTables(Blackhole blackhole) {
+        for (TableList.Tables bqTable : restTables) {
+            blackhole.consume(MetadataMapper.table(bqTable, PROJECT_ID, DATASET_ID));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void restFields(Blackhole blackhole) {
+        for (Field bqField : restFields) {
+            blackhole.consume(MetadataMapper.field(bqField));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void jdbcDatasets(Blackhole blackhole) throws SQLException {
+        schemataRows.beforeFirst();
+        while (schemataRows.next()) {
+            blackhole.consume(MetadataMapper.dataset(schemataRows, PROJECT_ID));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void jdbcTables(Blackhole blackhole) throws SQLException {
+        tableRows.beforeFirst();
+        while (tableRows.next()) {
+            blackhole.consume(MetadataMapper.table(tableRows, PROJECT_ID, DATASET_ID));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void jdbcFields(Blackhole blackhole) throws SQLException {
+        columnRows.beforeFirst();
+        while (columnRows.next()) {
+            blackhole.consume(MetadataMapper.field(columnRows));
+        }
+    }
+
+    private static CachedRowSet rowSet(String... columns) throws SQLException {
+        RowSetMetaDataImpl metaData = new RowSetMetaDataImpl();
+        metaData.setColumnCount(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            metaData.setColumnName(i + 1, columns[i]);
+            metaData.setColumnType(i + 1, columns[i].equals("creation_time") ? Types.TIMESTAMP : Types.VARCHAR);
+        }
+        CachedRowSet rows = RowSetProvider.newFactory().createCachedRowSet();
+        rows.setMetaData(metaData);
+        return rows;
+    }
+}
@@ -0,0 +1,108 @@
+package com.mercadolibre.incidenciabq.config;
+
+import com.mercadolibre.incidenciabq.service.BigQueryIoExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Runs Spring MVC's own async work (the StreamingResponseBody of the NDJSON endpoints) on the
+ * BigQuery I/O executor, so streamed listings and schemas leave the Tomcat thread like every
+ * other BigQuery endpoint and go through the same bounded pool:
+ * - I/O executor full: 503 with Retry-After (the stream never starts)
+ * - Still running after bigquery.io.request-timeout-ms: the worker is interrupted, and the
+ *   response is a 504 if nothing was written yet
+ * - The caller's credentials and trace span are bound to the worker by BigQueryIoExecutor.submit(),
+ *   which Spring calls on the request thread
+ */
+@Configuration
+public class AsyncStreamingConfig implements WebMvcConfigurer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncStreamingConfig.class);
+
+    private final BigQueryIoExecutor ioExecutor;
+
+    public AsyncStreamingConfig(BigQueryIoExecutor ioExecutor) {
+        this.ioExecutor = ioExecutor;
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new IoTaskExecutor(ioExecutor));
+        configurer.setDefaultTimeout(ioExecutor.getRequestTimeoutMs());
+        configurer.registerCallableInterceptors(new CallableProcessingInterceptor() {
+            @Override
+            public <T> Object handleTimeout(NativeWebRequest request, Callable<T> task) {
+                ioExecutor.recordTimeout();
+                logger.warn("[IO] {} timed out after {} ms, answering 504",
+                    request.getDescription(false), ioExecutor.getRequestTimeoutMs());
+                return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT);
+            }
+        });
+    }
+
+    /**
+     * Adapts BigQueryIoExecutor to the executor Spring MVC submits async work to
+     * (cancelling the FutureTask Spring wraps the work in interrupts the worker)
+     */
+    private static final class IoTaskExecutor implements AsyncTaskExecutor {
+
+        private final BigQueryIoExecutor ioExecutor;
+
+        private IoTaskExecutor(BigQueryIoExecutor ioExecutor) {
+            this.ioExecutor = ioExecutor;
+        }
+
+        @Override
+        public void execute(Runnable task) {
+            CompletableFuture<Void> call;
+            try {
+                call = ioExecutor.submit(() -> {
+                    task.run();
+                    return null;
+                });
+            } catch (RejectedExecutionException e) {
+                logger.warn("[IO] Streaming response rejected with 503: BigQuery I/O executor is saturated");
+                throw new ServiceUnavailableException();
+            }
+            if (call.isCompletedExceptionally()) {
+                // The credentials could not be captured: the task was never queued
+                try {
+                    call.get();
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException(e.getCause().getMessage(), e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    private static final class ServiceUnavailableException extends ResponseStatusException {
+
+        private ServiceUnavailableException() {
+            super(HttpStatus.SERVICE_UNAVAILABLE, "BigQuery I/O executor is saturated");
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            HttpHeaders headers = new HttpHeaders();
+            headers.set(HttpHeaders.RETRY_AFTER, "1");
+            return headers;
+        }
+    }
+}
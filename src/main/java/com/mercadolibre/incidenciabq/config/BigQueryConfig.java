@@ -25,6 +25,13 @@ public class BigQueryConfig {
     @Value("${bigquery.service.account.key.path}")
     private String serviceAccountKeyPath;
 
+    /**
+     * Root URL of the BigQuery REST API, e.g. http://127.0.0.1:9050 for a local fake or emulator
+     * (empty: Google's default endpoint)
+     */
+    @Value("${bigquery.rest.host:}")
+    private String restHost;
+
     @PostConstruct
     public void init() throws IOException {
         // For Heroku deployment: Handle service account JSON from environment variable
@@ -0,0 +1,68 @@
+package com.mercadolibre.incidenciabq.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.incidenciabq.service.MetadataCacheKey;
+import com.mercadolibre.incidenciabq.service.MetadataMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Metrics that live outside the services: JSON response serialization time
+ * (see MetadataMetrics for the backend phases)
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Replaces Spring Boot's Jackson converter with one that times every JSON body written by the
+     * /api/bigquery and /api/bigquery-jdbc endpoints (operation = controller method name)
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper,
+                                                                                  MetadataMetrics metrics) {
+        return new MappingJackson2HttpMessageConverter(objectMapper) {
+            @Override
+            protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                    throws IOException, HttpMessageNotWritableException {
+                long start = System.nanoTime();
+                String outcome = MetadataMetrics.ERROR;
+                try {
+                    super.writeInternal(object, type, outputMessage);
+                    outcome = MetadataMetrics.SUCCESS;
+                } finally {
+                    recordSerialization(metrics, outcome, System.nanoTime() - start);
+                }
+            }
+        };
+    }
+
+    private static void recordSerialization(MetadataMetrics metrics, String outcome, long nanos) {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        String uri = request.getRequestURI();
+        String backend;
+        if (uri.startsWith("/api/bigquery-jdbc/")) {
+            backend = MetadataCacheKey.BACKEND_JDBC;
+        } else if (uri.startsWith("/api/bigquery/")) {
+            backend = MetadataCacheKey.BACKEND_API;
+        } else {
+            return;
+        }
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        String operation = handler instanceof HandlerMethod method ? method.getMethod().getName() : "unknown";
+        metrics.recordNanos(MetadataMetrics.Phase.SERIALIZATION, backend, operation, outcome, nanos);
+    }
+}
@@ -1,6 +1,7 @@
 package com.mercadolibre.incidenciabq.config;
 
 import com.google.auth.oauth2.GoogleCredentials;
+import com.mercadolibre.incidenciabq.service.CredentialContext;
 import com.mercadolibre.incidenciabq.service.SessionCredentialsManager;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -68,5 +69,17 @@ public class SessionAwareCredentialsProvider {
         }
         return "NO_SESSION";
     }
-}
 
+    /**
+     * Capture the current session's credentials so they can be used after the request ends
+     * (e.g. by a background refresh)
+     * @throws IOException if credentials cannot be loaded
+     */
+    public CredentialContext captureContext() throws IOException {
+        String sessionId = getSessionId();
+        String sessionKeyPath = httpSession != null ? sessionCredentialsManager.getSessionKeyPath(httpSession) : null;
+        boolean hasCustom = sessionKeyPath != null;
+        String keyPath = hasCustom ? sessionKeyPath : bigQueryConfig.getServiceAccountKeyPath();
+        return new CredentialContext(getCredentials(), sessionId, hasCustom, keyPath);
+    }
+}
@@ -0,0 +1,27 @@
+package com.mercadolibre.incidenciabq.config;
+
+import com.mercadolibre.incidenciabq.service.SessionCredentialsManager;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts a session's uploaded key (cached credentials, key file, JDBC pool, client) when the
+ * session times out or is invalidated, instead of keeping it until the process restarts
+ *
+ * Spring Boot registers HttpSessionListener beans with the embedded container.
+ */
+@Component
+public class SessionCredentialsCleanupListener implements HttpSessionListener {
+
+    private final SessionCredentialsManager sessionCredentialsManager;
+
+    public SessionCredentialsCleanupListener(SessionCredentialsManager sessionCredentialsManager) {
+        this.sessionCredentialsManager = sessionCredentialsManager;
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent event) {
+        sessionCredentialsManager.onSessionDestroyed(event.getSession());
+    }
+}
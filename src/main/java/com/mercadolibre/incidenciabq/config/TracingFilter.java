@@ -0,0 +1,65 @@
+package com.mercadolibre.incidenciabq.config;
+
+import com.mercadolibre.incidenciabq.service.RequestTracer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Starts a trace for every /api request and returns its id in the X-Trace-Id response header
+ * (GET /api/traces/{traceId} then shows the span tree)
+ *
+ * Async endpoints pass through twice: once on the Tomcat thread that hands the call to the I/O
+ * executor, and again on the dispatch that writes the response. The trace is kept as a request
+ * attribute, rebound on the second pass and finished when the response is complete.
+ */
+@Component
+public class TracingFilter extends OncePerRequestFilter {
+
+    private static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+    private static final String TRACE_ATTRIBUTE = TracingFilter.class.getName() + ".trace";
+
+    private final RequestTracer tracer;
+
+    public TracingFilter(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        // Looking at traces must not push the traces being looked at out of the buffer
+        return !uri.startsWith("/api/") || uri.startsWith("/api/traces");
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTracer.Trace trace = (RequestTracer.Trace) request.getAttribute(TRACE_ATTRIBUTE);
+        if (trace == null) {
+            trace = tracer.begin(request.getMethod() + " " + request.getRequestURI());
+            request.setAttribute(TRACE_ATTRIBUTE, trace);
+            response.setHeader(TRACE_ID_HEADER, trace.getTraceId());
+        }
+        RequestTracer.Span previous = tracer.bind(trace.getRoot());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            tracer.bind(previous);
+            if (!request.isAsyncStarted()) {
+                tracer.finish(trace, response.getStatus());
+            }
+        }
+    }
+}
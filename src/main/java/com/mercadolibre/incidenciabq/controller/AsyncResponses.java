@@ -0,0 +1,95 @@
+package com.mercadolibre.incidenciabq.controller;
+
+import com.mercadolibre.incidenciabq.service.BigQueryIoExecutor;
+import com.mercadolibre.incidenciabq.service.RequestTracer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Runs an endpoint's body on the BigQuery I/O executor and completes the response from there
+ *
+ * - I/O executor full: 503 with Retry-After, without waiting
+ * - Call still running after bigquery.io.request-timeout-ms: 504, and the call is cancelled
+ * - Call failed with an exception the body did not handle: 500
+ *
+ * The body runs in a "controller" span of the request's trace.
+ *
+ * Streaming endpoints use stream() instead: Spring MVC runs the StreamingResponseBody it returns on
+ * the same I/O executor (AsyncStreamingConfig), with the same 503/504 handling.
+ */
+@Component
+@Slf4j
+class AsyncResponses {
+
+    private final BigQueryIoExecutor ioExecutor;
+    private final RequestTracer tracer;
+
+    AsyncResponses(BigQueryIoExecutor ioExecutor, RequestTracer tracer) {
+        this.ioExecutor = ioExecutor;
+        this.tracer = tracer;
+    }
+
+    <T> DeferredResult<ResponseEntity<T>> submit(String operation, Supplier<ResponseEntity<T>> body) {
+        DeferredResult<ResponseEntity<T>> result = new DeferredResult<>(ioExecutor.getRequestTimeoutMs());
+        CompletableFuture<ResponseEntity<T>> call;
+        try {
+            call = ioExecutor.submit(() -> tracer.inSpan("controller", Map.of("endpoint", operation), body));
+        } catch (RejectedExecutionException e) {
+            log.warn("[IO] {} rejected with 503: BigQuery I/O executor is saturated", operation);
+            result.setResult(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header("Retry-After", "1").build());
+            return result;
+        }
+
+        call.whenComplete((response, error) -> {
+            if (error == null) {
+                result.setResult(response);
+            } else if (!call.isCancelled()) {
+                log.error("[IO] {} failed", operation, error);
+                result.setResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+            }
+        });
+        result.onTimeout(() -> {
+            ioExecutor.recordTimeout();
+            log.warn("[IO] {} timed out after {} ms, answering 504", operation, ioExecutor.getRequestTimeoutMs());
+            call.cancel(true);
+            result.setResult(ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build());
+        });
+        return result;
+    }
+
+    /**
+     * A response body that writes itself (NDJSON streams), run in a "controller" span on the I/O executor
+     */
+    StreamingResponseBody stream(String operation, StreamingBody body) {
+        return outputStream -> {
+            try {
+                tracer.inSpan("controller", Map.of("endpoint", operation), () -> {
+                    try {
+                        body.write();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    return null;
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface StreamingBody {
+        void write() throws IOException;
+    }
+}
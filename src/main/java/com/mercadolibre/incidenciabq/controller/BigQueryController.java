@@ -1,14 +1,25 @@
 package com.mercadolibre.incidenciabq.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.incidenciabq.model.ColumnarTables;
 import com.mercadolibre.incidenciabq.model.Dataset;
 import com.mercadolibre.incidenciabq.model.Table;
+import com.mercadolibre.incidenciabq.model.TablePage;
+import com.mercadolibre.incidenciabq.model.TableRefreshResult;
 import com.mercadolibre.incidenciabq.model.Field;
+import com.mercadolibre.incidenciabq.service.BigQueryClientCache;
+import com.mercadolibre.incidenciabq.service.BigQueryIoExecutor;
 import com.mercadolibre.incidenciabq.service.BigQueryService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/bigquery")
@@ -16,308 +27,532 @@ import java.util.List;
 @Slf4j
 public class BigQueryController {
 
+    /** tables.list returns at most 1000 tables per page */
+    private static final int MAX_PAGE_LIMIT = 1000;
+
     private final BigQueryService bigQueryService;
+    private final BigQueryClientCache clientCache;
+    private final ObjectMapper objectMapper;
+    private final BigQueryIoExecutor ioExecutor;
+    private final AsyncResponses asyncResponses;
 
-    public BigQueryController(BigQueryService bigQueryService) {
+    public BigQueryController(BigQueryService bigQueryService, BigQueryClientCache clientCache,
+                              ObjectMapper objectMapper, BigQueryIoExecutor ioExecutor,
+                              AsyncResponses asyncResponses) {
         this.bigQueryService = bigQueryService;
+        this.clientCache = clientCache;
+        this.objectMapper = objectMapper;
+        this.ioExecutor = ioExecutor;
+        this.asyncResponses = asyncResponses;
+    }
+
+    /**
+     * BigQuery client cache statistics (one client per credential identity)
+     */
+    @GetMapping("/clients/stats")
+    public ResponseEntity<Map<String, Object>> getClientCacheStats() {
+        return ResponseEntity.ok(clientCache.getStats());
+    }
+
+    /**
+     * BigQuery I/O executor statistics (shared by the API and JDBC async endpoints)
+     */
+    @GetMapping("/io/stats")
+    public ResponseEntity<Map<String, Object>> getIoStats() {
+        return ResponseEntity.ok(ioExecutor.getStats());
     }
 
     @GetMapping("/test")
-    public ResponseEntity<String> testConnection() {
-        long requestStart = System.currentTimeMillis();
-        log.info("[TIMING] ########## Received GET /api/bigquery/test ##########");
+    public DeferredResult<ResponseEntity<String>> testConnection() {
+        return asyncResponses.submit("GET /api/bigquery/test", () -> {
+            long requestStart = System.currentTimeMillis();
+            log.info("[TIMING] ########## Received GET /api/bigquery/test ##########");
         
-        try {
-            long serviceStart = System.currentTimeMillis();
-            bigQueryService.testConnection();
-            long serviceTime = System.currentTimeMillis() - serviceStart;
-            
-            long totalTime = System.currentTimeMillis() - requestStart;
-            log.info("[TIMING] ########## GET /api/bigquery/test completed in {} ms (service: {} ms) ##########", 
-                    totalTime, serviceTime);
-            
-            return ResponseEntity.ok("Connection successful!");
-        } catch (Exception e) {
-            long totalTime = System.currentTimeMillis() - requestStart;
-            log.error("[TIMING] Connection test failed after {} ms", totalTime, e);
-            return ResponseEntity.status(500).body("Connection failed: " + e.getMessage());
-        }
+            try {
+                long serviceStart = System.currentTimeMillis();
+                bigQueryService.testConnection();
+                long serviceTime = System.currentTimeMillis() - serviceStart;
+            
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.info("[TIMING] ########## GET /api/bigquery/test completed in {} ms (service: {} ms) ##########", 
+                        totalTime, serviceTime);
+            
+                return ResponseEntity.ok("Connection successful!");
+            } catch (Exception e) {
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.error("[TIMING] Connection test failed after {} ms", totalTime, e);
+                return ResponseEntity.status(500).body("Connection failed: " + e.getMessage());
+            }
+        });
     }
 
     @GetMapping("/datasets")
-    public ResponseEntity<List<Dataset>> listDatasets() {
-        long requestStart = System.currentTimeMillis();
-        log.info("[TIMING] ########## Received GET /api/bigquery/datasets ##########");
-        log.info("[DETAIL] ╔══════════════════════════════════════════════════════════");
-        log.info("[DETAIL] ║ HTTP REQUEST RECEIVED");
-        log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
-        log.info("[DETAIL] ║ Endpoint: GET /api/bigquery/datasets");
-        log.info("[DETAIL] ║ Purpose: Retrieve all datasets from BigQuery project");
-        log.info("[DETAIL] ║ Request Time: {}", new java.util.Date());
-        log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
-        
-        try {
-            log.info("[DETAIL] ║ CONTROLLER: Processing request");
-            log.info("[DETAIL] ║   → No query parameters");
-            log.info("[DETAIL] ║   → No path variables");
-            log.info("[DETAIL] ║   → Calling service layer...");
-            
-            long serviceStart = System.currentTimeMillis();
-            log.info("[DETAIL] ║");
-            log.info("[DETAIL] ║ CONTROLLER → SERVICE: Delegating to BigQueryService.listDatasets()");
-            log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
-            log.info("[DETAIL] ║ │ Entering SERVICE LAYER...");
-            log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
-            
-            List<Dataset> datasets = bigQueryService.listDatasets();
-            
-            long serviceTime = System.currentTimeMillis() - serviceStart;
-            log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
-            log.info("[DETAIL] ║ │ Returned from SERVICE LAYER");
-            log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
-            log.info("[DETAIL] ║");
-            log.info("[DETAIL] ║ SERVICE → CONTROLLER: Received response");
-            log.info("[DETAIL] ║   ✓ Service call completed in {} ms", serviceTime);
-            log.info("[DETAIL] ║   ✓ Datasets received: {}", datasets.size());
-            log.info("[DETAIL] ║   → Dataset IDs: {}", 
-                     datasets.stream().map(Dataset::getDatasetId).toArray());
-            
-            // Serialize to JSON
-            long serializationStart = System.currentTimeMillis();
-            log.info("[DETAIL] ║");
-            log.info("[DETAIL] ║ CONTROLLER: Preparing HTTP response");
-            log.info("[DETAIL] ║   → Converting {} datasets to JSON", datasets.size());
-            log.info("[DETAIL] ║   → Creating ResponseEntity with HTTP 200 OK");
-            
-            ResponseEntity<List<Dataset>> response = ResponseEntity.ok(datasets);
-            
-            long serializationTime = System.currentTimeMillis() - serializationStart;
-            log.info("[DETAIL] ║   ✓ JSON serialization completed in {} ms", serializationTime);
-            log.info("[DETAIL] ║   ✓ Response entity created");
-            
-            long totalTime = System.currentTimeMillis() - requestStart;
+    public DeferredResult<ResponseEntity<List<Dataset>>> listDatasets() {
+        return asyncResponses.submit("GET /api/bigquery/datasets", () -> {
+            long requestStart = System.currentTimeMillis();
+            log.info("[TIMING] ########## Received GET /api/bigquery/datasets ##########");
+            log.info("[DETAIL] ╔══════════════════════════════════════════════════════════");
+            log.info("[DETAIL] ║ HTTP REQUEST RECEIVED");
             log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
-            log.info("[DETAIL] ║ HTTP RESPONSE READY");
-            log.info("[DETAIL] ║   ✓ Status Code: 200 OK");
-            log.info("[DETAIL] ║   ✓ Content-Type: application/json");
-            log.info("[DETAIL] ║   ✓ Body: List<Dataset> with {} items", datasets.size());
-            log.info("[DETAIL] ║   ✓ Total request time: {} ms", totalTime);
-            log.info("[DETAIL] ║ Breakdown:");
-            log.info("[DETAIL] ║   • Service layer: {} ms ({}%)", 
-                     serviceTime, (serviceTime * 100 / totalTime));
-            log.info("[DETAIL] ║   • JSON serialization: {} ms ({}%)", 
-                     serializationTime, (serializationTime * 100 / totalTime));
-            log.info("[DETAIL] ╚══════════════════════════════════════════════════════════");
-            
-            log.info("[TIMING] ########## GET /api/bigquery/datasets completed in {} ms (service: {} ms, serialization: {} ms, datasets: {}) ##########", 
-                    totalTime, serviceTime, serializationTime, datasets.size());
-            
-            return response;
-        } catch (Exception e) {
-            long totalTime = System.currentTimeMillis() - requestStart;
-            log.error("[DETAIL] ╠══════════════════════════════════════════════════════════");
-            log.error("[DETAIL] ║ HTTP REQUEST FAILED");
-            log.error("[DETAIL] ║   ✗ Error: {}", e.getMessage());
-            log.error("[DETAIL] ║   ✗ Exception: {}", e.getClass().getSimpleName());
-            log.error("[DETAIL] ║   ✗ Time until failure: {} ms", totalTime);
-            log.error("[DETAIL] ║   → Returning HTTP 500 Internal Server Error");
-            log.error("[DETAIL] ╚══════════════════════════════════════════════════════════");
-            log.error("[TIMING] Error listing datasets after {} ms", totalTime, e);
-            return ResponseEntity.status(500).build();
-        }
+            log.info("[DETAIL] ║ Endpoint: GET /api/bigquery/datasets");
+            log.info("[DETAIL] ║ Purpose: Retrieve all datasets from BigQuery project");
+            log.info("[DETAIL] ║ Request Time: {}", new java.util.Date());
+            log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
+        
+            try {
+                log.info("[DETAIL] ║ CONTROLLER: Processing request");
+                log.info("[DETAIL] ║   → No query parameters");
+                log.info("[DETAIL] ║   → No path variables");
+                log.info("[DETAIL] ║   → Calling service layer...");
+            
+                long serviceStart = System.currentTimeMillis();
+                log.info("[DETAIL] ║");
+                log.info("[DETAIL] ║ CONTROLLER → SERVICE: Delegating to BigQueryService.listDatasets()");
+                log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
+                log.info("[DETAIL] ║ │ Entering SERVICE LAYER...");
+                log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
+            
+                List<Dataset> datasets = bigQueryService.listDatasets();
+            
+                long serviceTime = System.currentTimeMillis() - serviceStart;
+                log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
+                log.info("[DETAIL] ║ │ Returned from SERVICE LAYER");
+                log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
+                log.info("[DETAIL] ║");
+                log.info("[DETAIL] ║ SERVICE → CONTROLLER: Received response");
+                log.info("[DETAIL] ║   ✓ Service call completed in {} ms", serviceTime);
+                log.info("[DETAIL] ║   ✓ Datasets received: {}", datasets.size());
+                log.info("[DETAIL] ║   → Dataset IDs: {}", 
+                         datasets.stream().map(Dataset::getDatasetId).toArray());
+            
+                // Serialize to JSON
+                long serializationStart = System.currentTimeMillis();
+                log.info("[DETAIL] ║");
+                log.info("[DETAIL] ║ CONTROLLER: Preparing HTTP response");
+                log.info("[DETAIL] ║   → Converting {} datasets to JSON", datasets.size());
+                log.info("[DETAIL] ║   → Creating ResponseEntity with HTTP 200 OK");
+            
+                ResponseEntity<List<Dataset>> response = ResponseEntity.ok(datasets);
+            
+                long serializationTime = System.currentTimeMillis() - serializationStart;
+                log.info("[DETAIL] ║   ✓ JSON serialization completed in {} ms", serializationTime);
+                log.info("[DETAIL] ║   ✓ Response entity created");
+            
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
+                log.info("[DETAIL] ║ HTTP RESPONSE READY");
+                log.info("[DETAIL] ║   ✓ Status Code: 200 OK");
+                log.info("[DETAIL] ║   ✓ Content-Type: application/json");
+                log.info("[DETAIL] ║   ✓ Body: List<Dataset> with {} items", datasets.size());
+                log.info("[DETAIL] ║   ✓ Total request time: {} ms", totalTime);
+                log.info("[DETAIL] ║ Breakdown:");
+                log.info("[DETAIL] ║   • Service layer: {} ms ({}%)", 
+                         serviceTime, (serviceTime * 100 / Math.max(1, totalTime)));
+                log.info("[DETAIL] ║   • JSON serialization: {} ms ({}%)", 
+                         serializationTime, (serializationTime * 100 / Math.max(1, totalTime)));
+                log.info("[DETAIL] ╚══════════════════════════════════════════════════════════");
+            
+                log.info("[TIMING] ########## GET /api/bigquery/datasets completed in {} ms (service: {} ms, serialization: {} ms, datasets: {}) ##########", 
+                        totalTime, serviceTime, serializationTime, datasets.size());
+            
+                return response;
+            } catch (Exception e) {
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.error("[DETAIL] ╠══════════════════════════════════════════════════════════");
+                log.error("[DETAIL] ║ HTTP REQUEST FAILED");
+                log.error("[DETAIL] ║   ✗ Error: {}", e.getMessage());
+                log.error("[DETAIL] ║   ✗ Exception: {}", e.getClass().getSimpleName());
+                log.error("[DETAIL] ║   ✗ Time until failure: {} ms", totalTime);
+                log.error("[DETAIL] ║   → Returning HTTP 500 Internal Server Error");
+                log.error("[DETAIL] ╚══════════════════════════════════════════════════════════");
+                log.error("[TIMING] Error listing datasets after {} ms", totalTime, e);
+                return ResponseEntity.status(500).build();
+            }
+        });
     }
 
     @GetMapping("/datasets/{datasetId}/tables")
-    public ResponseEntity<List<Table>> listTables(@PathVariable String datasetId) {
-        long requestStart = System.currentTimeMillis();
-        log.info("[TIMING] ########## Received GET /api/bigquery/datasets/{}/tables ##########", datasetId);
-        log.info("[DETAIL] ╔══════════════════════════════════════════════════════════");
-        log.info("[DETAIL] ║ HTTP REQUEST RECEIVED");
-        log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
-        log.info("[DETAIL] ║ Endpoint: GET /api/bigquery/datasets/{datasetId}/tables");
-        log.info("[DETAIL] ║ Purpose: Retrieve all tables from a specific dataset");
-        log.info("[DETAIL] ║ Request Time: {}", new java.util.Date());
-        log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
-        log.info("[DETAIL] ║ Request Parameters:");
-        log.info("[DETAIL] ║   → PATH VARIABLE: datasetId = '{}'", datasetId);
-        log.info("[DETAIL] ║   → Full path: /api/bigquery/datasets/{}/tables", datasetId);
+    public DeferredResult<ResponseEntity<List<Table>>> listTables(@PathVariable String datasetId) {
+        return asyncResponses.submit("GET /api/bigquery/datasets/{datasetId}/tables", () -> {
+            long requestStart = System.currentTimeMillis();
+            log.info("[TIMING] ########## Received GET /api/bigquery/datasets/{}/tables ##########", datasetId);
+            log.info("[DETAIL] ╔══════════════════════════════════════════════════════════");
+            log.info("[DETAIL] ║ HTTP REQUEST RECEIVED");
+            log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
+            log.info("[DETAIL] ║ Endpoint: GET /api/bigquery/datasets/{datasetId}/tables");
+            log.info("[DETAIL] ║ Purpose: Retrieve all tables from a specific dataset");
+            log.info("[DETAIL] ║ Request Time: {}", new java.util.Date());
+            log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
+            log.info("[DETAIL] ║ Request Parameters:");
+            log.info("[DETAIL] ║   → PATH VARIABLE: datasetId = '{}'", datasetId);
+            log.info("[DETAIL] ║   → Full path: /api/bigquery/datasets/{}/tables", datasetId);
+        
+            try {
+                log.info("[DETAIL] ║ CONTROLLER: Processing request");
+                log.info("[DETAIL] ║   → Extracted datasetId from path: {}", datasetId);
+                log.info("[DETAIL] ║   → Validating parameter...");
+            
+                if (datasetId == null || datasetId.trim().isEmpty()) {
+                    log.error("[DETAIL] ║   ✗ Invalid datasetId: empty or null");
+                    return ResponseEntity.badRequest().build();
+                }
+            
+                log.info("[DETAIL] ║   ✓ Parameter validation passed");
+                log.info("[DETAIL] ║   → Calling service layer with datasetId: {}", datasetId);
+            
+                long serviceStart = System.currentTimeMillis();
+                log.info("[DETAIL] ║");
+                log.info("[DETAIL] ║ CONTROLLER → SERVICE: Delegating to BigQueryService.listTables()");
+                log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
+                log.info("[DETAIL] ║ │ Entering SERVICE LAYER...");
+                log.info("[DETAIL] ║ │ Parameter: datasetId = '{}'", datasetId);
+                log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
+            
+                List<Table> tables = bigQueryService.listTables(datasetId);
+            
+                long serviceTime = System.currentTimeMillis() - serviceStart;
+                log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
+                log.info("[DETAIL] ║ │ Returned from SERVICE LAYER");
+                log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
+                log.info("[DETAIL] ║");
+                log.info("[DETAIL] ║ SERVICE → CONTROLLER: Received response");
+                log.info("[DETAIL] ║   ✓ Service call completed in {} ms", serviceTime);
+                log.info("[DETAIL] ║   ✓ Tables received: {}", tables.size());
+                log.info("[DETAIL] ║   → Table IDs: {}", 
+                         tables.stream().map(Table::getTableId).toArray());
+            
+                // Serialize to JSON
+                long serializationStart = System.currentTimeMillis();
+                log.info("[DETAIL] ║");
+                log.info("[DETAIL] ║ CONTROLLER: Preparing HTTP response");
+                log.info("[DETAIL] ║   → Converting {} tables to JSON", tables.size());
+                log.info("[DETAIL] ║   → Creating ResponseEntity with HTTP 200 OK");
+            
+                ResponseEntity<List<Table>> response = ResponseEntity.ok(tables);
+            
+                long serializationTime = System.currentTimeMillis() - serializationStart;
+                log.info("[DETAIL] ║   ✓ JSON serialization completed in {} ms", serializationTime);
+                log.info("[DETAIL] ║   ✓ Response entity created");
+            
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
+                log.info("[DETAIL] ║ HTTP RESPONSE READY");
+                log.info("[DETAIL] ║   ✓ Status Code: 200 OK");
+                log.info("[DETAIL] ║   ✓ Content-Type: application/json");
+                log.info("[DETAIL] ║   ✓ Body: List<Table> with {} items", tables.size());
+                log.info("[DETAIL] ║   ✓ Total request time: {} ms", totalTime);
+                log.info("[DETAIL] ║ Breakdown:");
+                log.info("[DETAIL] ║   • Service layer: {} ms ({}%)", 
+                         serviceTime, (serviceTime * 100 / Math.max(1, totalTime)));
+                log.info("[DETAIL] ║   • JSON serialization: {} ms ({}%)", 
+                         serializationTime, (serializationTime * 100 / Math.max(1, totalTime)));
+                log.info("[DETAIL] ╚══════════════════════════════════════════════════════════");
+            
+                log.info("[TIMING] ########## GET /api/bigquery/datasets/{}/tables completed in {} ms (service: {} ms, serialization: {} ms, tables: {}) ##########", 
+                        datasetId, totalTime, serviceTime, serializationTime, tables.size());
+            
+                return response;
+            } catch (Exception e) {
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.error("[DETAIL] ╠══════════════════════════════════════════════════════════");
+                log.error("[DETAIL] ║ HTTP REQUEST FAILED");
+                log.error("[DETAIL] ║   ✗ Dataset: {}", datasetId);
+                log.error("[DETAIL] ║   ✗ Error: {}", e.getMessage());
+                log.error("[DETAIL] ║   ✗ Exception: {}", e.getClass().getSimpleName());
+                log.error("[DETAIL] ║   ✗ Time until failure: {} ms", totalTime);
+                log.error("[DETAIL] ║   → Returning HTTP 500 Internal Server Error");
+                log.error("[DETAIL] ╚══════════════════════════════════════════════════════════");
+                log.error("[TIMING] Error listing tables for dataset '{}' after {} ms", datasetId, totalTime, e);
+                return ResponseEntity.status(500).build();
+            }
+        });
+    }
+
+    /**
+     * Incremental refresh of the cached table listing: only tables created, modified or
+     * deleted since the listing was loaded are read from BigQuery
+     */
+    @PostMapping("/datasets/{datasetId}/tables/refresh")
+    public DeferredResult<ResponseEntity<TableRefreshResult>> refreshTables(@PathVariable String datasetId) {
+        return asyncResponses.submit("POST /api/bigquery/datasets/{datasetId}/tables/refresh", () -> {
+            long requestStart = System.currentTimeMillis();
+            log.info("[TIMING] ########## Received POST /api/bigquery/datasets/{}/tables/refresh ##########", datasetId);
+        
+            try {
+                TableRefreshResult result = bigQueryService.refreshTables(datasetId);
+                log.info("[TIMING] ########## POST /api/bigquery/datasets/{}/tables/refresh completed in {} ms (incremental: {}, total: {}) ##########", 
+                        datasetId, System.currentTimeMillis() - requestStart, result.isIncremental(), result.getTotalTables());
+                return ResponseEntity.ok(result);
+            } catch (IllegalArgumentException e) {
+                log.warn("[DETAIL] ║   ✗ {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            } catch (Exception e) {
+                log.error("[TIMING] Error refreshing tables of dataset '{}' after {} ms", 
+                        datasetId, System.currentTimeMillis() - requestStart, e);
+                return ResponseEntity.status(500).build();
+            }
+        });
+    }
+
+    /**
+     * Search table names in a dataset: ?q=text[&limit=N], prefix matches first
+     */
+    @GetMapping("/datasets/{datasetId}/tables/search")
+    public DeferredResult<ResponseEntity<List<Table>>> searchTables(@PathVariable String datasetId,
+                                                    @RequestParam String q,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        return asyncResponses.submit("GET /api/bigquery/datasets/{datasetId}/tables/search", () -> {
+            long requestStart = System.currentTimeMillis();
+            log.info("[TIMING] ########## Received GET /api/bigquery/datasets/{}/tables/search?q={} ##########", datasetId, q);
+        
+            if (q.trim().isEmpty() || limit < 1 || limit > MAX_PAGE_LIMIT) {
+                return ResponseEntity.badRequest().build();
+            }
+        
+            try {
+                long searchStart = System.nanoTime();
+                List<Table> matches = bigQueryService.searchTables(datasetId, q.trim(), limit);
+                long searchMicros = (System.nanoTime() - searchStart) / 1000;
+                log.info("[TIMING] ########## GET /api/bigquery/datasets/{}/tables/search completed in {} ms (search: {} µs, matches: {}) ##########", 
+                        datasetId, System.currentTimeMillis() - requestStart, searchMicros, matches.size());
+                return ResponseEntity.ok(matches);
+            } catch (Exception e) {
+                log.error("[TIMING] Error searching tables in dataset '{}' after {} ms", 
+                        datasetId, System.currentTimeMillis() - requestStart, e);
+                return ResponseEntity.status(500).build();
+            }
+        });
+    }
+
+    /**
+     * Columnar variant of listTables (?format=columnar): values shared by every table are sent
+     * once and each attribute as a parallel array, instead of 30,000 repetitions of every key
+     */
+    @GetMapping(value = "/datasets/{datasetId}/tables", params = "format=columnar")
+    public DeferredResult<ResponseEntity<ColumnarTables>> listTablesColumnar(@PathVariable String datasetId) {
+        return asyncResponses.submit("GET /api/bigquery/datasets/{datasetId}/tables?format=columnar", () -> {
+            long requestStart = System.currentTimeMillis();
+            log.info("[TIMING] ########## Received GET /api/bigquery/datasets/{}/tables?format=columnar ##########", datasetId);
         
-        try {
-            log.info("[DETAIL] ║ CONTROLLER: Processing request");
-            log.info("[DETAIL] ║   → Extracted datasetId from path: {}", datasetId);
-            log.info("[DETAIL] ║   → Validating parameter...");
-            
             if (datasetId == null || datasetId.trim().isEmpty()) {
-                log.error("[DETAIL] ║   ✗ Invalid datasetId: empty or null");
+                log.error("[DETAIL] ║   ✗ Invalid request: datasetId is empty or null");
                 return ResponseEntity.badRequest().build();
             }
-            
-            log.info("[DETAIL] ║   ✓ Parameter validation passed");
-            log.info("[DETAIL] ║   → Calling service layer with datasetId: {}", datasetId);
-            
-            long serviceStart = System.currentTimeMillis();
-            log.info("[DETAIL] ║");
-            log.info("[DETAIL] ║ CONTROLLER → SERVICE: Delegating to BigQueryService.listTables()");
-            log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
-            log.info("[DETAIL] ║ │ Entering SERVICE LAYER...");
-            log.info("[DETAIL] ║ │ Parameter: datasetId = '{}'", datasetId);
-            log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
-            
-            List<Table> tables = bigQueryService.listTables(datasetId);
-            
-            long serviceTime = System.currentTimeMillis() - serviceStart;
-            log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
-            log.info("[DETAIL] ║ │ Returned from SERVICE LAYER");
-            log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
-            log.info("[DETAIL] ║");
-            log.info("[DETAIL] ║ SERVICE → CONTROLLER: Received response");
-            log.info("[DETAIL] ║   ✓ Service call completed in {} ms", serviceTime);
-            log.info("[DETAIL] ║   ✓ Tables received: {}", tables.size());
-            log.info("[DETAIL] ║   → Table IDs: {}", 
-                     tables.stream().map(Table::getTableId).toArray());
-            
-            // Serialize to JSON
-            long serializationStart = System.currentTimeMillis();
-            log.info("[DETAIL] ║");
-            log.info("[DETAIL] ║ CONTROLLER: Preparing HTTP response");
-            log.info("[DETAIL] ║   → Converting {} tables to JSON", tables.size());
-            log.info("[DETAIL] ║   → Creating ResponseEntity with HTTP 200 OK");
-            
-            ResponseEntity<List<Table>> response = ResponseEntity.ok(tables);
-            
-            long serializationTime = System.currentTimeMillis() - serializationStart;
-            log.info("[DETAIL] ║   ✓ JSON serialization completed in {} ms", serializationTime);
-            log.info("[DETAIL] ║   ✓ Response entity created");
-            
-            long totalTime = System.currentTimeMillis() - requestStart;
-            log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
-            log.info("[DETAIL] ║ HTTP RESPONSE READY");
-            log.info("[DETAIL] ║   ✓ Status Code: 200 OK");
-            log.info("[DETAIL] ║   ✓ Content-Type: application/json");
-            log.info("[DETAIL] ║   ✓ Body: List<Table> with {} items", tables.size());
-            log.info("[DETAIL] ║   ✓ Total request time: {} ms", totalTime);
-            log.info("[DETAIL] ║ Breakdown:");
-            log.info("[DETAIL] ║   • Service layer: {} ms ({}%)", 
-                     serviceTime, (serviceTime * 100 / totalTime));
-            log.info("[DETAIL] ║   • JSON serialization: {} ms ({}%)", 
-                     serializationTime, (serializationTime * 100 / totalTime));
-            log.info("[DETAIL] ╚══════════════════════════════════════════════════════════");
-            
-            log.info("[TIMING] ########## GET /api/bigquery/datasets/{}/tables completed in {} ms (service: {} ms, serialization: {} ms, tables: {}) ##########", 
-                    datasetId, totalTime, serviceTime, serializationTime, tables.size());
-            
-            return response;
-        } catch (Exception e) {
-            long totalTime = System.currentTimeMillis() - requestStart;
-            log.error("[DETAIL] ╠══════════════════════════════════════════════════════════");
-            log.error("[DETAIL] ║ HTTP REQUEST FAILED");
-            log.error("[DETAIL] ║   ✗ Dataset: {}", datasetId);
-            log.error("[DETAIL] ║   ✗ Error: {}", e.getMessage());
-            log.error("[DETAIL] ║   ✗ Exception: {}", e.getClass().getSimpleName());
-            log.error("[DETAIL] ║   ✗ Time until failure: {} ms", totalTime);
-            log.error("[DETAIL] ║   → Returning HTTP 500 Internal Server Error");
-            log.error("[DETAIL] ╚══════════════════════════════════════════════════════════");
-            log.error("[TIMING] Error listing tables for dataset '{}' after {} ms", datasetId, totalTime, e);
-            return ResponseEntity.status(500).build();
+        
+            try {
+                ColumnarTables tables = bigQueryService.listTablesColumnar(datasetId);
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.info("[TIMING] ########## GET /api/bigquery/datasets/{}/tables?format=columnar completed in {} ms (tables: {}) ##########", 
+                        datasetId, totalTime, tables.getCount());
+                return ResponseEntity.ok(tables);
+            } catch (Exception e) {
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.error("[TIMING] Error listing tables (columnar) for dataset '{}' after {} ms", datasetId, totalTime, e);
+                return ResponseEntity.status(500).build();
+            }
+        });
+    }
+
+    /**
+     * Paged variant of listTables: ?limit=N[&pageToken=...] returns one page plus the
+     * token of the next one (BigQuery's own page token)
+     */
+    @GetMapping(value = "/datasets/{datasetId}/tables", params = "limit")
+    public DeferredResult<ResponseEntity<TablePage>> listTablesPage(@PathVariable String datasetId,
+                                                    @RequestParam int limit,
+                                                    @RequestParam(required = false) String pageToken) {
+        return asyncResponses.submit("GET /api/bigquery/datasets/{datasetId}/tables?limit", () -> {
+            long requestStart = System.currentTimeMillis();
+            log.info("[TIMING] ########## Received GET /api/bigquery/datasets/{}/tables?limit={} ##########", datasetId, limit);
+        
+            if (datasetId == null || datasetId.trim().isEmpty() || limit < 1 || limit > MAX_PAGE_LIMIT) {
+                log.error("[DETAIL] ║   ✗ Invalid request: datasetId='{}', limit={} (allowed 1-{})", datasetId, limit, MAX_PAGE_LIMIT);
+                return ResponseEntity.badRequest().build();
+            }
+        
+            try {
+                TablePage page = bigQueryService.listTablesPage(datasetId, limit, pageToken);
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.info("[TIMING] ########## GET /api/bigquery/datasets/{}/tables?limit={} completed in {} ms (tables: {}) ##########", 
+                        datasetId, limit, totalTime, page.getTables().size());
+                return ResponseEntity.ok(page);
+            } catch (Exception e) {
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.error("[TIMING] Error listing table page for dataset '{}' after {} ms", datasetId, totalTime, e);
+                return ResponseEntity.status(500).build();
+            }
+        });
+    }
+
+    /**
+     * Streaming variant of listTables (Accept: application/x-ndjson): one Table per line,
+     * written as each REST page is mapped instead of after the whole list is built
+     */
+    @GetMapping(value = "/datasets/{datasetId}/tables", produces = NdjsonResponseWriter.NDJSON)
+    public StreamingResponseBody streamTables(@PathVariable String datasetId, HttpServletResponse response) throws IOException {
+        long requestStart = System.currentTimeMillis();
+        log.info("[TIMING] ########## Received GET /api/bigquery/datasets/{}/tables (NDJSON stream) ##########", datasetId);
+        
+        if (datasetId == null || datasetId.trim().isEmpty()) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
         }
+        
+        return asyncResponses.stream("GET /api/bigquery/datasets/{datasetId}/tables (NDJSON)", () -> {
+            NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper);
+            long[] firstRowTime = {-1};
+            try {
+                bigQueryService.streamTables(datasetId, table -> {
+                    writer.write(table);
+                    if (firstRowTime[0] < 0) {
+                        firstRowTime[0] = System.currentTimeMillis() - requestStart;
+                    }
+                });
+                writer.finish();
+                
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.info("[TIMING] ########## GET /api/bigquery/datasets/{}/tables (NDJSON) completed in {} ms (first row: {} ms, tables: {}) ##########", 
+                        datasetId, totalTime, firstRowTime[0], writer.getRows());
+            } catch (Exception e) {
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.error("[TIMING] Error streaming tables for dataset '{}' after {} ms ({} tables written)", 
+                        datasetId, totalTime, writer.getRows(), e);
+                writer.fail(e);
+            }
+        });
     }
 
-    @GetMapping("/datasets/{datasetId}/tables/{tableId}/schema")
-    public ResponseEntity<List<Field>> getTableSchema(
-            @PathVariable String datasetId,
-            @PathVariable String tableId) {
+    /**
+     * Schemas of every table in the dataset from a single INFORMATION_SCHEMA query,
+     * streamed as NDJSON (one TableSchema per line) as the rows are grouped
+     */
+    @GetMapping("/datasets/{datasetId}/schemas")
+    public StreamingResponseBody streamSchemas(@PathVariable String datasetId, HttpServletResponse response) throws IOException {
         long requestStart = System.currentTimeMillis();
-        log.info("[TIMING] ########## Received GET /api/bigquery/datasets/{}/tables/{}/schema ##########", 
-                datasetId, tableId);
-        log.info("[DETAIL] ╔══════════════════════════════════════════════════════════");
-        log.info("[DETAIL] ║ HTTP REQUEST RECEIVED");
-        log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
-        log.info("[DETAIL] ║ Endpoint: GET /api/bigquery/datasets/{datasetId}/tables/{tableId}/schema");
-        log.info("[DETAIL] ║ Purpose: Retrieve schema (field definitions) for a specific table");
-        log.info("[DETAIL] ║ Request Time: {}", new java.util.Date());
-        log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
-        log.info("[DETAIL] ║ Request Parameters:");
-        log.info("[DETAIL] ║   → PATH VARIABLE: datasetId = '{}'", datasetId);
-        log.info("[DETAIL] ║   → PATH VARIABLE: tableId = '{}'", tableId);
-        log.info("[DETAIL] ║   → Full path: /api/bigquery/datasets/{}/tables/{}/schema", datasetId, tableId);
+        log.info("[TIMING] ########## Received GET /api/bigquery/datasets/{}/schemas ##########", datasetId);
         
+        // The dataset id goes into the INFORMATION_SCHEMA query text
         try {
-            log.info("[DETAIL] ║ CONTROLLER: Processing request");
-            log.info("[DETAIL] ║   → Extracted datasetId: {}", datasetId);
-            log.info("[DETAIL] ║   → Extracted tableId: {}", tableId);
-            log.info("[DETAIL] ║   → Validating parameters...");
-            
-            if (datasetId == null || datasetId.trim().isEmpty() || 
-                tableId == null || tableId.trim().isEmpty()) {
-                log.error("[DETAIL] ║   ✗ Invalid parameters");
-                return ResponseEntity.badRequest().build();
+            bigQueryService.checkDatasetId(datasetId);
+        } catch (IllegalArgumentException e) {
+            log.warn("[DETAIL] ║   ✗ {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return null;
+        }
+        
+        return asyncResponses.stream("GET /api/bigquery/datasets/{datasetId}/schemas", () -> {
+            NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper);
+            try {
+                bigQueryService.streamSchemas(datasetId, writer::write);
+                writer.finish();
+                log.info("[TIMING] ########## GET /api/bigquery/datasets/{}/schemas completed in {} ms (tables: {}) ##########", 
+                        datasetId, System.currentTimeMillis() - requestStart, writer.getRows());
+            } catch (Exception e) {
+                log.error("[TIMING] Error streaming schemas for dataset '{}' after {} ms ({} tables written)", 
+                        datasetId, System.currentTimeMillis() - requestStart, writer.getRows(), e);
+                writer.fail(e);
             }
-            
-            log.info("[DETAIL] ║   ✓ Parameter validation passed");
-            log.info("[DETAIL] ║   → Calling service layer...");
-            
-            long serviceStart = System.currentTimeMillis();
-            log.info("[DETAIL] ║");
-            log.info("[DETAIL] ║ CONTROLLER → SERVICE: Delegating to BigQueryService.getTableSchema()");
-            log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
-            log.info("[DETAIL] ║ │ Entering SERVICE LAYER...");
-            log.info("[DETAIL] ║ │ Parameters: datasetId='{}', tableId='{}'", datasetId, tableId);
-            log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
-            
-            List<Field> fields = bigQueryService.getTableSchema(datasetId, tableId);
-            
-            long serviceTime = System.currentTimeMillis() - serviceStart;
-            log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
-            log.info("[DETAIL] ║ │ Returned from SERVICE LAYER");
-            log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
-            log.info("[DETAIL] ║");
-            log.info("[DETAIL] ║ SERVICE → CONTROLLER: Received response");
-            log.info("[DETAIL] ║   ✓ Service call completed in {} ms", serviceTime);
-            log.info("[DETAIL] ║   ✓ Fields received: {}", fields.size());
-            
-            // Serialize to JSON
-            long serializationStart = System.currentTimeMillis();
-            log.info("[DETAIL] ║");
-            log.info("[DETAIL] ║ CONTROLLER: Preparing HTTP response");
-            log.info("[DETAIL] ║   → Converting {} fields to JSON", fields.size());
-            log.info("[DETAIL] ║   → Creating ResponseEntity with HTTP 200 OK");
-            
-            ResponseEntity<List<Field>> response = ResponseEntity.ok(fields);
-            
-            long serializationTime = System.currentTimeMillis() - serializationStart;
-            log.info("[DETAIL] ║   ✓ JSON serialization completed in {} ms", serializationTime);
-            log.info("[DETAIL] ║   ✓ Response entity created");
-            
-            long totalTime = System.currentTimeMillis() - requestStart;
+        });
+    }
+
+    @GetMapping("/datasets/{datasetId}/tables/{tableId}/schema")
+    public DeferredResult<ResponseEntity<List<Field>>> getTableSchema(
+            @PathVariable String datasetId,
+            @PathVariable String tableId) {
+        return asyncResponses.submit("GET /api/bigquery/datasets/{datasetId}/tables/{tableId}/schema", () -> {
+            long requestStart = System.currentTimeMillis();
+            log.info("[TIMING] ########## Received GET /api/bigquery/datasets/{}/tables/{}/schema ##########", 
+                    datasetId, tableId);
+            log.info("[DETAIL] ╔══════════════════════════════════════════════════════════");
+            log.info("[DETAIL] ║ HTTP REQUEST RECEIVED");
             log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
-            log.info("[DETAIL] ║ HTTP RESPONSE READY");
-            log.info("[DETAIL] ║   ✓ Status Code: 200 OK");
-            log.info("[DETAIL] ║   ✓ Content-Type: application/json");
-            log.info("[DETAIL] ║   ✓ Body: List<Field> with {} items", fields.size());
-            log.info("[DETAIL] ║   ✓ Total request time: {} ms", totalTime);
-            log.info("[DETAIL] ║ Breakdown:");
-            log.info("[DETAIL] ║   • Service layer: {} ms ({}%)", 
-                     serviceTime, (serviceTime * 100 / totalTime));
-            log.info("[DETAIL] ║   • JSON serialization: {} ms ({}%)", 
-                     serializationTime, (serializationTime * 100 / totalTime));
-            log.info("[DETAIL] ╚══════════════════════════════════════════════════════════");
-            
-            log.info("[TIMING] ########## GET /api/bigquery/datasets/{}/tables/{}/schema completed in {} ms (service: {} ms, fields: {}) ##########", 
-                    datasetId, tableId, totalTime, serviceTime, fields.size());
-            
-            return response;
-        } catch (Exception e) {
-            long totalTime = System.currentTimeMillis() - requestStart;
-            log.error("[DETAIL] ╠══════════════════════════════════════════════════════════");
-            log.error("[DETAIL] ║ HTTP REQUEST FAILED");
-            log.error("[DETAIL] ║   ✗ Table: {}.{}", datasetId, tableId);
-            log.error("[DETAIL] ║   ✗ Error: {}", e.getMessage());
-            log.error("[DETAIL] ║   ✗ Time until failure: {} ms", totalTime);
-            log.error("[DETAIL] ╚══════════════════════════════════════════════════════════");
-            log.error("[TIMING] Error getting table schema for '{}.{}' after {} ms", 
-                    datasetId, tableId, totalTime, e);
-            return ResponseEntity.status(500).build();
-        }
+            log.info("[DETAIL] ║ Endpoint: GET /api/bigquery/datasets/{datasetId}/tables/{tableId}/schema");
+            log.info("[DETAIL] ║ Purpose: Retrieve schema (field definitions) for a specific table");
+            log.info("[DETAIL] ║ Request Time: {}", new java.util.Date());
+            log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
+            log.info("[DETAIL] ║ Request Parameters:");
+            log.info("[DETAIL] ║   → PATH VARIABLE: datasetId = '{}'", datasetId);
+            log.info("[DETAIL] ║   → PATH VARIABLE: tableId = '{}'", tableId);
+            log.info("[DETAIL] ║   → Full path: /api/bigquery/datasets/{}/tables/{}/schema", datasetId, tableId);
+        
+            try {
+                log.info("[DETAIL] ║ CONTROLLER: Processing request");
+                log.info("[DETAIL] ║   → Extracted datasetId: {}", datasetId);
+                log.info("[DETAIL] ║   → Extracted tableId: {}", tableId);
+                log.info("[DETAIL] ║   → Validating parameters...");
+            
+                if (datasetId == null || datasetId.trim().isEmpty() || 
+                    tableId == null || tableId.trim().isEmpty()) {
+                    log.error("[DETAIL] ║   ✗ Invalid parameters");
+                    return ResponseEntity.badRequest().build();
+                }
+            
+                log.info("[DETAIL] ║   ✓ Parameter validation passed");
+                log.info("[DETAIL] ║   → Calling service layer...");
+            
+                long serviceStart = System.currentTimeMillis();
+                log.info("[DETAIL] ║");
+                log.info("[DETAIL] ║ CONTROLLER → SERVICE: Delegating to BigQueryService.getTableSchema()");
+                log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
+                log.info("[DETAIL] ║ │ Entering SERVICE LAYER...");
+                log.info("[DETAIL] ║ │ Parameters: datasetId='{}', tableId='{}'", datasetId, tableId);
+                log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
+            
+                List<Field> fields = bigQueryService.getTableSchema(datasetId, tableId);
+            
+                long serviceTime = System.currentTimeMillis() - serviceStart;
+                log.info("[DETAIL] ║ ┌────────────────────────────────────────────────────");
+                log.info("[DETAIL] ║ │ Returned from SERVICE LAYER");
+                log.info("[DETAIL] ║ └────────────────────────────────────────────────────");
+                log.info("[DETAIL] ║");
+                log.info("[DETAIL] ║ SERVICE → CONTROLLER: Received response");
+                log.info("[DETAIL] ║   ✓ Service call completed in {} ms", serviceTime);
+                log.info("[DETAIL] ║   ✓ Fields received: {}", fields.size());
+            
+                // Serialize to JSON
+                long serializationStart = System.currentTimeMillis();
+                log.info("[DETAIL] ║");
+                log.info("[DETAIL] ║ CONTROLLER: Preparing HTTP response");
+                log.info("[DETAIL] ║   → Converting {} fields to JSON", fields.size());
+                log.info("[DETAIL] ║   → Creating ResponseEntity with HTTP 200 OK");
+            
+                ResponseEntity<List<Field>> response = ResponseEntity.ok(fields);
+            
+                long serializationTime = System.currentTimeMillis() - serializationStart;
+                log.info("[DETAIL] ║   ✓ JSON serialization completed in {} ms", serializationTime);
+                log.info("[DETAIL] ║   ✓ Response entity created");
+            
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
+                log.info("[DETAIL] ║ HTTP RESPONSE READY");
+                log.info("[DETAIL] ║   ✓ Status Code: 200 OK");
+                log.info("[DETAIL] ║   ✓ Content-Type: application/json");
+                log.info("[DETAIL] ║   ✓ Body: List<Field> with {} items", fields.size());
+                log.info("[DETAIL] ║   ✓ Total request time: {} ms", totalTime);
+                log.info("[DETAIL] ║ Breakdown:");
+                log.info("[DETAIL] ║   • Service layer: {} ms ({}%)", 
+                         serviceTime, (serviceTime * 100 / Math.max(1, totalTime)));
+                log.info("[DETAIL] ║   • JSON serialization: {} ms ({}%)", 
+                         serializationTime, (serializationTime * 100 / Math.max(1, totalTime)));
+                log.info("[DETAIL] ╚══════════════════════════════════════════════════════════");
+            
+                log.info("[TIMING] ########## GET /api/bigquery/datasets/{}/tables/{}/schema completed in {} ms (service: {} ms, fields: {}) ##########", 
+                        datasetId, tableId, totalTime, serviceTime, fields.size());
+            
+                return response;
+            } catch (Exception e) {
+                long totalTime = System.currentTimeMillis() - requestStart;
+                log.error("[DETAIL] ╠══════════════════════════════════════════════════════════");
+                log.error("[DETAIL] ║ HTTP REQUEST FAILED");
+                log.error("[DETAIL] ║   ✗ Table: {}.{}", datasetId, tableId);
+                log.error("[DETAIL] ║   ✗ Error: {}", e.getMessage());
+                log.error("[DETAIL] ║   ✗ Time until failure: {} ms", totalTime);
+                log.error("[DETAIL] ╚══════════════════════════════════════════════════════════");
+                log.error("[TIMING] Error getting table schema for '{}.{}' after {} ms", 
+                        datasetId, tableId, totalTime, e);
+                return ResponseEntity.status(500).build();
+            }
+        });
     }
 }
 
@@ -1,20 +1,33 @@
 package com.mercadolibre.incidenciabq.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.incidenciabq.model.CatalogSnapshot;
+import com.mercadolibre.incidenciabq.model.ColumnarTables;
 import com.mercadolibre.incidenciabq.model.Dataset;
 import com.mercadolibre.incidenciabq.model.Table;
+import com.mercadolibre.incidenciabq.model.TablePage;
+import com.mercadolibre.incidenciabq.model.TableRefreshResult;
 import com.mercadolibre.incidenciabq.model.Field;
 import com.mercadolibre.incidenciabq.service.BigQueryJdbcService;
+import com.mercadolibre.incidenciabq.service.JdbcConnectionPoolManager;
+import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -25,247 +38,479 @@ import java.util.stream.Collectors;
 public class BigQueryJdbcController {
 
     private static final Logger logger = LoggerFactory.getLogger(BigQueryJdbcController.class);
+    private static final int MAX_PAGE_LIMIT = 1000;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("EEE MMM dd HH:mm:ss z yyyy");
 
     private final BigQueryJdbcService bigQueryJdbcService;
+    private final JdbcConnectionPoolManager connectionPoolManager;
+    private final ObjectMapper objectMapper;
+    private final AsyncResponses asyncResponses;
 
-    public BigQueryJdbcController(BigQueryJdbcService bigQueryJdbcService) {
+    public BigQueryJdbcController(BigQueryJdbcService bigQueryJdbcService,
+                                  JdbcConnectionPoolManager connectionPoolManager,
+                                  ObjectMapper objectMapper,
+                                  AsyncResponses asyncResponses) {
         this.bigQueryJdbcService = bigQueryJdbcService;
+        this.connectionPoolManager = connectionPoolManager;
+        this.objectMapper = objectMapper;
+        this.asyncResponses = asyncResponses;
     }
 
-    @GetMapping("/datasets")
-    public ResponseEntity<List<Dataset>> listDatasets() {
-        long startTime = System.currentTimeMillis();
-        logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets ##########");
-        logger.info("[DETAIL][JDBC] ╔══════════════════════════════════════════════════════════");
-        logger.info("[DETAIL][JDBC] ║ HTTP REQUEST RECEIVED (JDBC)");
-        logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-        logger.info("[DETAIL][JDBC] ║ Endpoint: GET /api/bigquery-jdbc/datasets");
-        logger.info("[DETAIL][JDBC] ║ Purpose: Retrieve all datasets via JDBC");
-        logger.info("[DETAIL][JDBC] ║ Request Time: {}", ZonedDateTime.now().format(FORMATTER));
-        logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-        logger.info("[DETAIL][JDBC] ║ CONTROLLER: Processing request");
-        logger.info("[DETAIL][JDBC] ║   → Method: JDBC/SQL");
-        logger.info("[DETAIL][JDBC] ║   → Calling JDBC service layer...");
-        logger.info("[DETAIL][JDBC] ║");
-        logger.info("[DETAIL][JDBC] ║ CONTROLLER → SERVICE: Delegating to BigQueryJdbcService.listDatasets()");
-        logger.info("[DETAIL][JDBC] ║ ┌────────────────────────────────────────────────────");
-        logger.info("[DETAIL][JDBC] ║ │ Entering JDBC SERVICE LAYER...");
-        logger.info("[DETAIL][JDBC] ║ └────────────────────────────────────────────────────");
+    /**
+     * Connection pool metrics (one pool per credential key)
+     */
+    @GetMapping("/pool/stats")
+    public ResponseEntity<Map<String, Object>> getPoolStats() {
+        return ResponseEntity.ok(connectionPoolManager.getPoolStats());
+    }
 
-        try {
-            List<Dataset> datasets = bigQueryJdbcService.listDatasets();
-            long serviceEndTime = System.currentTimeMillis();
+    /**
+     * Every table of every dataset in the project region from one INFORMATION_SCHEMA scan
+     * (?includeColumns=true adds every table's schema from a second scan)
+     */
+    @GetMapping("/catalog")
+    public DeferredResult<ResponseEntity<CatalogSnapshot>> loadCatalog(@RequestParam(defaultValue = "false") boolean includeColumns) {
+        return asyncResponses.submit("GET /api/bigquery-jdbc/catalog", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/catalog?includeColumns={} ##########", includeColumns);
+            try {
+                CatalogSnapshot catalog = bigQueryJdbcService.loadCatalog(includeColumns);
+                logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/catalog completed in {} ms (datasets: {}) ##########",
+                        (System.currentTimeMillis() - startTime), catalog.getTablesByDataset().size());
+                return ResponseEntity.ok(catalog);
+            } catch (Exception e) {
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/catalog failed in {} ms ##########",
+                    (System.currentTimeMillis() - startTime), e);
+                return ResponseEntity.status(500).body(null);
+            }
+        });
+    }
+
+    @GetMapping("/datasets")
+    public DeferredResult<ResponseEntity<List<Dataset>>> listDatasets() {
+        return asyncResponses.submit("GET /api/bigquery-jdbc/datasets", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets ##########");
+            logger.info("[DETAIL][JDBC] ╔══════════════════════════════════════════════════════════");
+            logger.info("[DETAIL][JDBC] ║ HTTP REQUEST RECEIVED (JDBC)");
+            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+            logger.info("[DETAIL][JDBC] ║ Endpoint: GET /api/bigquery-jdbc/datasets");
+            logger.info("[DETAIL][JDBC] ║ Purpose: Retrieve all datasets via JDBC");
+            logger.info("[DETAIL][JDBC] ║ Request Time: {}", ZonedDateTime.now().format(FORMATTER));
+            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+            logger.info("[DETAIL][JDBC] ║ CONTROLLER: Processing request");
+            logger.info("[DETAIL][JDBC] ║   → Method: JDBC/SQL");
+            logger.info("[DETAIL][JDBC] ║   → Calling JDBC service layer...");
+            logger.info("[DETAIL][JDBC] ║");
+            logger.info("[DETAIL][JDBC] ║ CONTROLLER → SERVICE: Delegating to BigQueryJdbcService.listDatasets()");
             logger.info("[DETAIL][JDBC] ║ ┌────────────────────────────────────────────────────");
-            logger.info("[DETAIL][JDBC] ║ │ Returned from JDBC SERVICE LAYER");
+            logger.info("[DETAIL][JDBC] ║ │ Entering JDBC SERVICE LAYER...");
             logger.info("[DETAIL][JDBC] ║ └────────────────────────────────────────────────────");
-            logger.info("[DETAIL][JDBC] ║");
-            logger.info("[DETAIL][JDBC] ║ SERVICE → CONTROLLER: Received response");
-            logger.info("[DETAIL][JDBC] ║   ✓ Service call completed in {} ms", (serviceEndTime - startTime));
-            logger.info("[DETAIL][JDBC] ║   ✓ Datasets received: {}", datasets.size());
-            if (!datasets.isEmpty()) {
-                logger.info("[DETAIL][JDBC] ║   → Dataset IDs: {}", 
-                    datasets.stream().map(Dataset::getDatasetId).collect(Collectors.joining(", ")));
+
+            try {
+                List<Dataset> datasets = bigQueryJdbcService.listDatasets();
+                long serviceEndTime = System.currentTimeMillis();
+                logger.info("[DETAIL][JDBC] ║ ┌────────────────────────────────────────────────────");
+                logger.info("[DETAIL][JDBC] ║ │ Returned from JDBC SERVICE LAYER");
+                logger.info("[DETAIL][JDBC] ║ └────────────────────────────────────────────────────");
+                logger.info("[DETAIL][JDBC] ║");
+                logger.info("[DETAIL][JDBC] ║ SERVICE → CONTROLLER: Received response");
+                logger.info("[DETAIL][JDBC] ║   ✓ Service call completed in {} ms", (serviceEndTime - startTime));
+                logger.info("[DETAIL][JDBC] ║   ✓ Datasets received: {}", datasets.size());
+                if (!datasets.isEmpty()) {
+                    logger.info("[DETAIL][JDBC] ║   → Dataset IDs: {}", 
+                        datasets.stream().map(Dataset::getDatasetId).collect(Collectors.joining(", ")));
+                }
+                logger.info("[DETAIL][JDBC] ║");
+                logger.info("[DETAIL][JDBC] ║ CONTROLLER: Preparing HTTP response");
+                logger.info("[DETAIL][JDBC] ║   → Converting {} datasets to JSON", datasets.size());
+                long serializationStartTime = System.currentTimeMillis();
+                ResponseEntity<List<Dataset>> response = ResponseEntity.ok(datasets);
+                long serializationEndTime = System.currentTimeMillis();
+                long endTime = System.currentTimeMillis();
+                logger.info("[DETAIL][JDBC] ║   ✓ JSON serialization completed in {} ms", 
+                    (serializationEndTime - serializationStartTime));
+                logger.info("[DETAIL][JDBC] ║   ✓ Response entity created");
+                logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+                logger.info("[DETAIL][JDBC] ║ HTTP RESPONSE READY");
+                logger.info("[DETAIL][JDBC] ║   ✓ Status Code: 200 OK");
+                logger.info("[DETAIL][JDBC] ║   ✓ Content-Type: application/json");
+                logger.info("[DETAIL][JDBC] ║   ✓ Body: List<Dataset> with {} items", datasets.size());
+                logger.info("[DETAIL][JDBC] ║   ✓ Method: JDBC/SQL");
+                logger.info("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
+                logger.info("[DETAIL][JDBC] ║ Breakdown:");
+                logger.info("[DETAIL][JDBC] ║   • JDBC service layer: {} ms ({}%)", 
+                    (serviceEndTime - startTime), 
+                    String.format("%.0f", ((double)(serviceEndTime - startTime) / (endTime - startTime)) * 100));
+                logger.info("[DETAIL][JDBC] ║   • JSON serialization: {} ms ({}%)", 
+                    (serializationEndTime - serializationStartTime), 
+                    String.format("%.0f", ((double)(serializationEndTime - serializationStartTime) / (endTime - startTime)) * 100));
+                logger.info("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+                logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets completed in {} ms (service: {} ms, serialization: {} ms, datasets: {}) ##########",
+                        (endTime - startTime), (serviceEndTime - startTime), 
+                        (serializationEndTime - serializationStartTime), datasets.size());
+                return response;
+            } catch (Exception e) {
+                long endTime = System.currentTimeMillis();
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets failed in {} ms ##########", 
+                    (endTime - startTime), e);
+                logger.error("[DETAIL][JDBC] ║   ✗ Status: FAILED");
+                logger.error("[DETAIL][JDBC] ║   ✗ Error: {}", e.getMessage());
+                logger.error("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+                logger.error("[DETAIL][JDBC] ║ HTTP RESPONSE FAILED");
+                logger.error("[DETAIL][JDBC] ║   ✓ Status Code: 500 Internal Server Error");
+                logger.error("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
+                logger.error("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+                return ResponseEntity.status(500).body(null);
             }
-            logger.info("[DETAIL][JDBC] ║");
-            logger.info("[DETAIL][JDBC] ║ CONTROLLER: Preparing HTTP response");
-            logger.info("[DETAIL][JDBC] ║   → Converting {} datasets to JSON", datasets.size());
-            long serializationStartTime = System.currentTimeMillis();
-            ResponseEntity<List<Dataset>> response = ResponseEntity.ok(datasets);
-            long serializationEndTime = System.currentTimeMillis();
-            long endTime = System.currentTimeMillis();
-            logger.info("[DETAIL][JDBC] ║   ✓ JSON serialization completed in {} ms", 
-                (serializationEndTime - serializationStartTime));
-            logger.info("[DETAIL][JDBC] ║   ✓ Response entity created");
-            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-            logger.info("[DETAIL][JDBC] ║ HTTP RESPONSE READY");
-            logger.info("[DETAIL][JDBC] ║   ✓ Status Code: 200 OK");
-            logger.info("[DETAIL][JDBC] ║   ✓ Content-Type: application/json");
-            logger.info("[DETAIL][JDBC] ║   ✓ Body: List<Dataset> with {} items", datasets.size());
-            logger.info("[DETAIL][JDBC] ║   ✓ Method: JDBC/SQL");
-            logger.info("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
-            logger.info("[DETAIL][JDBC] ║ Breakdown:");
-            logger.info("[DETAIL][JDBC] ║   • JDBC service layer: {} ms ({}%)", 
-                (serviceEndTime - startTime), 
-                String.format("%.0f", ((double)(serviceEndTime - startTime) / (endTime - startTime)) * 100));
-            logger.info("[DETAIL][JDBC] ║   • JSON serialization: {} ms ({}%)", 
-                (serializationEndTime - serializationStartTime), 
-                String.format("%.0f", ((double)(serializationEndTime - serializationStartTime) / (endTime - startTime)) * 100));
-            logger.info("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
-            logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets completed in {} ms (service: {} ms, serialization: {} ms, datasets: {}) ##########",
-                    (endTime - startTime), (serviceEndTime - startTime), 
-                    (serializationEndTime - serializationStartTime), datasets.size());
-            return response;
-        } catch (Exception e) {
-            long endTime = System.currentTimeMillis();
-            logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets failed in {} ms ##########", 
-                (endTime - startTime), e);
-            logger.error("[DETAIL][JDBC] ║   ✗ Status: FAILED");
-            logger.error("[DETAIL][JDBC] ║   ✗ Error: {}", e.getMessage());
-            logger.error("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-            logger.error("[DETAIL][JDBC] ║ HTTP RESPONSE FAILED");
-            logger.error("[DETAIL][JDBC] ║   ✓ Status Code: 500 Internal Server Error");
-            logger.error("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
-            logger.error("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
-            return ResponseEntity.status(500).body(null);
-        }
+        });
     }
 
     @GetMapping("/datasets/{datasetId}/tables")
-    public ResponseEntity<List<Table>> listTables(@PathVariable String datasetId) {
+    public DeferredResult<ResponseEntity<List<Table>>> listTables(@PathVariable String datasetId) {
+        return asyncResponses.submit("GET /api/bigquery-jdbc/datasets/{datasetId}/tables", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets/{}/tables ##########", datasetId);
+            logger.info("[DETAIL][JDBC] ╔══════════════════════════════════════════════════════════");
+            logger.info("[DETAIL][JDBC] ║ HTTP REQUEST RECEIVED (JDBC)");
+            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+            logger.info("[DETAIL][JDBC] ║ Endpoint: GET /api/bigquery-jdbc/datasets/{datasetId}/tables");
+            logger.info("[DETAIL][JDBC] ║ Purpose: Retrieve all tables from dataset via JDBC");
+            logger.info("[DETAIL][JDBC] ║ Request Time: {}", ZonedDateTime.now().format(FORMATTER));
+            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+            logger.info("[DETAIL][JDBC] ║ Request Parameters:");
+            logger.info("[DETAIL][JDBC] ║   → PATH VARIABLE: datasetId = '{}'", datasetId);
+            logger.info("[DETAIL][JDBC] ║ CONTROLLER: Processing request");
+            logger.info("[DETAIL][JDBC] ║   → Method: JDBC/SQL");
+            logger.info("[DETAIL][JDBC] ║   → Extracted datasetId from path: {}", datasetId);
+            logger.info("[DETAIL][JDBC] ║   → Validating parameter...");
+            if (datasetId == null || datasetId.trim().isEmpty()) {
+                logger.warn("[DETAIL][JDBC] ║   ✗ Parameter validation failed: datasetId is empty or null");
+                long endTime = System.currentTimeMillis();
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables failed in {} ms (Invalid datasetId) ##########", 
+                    datasetId, (endTime - startTime));
+                return ResponseEntity.badRequest().body(null);
+            }
+            logger.info("[DETAIL][JDBC] ║   ✓ Parameter validation passed");
+            logger.info("[DETAIL][JDBC] ║   → Calling JDBC service layer with datasetId: {}", datasetId);
+            logger.info("[DETAIL][JDBC] ║");
+            logger.info("[DETAIL][JDBC] ║ CONTROLLER → SERVICE: Delegating to BigQueryJdbcService.listTables()");
+            logger.info("[DETAIL][JDBC] ║ ┌────────────────────────────────────────────────────");
+            logger.info("[DETAIL][JDBC] ║ │ Entering JDBC SERVICE LAYER...");
+            logger.info("[DETAIL][JDBC] ║ │ Parameter: datasetId = '{}'", datasetId);
+            logger.info("[DETAIL][JDBC] ║ └────────────────────────────────────────────────────");
+
+            try {
+                List<Table> tables = bigQueryJdbcService.listTables(datasetId);
+                long serviceEndTime = System.currentTimeMillis();
+                logger.info("[DETAIL][JDBC] ║ ┌────────────────────────────────────────────────────");
+                logger.info("[DETAIL][JDBC] ║ │ Returned from JDBC SERVICE LAYER");
+                logger.info("[DETAIL][JDBC] ║ └────────────────────────────────────────────────────");
+                logger.info("[DETAIL][JDBC] ║");
+                logger.info("[DETAIL][JDBC] ║ SERVICE → CONTROLLER: Received response");
+                logger.info("[DETAIL][JDBC] ║   ✓ Service call completed in {} ms", (serviceEndTime - startTime));
+                logger.info("[DETAIL][JDBC] ║   ✓ Tables received: {}", tables.size());
+                if (!tables.isEmpty()) {
+                    logger.info("[DETAIL][JDBC] ║   → Table IDs: {}", 
+                        tables.stream().map(Table::getTableId).collect(Collectors.joining(", ")));
+                }
+                logger.info("[DETAIL][JDBC] ║");
+                logger.info("[DETAIL][JDBC] ║ CONTROLLER: Preparing HTTP response");
+                logger.info("[DETAIL][JDBC] ║   → Converting {} tables to JSON", tables.size());
+                long serializationStartTime = System.currentTimeMillis();
+                ResponseEntity<List<Table>> response = ResponseEntity.ok(tables);
+                long serializationEndTime = System.currentTimeMillis();
+                long endTime = System.currentTimeMillis();
+                logger.info("[DETAIL][JDBC] ║   ✓ JSON serialization completed in {} ms", 
+                    (serializationEndTime - serializationStartTime));
+                logger.info("[DETAIL][JDBC] ║   ✓ Response entity created");
+                logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+                logger.info("[DETAIL][JDBC] ║ HTTP RESPONSE READY");
+                logger.info("[DETAIL][JDBC] ║   ✓ Status Code: 200 OK");
+                logger.info("[DETAIL][JDBC] ║   ✓ Content-Type: application/json");
+                logger.info("[DETAIL][JDBC] ║   ✓ Body: List<Table> with {} items", tables.size());
+                logger.info("[DETAIL][JDBC] ║   ✓ Method: JDBC/SQL");
+                logger.info("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
+                logger.info("[DETAIL][JDBC] ║ Breakdown:");
+                logger.info("[DETAIL][JDBC] ║   • JDBC service layer: {} ms ({}%)", 
+                    (serviceEndTime - startTime), 
+                    String.format("%.0f", ((double)(serviceEndTime - startTime) / (endTime - startTime)) * 100));
+                logger.info("[DETAIL][JDBC] ║   • JSON serialization: {} ms ({}%)", 
+                    (serializationEndTime - serializationStartTime), 
+                    String.format("%.0f", ((double)(serializationEndTime - serializationStartTime) / (endTime - startTime)) * 100));
+                logger.info("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+                logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables completed in {} ms (service: {} ms, serialization: {} ms, tables: {}) ##########",
+                        datasetId, (endTime - startTime), (serviceEndTime - startTime), 
+                        (serializationEndTime - serializationStartTime), tables.size());
+                return response;
+            } catch (Exception e) {
+                long endTime = System.currentTimeMillis();
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables failed in {} ms ##########", 
+                    datasetId, (endTime - startTime), e);
+                logger.error("[DETAIL][JDBC] ║   ✗ Status: FAILED");
+                logger.error("[DETAIL][JDBC] ║   ✗ Error: {}", e.getMessage());
+                logger.error("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+                logger.error("[DETAIL][JDBC] ║ HTTP RESPONSE FAILED");
+                logger.error("[DETAIL][JDBC] ║   ✓ Status Code: 500 Internal Server Error");
+                logger.error("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
+                logger.error("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+                return ResponseEntity.status(500).body(null);
+            }
+        });
+    }
+
+    /**
+     * Incremental refresh of the cached table listing: only tables created, modified or
+     * deleted since the listing was loaded are read from BigQuery
+     */
+    @PostMapping("/datasets/{datasetId}/tables/refresh")
+    public DeferredResult<ResponseEntity<TableRefreshResult>> refreshTables(@PathVariable String datasetId) {
+        return asyncResponses.submit("POST /api/bigquery-jdbc/datasets/{datasetId}/tables/refresh", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("[TIMING][JDBC] ########## Received POST /api/bigquery-jdbc/datasets/{}/tables/refresh ##########", datasetId);
+        
+            try {
+                TableRefreshResult result = bigQueryJdbcService.refreshTables(datasetId);
+                logger.info("[TIMING][JDBC] ########## POST /api/bigquery-jdbc/datasets/{}/tables/refresh completed in {} ms (incremental: {}, total: {}) ##########", 
+                        datasetId, System.currentTimeMillis() - startTime, result.isIncremental(), result.getTotalTables());
+                return ResponseEntity.ok(result);
+            } catch (IllegalArgumentException e) {
+                logger.warn("[DETAIL][JDBC] ║   ✗ {}", e.getMessage());
+                return ResponseEntity.badRequest().build();
+            } catch (Exception e) {
+                logger.error("[TIMING][JDBC] Error refreshing tables of dataset '{}' after {} ms", 
+                        datasetId, System.currentTimeMillis() - startTime, e);
+                return ResponseEntity.status(500).build();
+            }
+        });
+    }
+
+    /**
+     * Search table names in a dataset: ?q=text[&limit=N], prefix matches first
+     */
+    @GetMapping("/datasets/{datasetId}/tables/search")
+    public DeferredResult<ResponseEntity<List<Table>>> searchTables(@PathVariable String datasetId,
+                                                    @RequestParam String q,
+                                                    @RequestParam(defaultValue = "20") int limit) {
+        return asyncResponses.submit("GET /api/bigquery-jdbc/datasets/{datasetId}/tables/search", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets/{}/tables/search?q={} ##########", datasetId, q);
+            if (q.trim().isEmpty() || limit < 1 || limit > MAX_PAGE_LIMIT) {
+                return ResponseEntity.badRequest().body(null);
+            }
+
+            try {
+                long searchStart = System.nanoTime();
+                List<Table> matches = bigQueryJdbcService.searchTables(datasetId, q.trim(), limit);
+                long searchMicros = (System.nanoTime() - searchStart) / 1000;
+                logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables/search completed in {} ms (search: {} µs, matches: {}) ##########",
+                        datasetId, (System.currentTimeMillis() - startTime), searchMicros, matches.size());
+                return ResponseEntity.ok(matches);
+            } catch (Exception e) {
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables/search failed in {} ms ##########",
+                    datasetId, (System.currentTimeMillis() - startTime), e);
+                return ResponseEntity.status(500).body(null);
+            }
+        });
+    }
+
+    /**
+     * Columnar variant of listTables (?format=columnar): values shared by every table are sent
+     * once and each attribute as a parallel array, instead of 30,000 repetitions of every key
+     */
+    @GetMapping(value = "/datasets/{datasetId}/tables", params = "format=columnar")
+    public DeferredResult<ResponseEntity<ColumnarTables>> listTablesColumnar(@PathVariable String datasetId) {
+        return asyncResponses.submit("GET /api/bigquery-jdbc/datasets/{datasetId}/tables?format=columnar", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets/{}/tables?format=columnar ##########", datasetId);
+            if (datasetId == null || datasetId.trim().isEmpty()) {
+                logger.warn("[DETAIL][JDBC] ║   ✗ Parameter validation failed: datasetId is empty or null");
+                return ResponseEntity.badRequest().body(null);
+            }
+
+            try {
+                ColumnarTables tables = bigQueryJdbcService.listTablesColumnar(datasetId);
+                long endTime = System.currentTimeMillis();
+                logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables?format=columnar completed in {} ms (tables: {}) ##########",
+                        datasetId, (endTime - startTime), tables.getCount());
+                return ResponseEntity.ok(tables);
+            } catch (Exception e) {
+                long endTime = System.currentTimeMillis();
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables?format=columnar failed in {} ms ##########",
+                    datasetId, (endTime - startTime), e);
+                return ResponseEntity.status(500).body(null);
+            }
+        });
+    }
+
+    /**
+     * Paged variant of listTables: ?limit=N[&pageToken=...] returns one page plus the
+     * token of the next one (keyset pagination on table_name)
+     */
+    @GetMapping(value = "/datasets/{datasetId}/tables", params = "limit")
+    public DeferredResult<ResponseEntity<TablePage>> listTablesPage(@PathVariable String datasetId,
+                                                    @RequestParam int limit,
+                                                    @RequestParam(required = false) String pageToken) {
+        return asyncResponses.submit("GET /api/bigquery-jdbc/datasets/{datasetId}/tables?limit", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets/{}/tables?limit={} ##########", datasetId, limit);
+            if (datasetId == null || datasetId.trim().isEmpty() || limit < 1 || limit > MAX_PAGE_LIMIT) {
+                logger.warn("[DETAIL][JDBC] ║   ✗ Invalid request: datasetId='{}', limit={} (allowed 1-{})", datasetId, limit, MAX_PAGE_LIMIT);
+                return ResponseEntity.badRequest().body(null);
+            }
+
+            try {
+                TablePage page = bigQueryJdbcService.listTablesPage(datasetId, limit, pageToken);
+                long endTime = System.currentTimeMillis();
+                logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables?limit={} completed in {} ms (tables: {}) ##########",
+                        datasetId, limit, (endTime - startTime), page.getTables().size());
+                return ResponseEntity.ok(page);
+            } catch (IllegalArgumentException e) {
+                logger.warn("[DETAIL][JDBC] ║   ✗ {}", e.getMessage());
+                return ResponseEntity.badRequest().body(null);
+            } catch (Exception e) {
+                long endTime = System.currentTimeMillis();
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables?limit={} failed in {} ms ##########",
+                    datasetId, limit, (endTime - startTime), e);
+                return ResponseEntity.status(500).body(null);
+            }
+        });
+    }
+
+    /**
+     * Streaming variant of listTables (Accept: application/x-ndjson): one Table per line,
+     * written as rows come off the JDBC ResultSet instead of after the whole list is built
+     */
+    @GetMapping(value = "/datasets/{datasetId}/tables", produces = NdjsonResponseWriter.NDJSON)
+    public StreamingResponseBody streamTables(@PathVariable String datasetId, HttpServletResponse response) throws IOException {
         long startTime = System.currentTimeMillis();
-        logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets/{}/tables ##########", datasetId);
-        logger.info("[DETAIL][JDBC] ╔══════════════════════════════════════════════════════════");
-        logger.info("[DETAIL][JDBC] ║ HTTP REQUEST RECEIVED (JDBC)");
-        logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-        logger.info("[DETAIL][JDBC] ║ Endpoint: GET /api/bigquery-jdbc/datasets/{datasetId}/tables");
-        logger.info("[DETAIL][JDBC] ║ Purpose: Retrieve all tables from dataset via JDBC");
-        logger.info("[DETAIL][JDBC] ║ Request Time: {}", ZonedDateTime.now().format(FORMATTER));
-        logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-        logger.info("[DETAIL][JDBC] ║ Request Parameters:");
-        logger.info("[DETAIL][JDBC] ║   → PATH VARIABLE: datasetId = '{}'", datasetId);
-        logger.info("[DETAIL][JDBC] ║ CONTROLLER: Processing request");
-        logger.info("[DETAIL][JDBC] ║   → Method: JDBC/SQL");
-        logger.info("[DETAIL][JDBC] ║   → Extracted datasetId from path: {}", datasetId);
-        logger.info("[DETAIL][JDBC] ║   → Validating parameter...");
+        logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets/{}/tables (NDJSON stream) ##########", datasetId);
         if (datasetId == null || datasetId.trim().isEmpty()) {
-            logger.warn("[DETAIL][JDBC] ║   ✗ Parameter validation failed: datasetId is empty or null");
-            long endTime = System.currentTimeMillis();
-            logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables failed in {} ms (Invalid datasetId) ##########", 
-                datasetId, (endTime - startTime));
-            return ResponseEntity.badRequest().body(null);
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
         }
-        logger.info("[DETAIL][JDBC] ║   ✓ Parameter validation passed");
-        logger.info("[DETAIL][JDBC] ║   → Calling JDBC service layer with datasetId: {}", datasetId);
-        logger.info("[DETAIL][JDBC] ║");
-        logger.info("[DETAIL][JDBC] ║ CONTROLLER → SERVICE: Delegating to BigQueryJdbcService.listTables()");
-        logger.info("[DETAIL][JDBC] ║ ┌────────────────────────────────────────────────────");
-        logger.info("[DETAIL][JDBC] ║ │ Entering JDBC SERVICE LAYER...");
-        logger.info("[DETAIL][JDBC] ║ │ Parameter: datasetId = '{}'", datasetId);
-        logger.info("[DETAIL][JDBC] ║ └────────────────────────────────────────────────────");
 
-        try {
-            List<Table> tables = bigQueryJdbcService.listTables(datasetId);
-            long serviceEndTime = System.currentTimeMillis();
-            logger.info("[DETAIL][JDBC] ║ ┌────────────────────────────────────────────────────");
-            logger.info("[DETAIL][JDBC] ║ │ Returned from JDBC SERVICE LAYER");
-            logger.info("[DETAIL][JDBC] ║ └────────────────────────────────────────────────────");
-            logger.info("[DETAIL][JDBC] ║");
-            logger.info("[DETAIL][JDBC] ║ SERVICE → CONTROLLER: Received response");
-            logger.info("[DETAIL][JDBC] ║   ✓ Service call completed in {} ms", (serviceEndTime - startTime));
-            logger.info("[DETAIL][JDBC] ║   ✓ Tables received: {}", tables.size());
-            if (!tables.isEmpty()) {
-                logger.info("[DETAIL][JDBC] ║   → Table IDs: {}", 
-                    tables.stream().map(Table::getTableId).collect(Collectors.joining(", ")));
+        return asyncResponses.stream("GET /api/bigquery-jdbc/datasets/{datasetId}/tables (NDJSON)", () -> {
+            NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper);
+            long[] firstRowTime = {-1};
+            try {
+                bigQueryJdbcService.streamTables(datasetId, table -> {
+                    writer.write(table);
+                    if (firstRowTime[0] < 0) {
+                        firstRowTime[0] = System.currentTimeMillis() - startTime;
+                    }
+                });
+                writer.finish();
+                long endTime = System.currentTimeMillis();
+                logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables (NDJSON) completed in {} ms (first row: {} ms, tables: {}) ##########",
+                        datasetId, (endTime - startTime), firstRowTime[0], writer.getRows());
+            } catch (Exception e) {
+                long endTime = System.currentTimeMillis();
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables (NDJSON) failed in {} ms ({} tables written) ##########",
+                    datasetId, (endTime - startTime), writer.getRows(), e);
+                writer.fail(e);
             }
-            logger.info("[DETAIL][JDBC] ║");
-            logger.info("[DETAIL][JDBC] ║ CONTROLLER: Preparing HTTP response");
-            logger.info("[DETAIL][JDBC] ║   → Converting {} tables to JSON", tables.size());
-            long serializationStartTime = System.currentTimeMillis();
-            ResponseEntity<List<Table>> response = ResponseEntity.ok(tables);
-            long serializationEndTime = System.currentTimeMillis();
-            long endTime = System.currentTimeMillis();
-            logger.info("[DETAIL][JDBC] ║   ✓ JSON serialization completed in {} ms", 
-                (serializationEndTime - serializationStartTime));
-            logger.info("[DETAIL][JDBC] ║   ✓ Response entity created");
-            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-            logger.info("[DETAIL][JDBC] ║ HTTP RESPONSE READY");
-            logger.info("[DETAIL][JDBC] ║   ✓ Status Code: 200 OK");
-            logger.info("[DETAIL][JDBC] ║   ✓ Content-Type: application/json");
-            logger.info("[DETAIL][JDBC] ║   ✓ Body: List<Table> with {} items", tables.size());
-            logger.info("[DETAIL][JDBC] ║   ✓ Method: JDBC/SQL");
-            logger.info("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
-            logger.info("[DETAIL][JDBC] ║ Breakdown:");
-            logger.info("[DETAIL][JDBC] ║   • JDBC service layer: {} ms ({}%)", 
-                (serviceEndTime - startTime), 
-                String.format("%.0f", ((double)(serviceEndTime - startTime) / (endTime - startTime)) * 100));
-            logger.info("[DETAIL][JDBC] ║   • JSON serialization: {} ms ({}%)", 
-                (serializationEndTime - serializationStartTime), 
-                String.format("%.0f", ((double)(serializationEndTime - serializationStartTime) / (endTime - startTime)) * 100));
-            logger.info("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
-            logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables completed in {} ms (service: {} ms, serialization: {} ms, tables: {}) ##########",
-                    datasetId, (endTime - startTime), (serviceEndTime - startTime), 
-                    (serializationEndTime - serializationStartTime), tables.size());
-            return response;
-        } catch (Exception e) {
-            long endTime = System.currentTimeMillis();
-            logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables failed in {} ms ##########", 
-                datasetId, (endTime - startTime), e);
-            logger.error("[DETAIL][JDBC] ║   ✗ Status: FAILED");
-            logger.error("[DETAIL][JDBC] ║   ✗ Error: {}", e.getMessage());
-            logger.error("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-            logger.error("[DETAIL][JDBC] ║ HTTP RESPONSE FAILED");
-            logger.error("[DETAIL][JDBC] ║   ✓ Status Code: 500 Internal Server Error");
-            logger.error("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
-            logger.error("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
-            return ResponseEntity.status(500).body(null);
+        });
+    }
+
+    /**
+     * Schemas of every table in the dataset from a single INFORMATION_SCHEMA.COLUMNS query,
+     * streamed as NDJSON (one TableSchema per line) as the rows are grouped
+     */
+    @GetMapping("/datasets/{datasetId}/schemas")
+    public StreamingResponseBody streamSchemas(@PathVariable String datasetId, HttpServletResponse response) throws IOException {
+        long startTime = System.currentTimeMillis();
+        logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets/{}/schemas ##########", datasetId);
+        // The dataset id goes into the INFORMATION_SCHEMA query text
+        try {
+            bigQueryJdbcService.checkDatasetId(datasetId);
+        } catch (IllegalArgumentException e) {
+            logger.warn("[DETAIL][JDBC] ║   ✗ {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, e.getMessage());
+            return null;
         }
+
+        return asyncResponses.stream("GET /api/bigquery-jdbc/datasets/{datasetId}/schemas", () -> {
+            NdjsonResponseWriter writer = new NdjsonResponseWriter(response, objectMapper);
+            try {
+                bigQueryJdbcService.streamSchemas(datasetId, writer::write);
+                writer.finish();
+                logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/schemas completed in {} ms (tables: {}) ##########",
+                        datasetId, (System.currentTimeMillis() - startTime), writer.getRows());
+            } catch (Exception e) {
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/schemas failed in {} ms ({} tables written) ##########",
+                    datasetId, (System.currentTimeMillis() - startTime), writer.getRows(), e);
+                writer.fail(e);
+            }
+        });
     }
 
     @GetMapping("/datasets/{datasetId}/tables/{tableId}/schema")
-    public ResponseEntity<List<Field>> getTableSchema(
+    public DeferredResult<ResponseEntity<List<Field>>> getTableSchema(
             @PathVariable String datasetId,
             @PathVariable String tableId) {
-        long startTime = System.currentTimeMillis();
-        logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets/{}/tables/{}/schema ##########", 
-                datasetId, tableId);
-        logger.info("[DETAIL][JDBC] ╔══════════════════════════════════════════════════════════");
-        logger.info("[DETAIL][JDBC] ║ HTTP REQUEST RECEIVED");
-        logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-        logger.info("[DETAIL][JDBC] ║ Endpoint: GET /api/bigquery-jdbc/datasets/{}/tables/{}/schema", datasetId, tableId);
-        logger.info("[DETAIL][JDBC] ║ Purpose: Retrieve table schema via JDBC");
-        logger.info("[DETAIL][JDBC] ║ Request Time: {}", ZonedDateTime.now().format(FORMATTER));
-        logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-        logger.info("[DETAIL][JDBC] ║ Request Parameters:");
-        logger.info("[DETAIL][JDBC] ║   → datasetId: {}", datasetId);
-        logger.info("[DETAIL][JDBC] ║   → tableId: {}", tableId);
-        logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+        return asyncResponses.submit("GET /api/bigquery-jdbc/datasets/{datasetId}/tables/{tableId}/schema", () -> {
+            long startTime = System.currentTimeMillis();
+            logger.info("[TIMING][JDBC] ########## Received GET /api/bigquery-jdbc/datasets/{}/tables/{}/schema ##########", 
+                    datasetId, tableId);
+            logger.info("[DETAIL][JDBC] ╔══════════════════════════════════════════════════════════");
+            logger.info("[DETAIL][JDBC] ║ HTTP REQUEST RECEIVED");
+            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+            logger.info("[DETAIL][JDBC] ║ Endpoint: GET /api/bigquery-jdbc/datasets/{}/tables/{}/schema", datasetId, tableId);
+            logger.info("[DETAIL][JDBC] ║ Purpose: Retrieve table schema via JDBC");
+            logger.info("[DETAIL][JDBC] ║ Request Time: {}", ZonedDateTime.now().format(FORMATTER));
+            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+            logger.info("[DETAIL][JDBC] ║ Request Parameters:");
+            logger.info("[DETAIL][JDBC] ║   → datasetId: {}", datasetId);
+            logger.info("[DETAIL][JDBC] ║   → tableId: {}", tableId);
+            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
 
-        try {
-            // Call service
-            long serviceStartTime = System.currentTimeMillis();
-            List<Field> fields = bigQueryJdbcService.getTableSchema(datasetId, tableId);
-            long serviceEndTime = System.currentTimeMillis();
+            try {
+                // Call service
+                long serviceStartTime = System.currentTimeMillis();
+                List<Field> fields = bigQueryJdbcService.getTableSchema(datasetId, tableId);
+                long serviceEndTime = System.currentTimeMillis();
             
-            // Serialize
-            long serializationStartTime = System.currentTimeMillis();
-            ResponseEntity<List<Field>> response = ResponseEntity.ok(fields);
-            long serializationEndTime = System.currentTimeMillis();
+                // Serialize
+                long serializationStartTime = System.currentTimeMillis();
+                ResponseEntity<List<Field>> response = ResponseEntity.ok(fields);
+                long serializationEndTime = System.currentTimeMillis();
             
-            long endTime = System.currentTimeMillis();
+                long endTime = System.currentTimeMillis();
             
-            // Log success
-            logger.info("[DETAIL][JDBC] ║   ✓ Status: SUCCESS");
-            logger.info("[DETAIL][JDBC] ║   ✓ Fields retrieved: {}", fields.size());
-            logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-            logger.info("[DETAIL][JDBC] ║ HTTP RESPONSE READY");
-            logger.info("[DETAIL][JDBC] ║   ✓ Status Code: 200 OK");
-            logger.info("[DETAIL][JDBC] ║   ✓ Content-Type: application/json");
-            logger.info("[DETAIL][JDBC] ║   ✓ Body: List<Field> with {} items", fields.size());
-            logger.info("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
-            logger.info("[DETAIL][JDBC] ║ Breakdown:");
-            logger.info("[DETAIL][JDBC] ║   • Service layer: {} ms ({}%)", 
-                (serviceEndTime - startTime), 
-                String.format("%.0f", ((double)(serviceEndTime - startTime) / (endTime - startTime)) * 100));
-            logger.info("[DETAIL][JDBC] ║   • JSON serialization: {} ms ({}%)", 
-                (serializationEndTime - serializationStartTime), 
-                String.format("%.0f", ((double)(serializationEndTime - serializationStartTime) / (endTime - startTime)) * 100));
-            logger.info("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
-            logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables/{}/schema completed in {} ms (service: {} ms, fields: {}) ##########",
-                    datasetId, tableId, (endTime - startTime), (serviceEndTime - startTime), fields.size());
-            return response;
-        } catch (Exception e) {
-            long endTime = System.currentTimeMillis();
-            logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables/{}/schema failed in {} ms ##########", 
-                datasetId, tableId, (endTime - startTime), e);
-            logger.error("[DETAIL][JDBC] ║   ✗ Status: FAILED");
-            logger.error("[DETAIL][JDBC] ║   ✗ Error: {}", e.getMessage());
-            logger.error("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
-            logger.error("[DETAIL][JDBC] ║ HTTP RESPONSE FAILED");
-            logger.error("[DETAIL][JDBC] ║   ✓ Status Code: 500 Internal Server Error");
-            logger.error("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
-            logger.error("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
-            return ResponseEntity.status(500).body(null);
-        }
+                // Log success
+                logger.info("[DETAIL][JDBC] ║   ✓ Status: SUCCESS");
+                logger.info("[DETAIL][JDBC] ║   ✓ Fields retrieved: {}", fields.size());
+                logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+                logger.info("[DETAIL][JDBC] ║ HTTP RESPONSE READY");
+                logger.info("[DETAIL][JDBC] ║   ✓ Status Code: 200 OK");
+                logger.info("[DETAIL][JDBC] ║   ✓ Content-Type: application/json");
+                logger.info("[DETAIL][JDBC] ║   ✓ Body: List<Field> with {} items", fields.size());
+                logger.info("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
+                logger.info("[DETAIL][JDBC] ║ Breakdown:");
+                logger.info("[DETAIL][JDBC] ║   • Service layer: {} ms ({}%)", 
+                    (serviceEndTime - startTime), 
+                    String.format("%.0f", ((double)(serviceEndTime - startTime) / (endTime - startTime)) * 100));
+                logger.info("[DETAIL][JDBC] ║   • JSON serialization: {} ms ({}%)", 
+                    (serializationEndTime - serializationStartTime), 
+                    String.format("%.0f", ((double)(serializationEndTime - serializationStartTime) / (endTime - startTime)) * 100));
+                logger.info("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+                logger.info("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables/{}/schema completed in {} ms (service: {} ms, fields: {}) ##########",
+                        datasetId, tableId, (endTime - startTime), (serviceEndTime - startTime), fields.size());
+                return response;
+            } catch (Exception e) {
+                long endTime = System.currentTimeMillis();
+                logger.error("[TIMING][JDBC] ########## GET /api/bigquery-jdbc/datasets/{}/tables/{}/schema failed in {} ms ##########", 
+                    datasetId, tableId, (endTime - startTime), e);
+                logger.error("[DETAIL][JDBC] ║   ✗ Status: FAILED");
+                logger.error("[DETAIL][JDBC] ║   ✗ Error: {}", e.getMessage());
+                logger.error("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
+                logger.error("[DETAIL][JDBC] ║ HTTP RESPONSE FAILED");
+                logger.error("[DETAIL][JDBC] ║   ✓ Status Code: 500 Internal Server Error");
+                logger.error("[DETAIL][JDBC] ║   ✓ Total request time: {} ms", (endTime - startTime));
+                logger.error("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+                return ResponseEntity.status(500).body(null);
+            }
+        });
     }
 }
@@ -0,0 +1,95 @@
+package com.mercadolibre.incidenciabq.controller;
+
+import com.mercadolibre.incidenciabq.service.MetadataCache;
+import com.mercadolibre.incidenciabq.service.MetadataCacheKey;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Statistics and invalidation for the metadata cache shared by the API and JDBC backends
+ */
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+@Slf4j
+public class CacheController {
+
+    private final MetadataCache metadataCache;
+
+    public CacheController(MetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> getStats() {
+        return ResponseEntity.ok(metadataCache.getStats());
+    }
+
+    /**
+     * Freshness of the cached entries, oldest first: ?type=DATASETS|TABLES|SCHEMA&datasetId=...&limit=N
+     * (last successful load, age, whether stale, last background refresh error)
+     */
+    @GetMapping("/entries")
+    public ResponseEntity<List<Map<String, Object>>> getEntries(@RequestParam(required = false) String type,
+                                                                @RequestParam(required = false) String datasetId,
+                                                                @RequestParam(defaultValue = "200") int limit) {
+        MetadataCacheKey.Type entryType = null;
+        if (type != null) {
+            try {
+                entryType = MetadataCacheKey.Type.valueOf(type.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(metadataCache.getEntries(entryType, datasetId, limit));
+    }
+
+    /**
+     * Drop every cached dataset list, table list and schema
+     */
+    @DeleteMapping
+    public ResponseEntity<Map<String, Object>> invalidateAll() {
+        log.info("Received DELETE /api/cache");
+        metadataCache.invalidateAll();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Metadata cache cleared");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Drop the cached table list and schemas of one dataset (e.g. after tables were created or dropped)
+     */
+    @DeleteMapping("/datasets/{datasetId}")
+    public ResponseEntity<Map<String, Object>> invalidateDataset(@PathVariable String datasetId) {
+        log.info("Received DELETE /api/cache/datasets/{}", datasetId);
+        int removed = metadataCache.invalidateDataset(datasetId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("invalidated", removed);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Drop the cached schema of one table (e.g. after its columns changed)
+     */
+    @DeleteMapping("/datasets/{datasetId}/tables/{tableId}")
+    public ResponseEntity<Map<String, Object>> invalidateTable(@PathVariable String datasetId,
+                                                               @PathVariable String tableId) {
+        log.info("Received DELETE /api/cache/datasets/{}/tables/{}", datasetId, tableId);
+        int removed = metadataCache.invalidateTable(datasetId, tableId);
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("invalidated", removed);
+        return ResponseEntity.ok(response);
+    }
+}
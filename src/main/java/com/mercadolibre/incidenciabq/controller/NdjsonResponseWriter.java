@@ -0,0 +1,89 @@
+package com.mercadolibre.incidenciabq.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletResponse;
+
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Writes rows to an HTTP response as newline-delimited JSON (one object per line)
+ *
+ * Each row is serialized straight into the servlet output stream, so nothing but the
+ * current row is held in memory. The first row is flushed immediately (short
+ * time-to-first-byte), then the response is flushed every FLUSH_EVERY rows.
+ */
+class NdjsonResponseWriter {
+
+    static final String NDJSON = "application/x-ndjson";
+
+    private static final int FLUSH_EVERY = 1000;
+
+    private final HttpServletResponse response;
+    private final ObjectWriter writer;
+    private JsonGenerator generator;
+    private int rows;
+
+    NdjsonResponseWriter(HttpServletResponse response, ObjectMapper objectMapper) {
+        this.response = response;
+        this.writer = objectMapper.writer()
+            .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+            .withRootValueSeparator("");
+    }
+
+    void write(Object row) throws IOException {
+        if (generator == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(NDJSON);
+            response.setCharacterEncoding("UTF-8");
+            generator = writer.getFactory().createGenerator(response.getOutputStream());
+        }
+        writer.writeValue(generator, row);
+        generator.writeRaw('\n');
+        rows++;
+        if (rows == 1 || rows % FLUSH_EVERY == 0) {
+            generator.flush();
+        }
+    }
+
+    /**
+     * Flush the remaining rows (or send the headers if there were none)
+     */
+    void finish() throws IOException {
+        if (generator == null) {
+            response.setStatus(HttpServletResponse.SC_OK);
+            response.setContentType(NDJSON);
+            response.flushBuffer();
+            return;
+        }
+        generator.flush();
+    }
+
+    /**
+     * Report a failure: as a 500 if nothing was sent yet, otherwise as a final
+     * {"error": ...} line since the status line has already gone out
+     */
+    void fail(Exception e) throws IOException {
+        String message = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        if (generator == null && !response.isCommitted()) {
+            response.resetBuffer();
+            response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            response.setContentType("application/json");
+            response.setCharacterEncoding("UTF-8");
+            writer.writeValue(response.getOutputStream(), Collections.singletonMap("error", message));
+            return;
+        }
+        if (generator != null && !generator.isClosed()) {
+            writer.writeValue(generator, Collections.singletonMap("error", message));
+            generator.writeRaw('\n');
+            generator.flush();
+        }
+    }
+
+    int getRows() {
+        return rows;
+    }
+}
@@ -2,6 +2,7 @@ package com.mercadolibre.incidenciabq.controller;
 
 import com.mercadolibre.incidenciabq.config.BigQueryConfig;
 import com.mercadolibre.incidenciabq.service.SessionCredentialsManager;
+import com.mercadolibre.incidenciabq.service.SharedCredentials;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +32,9 @@ public class ServiceAccountController {
     @Autowired
     private SessionCredentialsManager sessionCredentialsManager;
 
+    @Autowired
+    private SharedCredentials sharedCredentials;
+
     /**
      * Get information about the current service account
      * Returns non-sensitive information like email, project ID, and permission requirements
@@ -200,6 +204,17 @@ public class ServiceAccountController {
         }
     }
 
+    /**
+     * Shared credentials statistics (one access token per key, refreshed in the background)
+     * plus live and evicted session keys
+     */
+    @GetMapping("/credentials/stats")
+    public ResponseEntity<Map<String, Object>> getCredentialsStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(sharedCredentials.getStats());
+        stats.put("sessions", sessionCredentialsManager.getStats());
+        return ResponseEntity.ok(stats);
+    }
+
     /**
      * Get detailed permission requirements
      */
@@ -0,0 +1,40 @@
+package com.mercadolibre.incidenciabq.controller;
+
+import com.mercadolibre.incidenciabq.service.RequestTracer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Span trees of recent /api requests, looked up by the X-Trace-Id header of their response
+ */
+@RestController
+@RequestMapping("/api/traces")
+@CrossOrigin(origins = "*")
+public class TraceController {
+
+    private final RequestTracer tracer;
+
+    public TraceController(RequestTracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Most recent traces first (id, request, status, duration, span count): ?limit=N
+     */
+    @GetMapping
+    public ResponseEntity<List<Map<String, Object>>> getRecent(@RequestParam(defaultValue = "50") int limit) {
+        if (limit < 1) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(tracer.getRecent(limit));
+    }
+
+    @GetMapping("/{traceId}")
+    public ResponseEntity<Map<String, Object>> getTrace(@PathVariable String traceId) {
+        Map<String, Object> trace = tracer.getTrace(traceId);
+        return trace != null ? ResponseEntity.ok(trace) : ResponseEntity.notFound().build();
+    }
+}
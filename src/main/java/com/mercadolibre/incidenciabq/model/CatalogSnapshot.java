@@ -0,0 +1,23 @@
+package com.mercadolibre.incidenciabq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every table (and optionally every table schema) of a project region, loaded in one scan
+ * of the region-qualified INFORMATION_SCHEMA views. Maps are keyed by dataset id.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CatalogSnapshot {
+    private String projectId;
+    private String region;
+    private long loadedAt;
+    private Map<String, List<Table>> tablesByDataset;
+    private Map<String, List<TableSchema>> schemasByDataset;  // null unless columns were requested
+}
@@ -0,0 +1,24 @@
+package com.mercadolibre.incidenciabq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A table listing in columnar form (?format=columnar): each Table attribute is in exactly one of
+ * - constants: the value shared by every row (e.g. projectId, or a friendlyName that is always null)
+ * - dictionaries + columns: the distinct values once, and columns[attribute][i] is row i's index into them
+ * - columns: row i's value at columns[attribute][i]
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ColumnarTables {
+    private int count;
+    private Map<String, Object> constants;
+    private Map<String, List<String>> dictionaries;
+    private Map<String, Object> columns;
+}
@@ -0,0 +1,18 @@
+package com.mercadolibre.incidenciabq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a dataset's table list. nextPageToken is null on the last page.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TablePage {
+    private List<Table> tables;
+    private String nextPageToken;
+}
@@ -0,0 +1,23 @@
+package com.mercadolibre.incidenciabq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of refreshing a dataset's cached table listing
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TableRefreshResult {
+    private String datasetId;
+    private boolean incremental;   // false = there was no cached listing, a full listing was loaded
+    private Long sinceMillis;      // high-water mark the delta was read from (null for a full load)
+    private int added;
+    private int modified;
+    private int deleted;
+    private int totalTables;
+    private int reconciledBuckets; // name-hash buckets whose tables were re-read to find deletions
+    private long durationMs;
+}
@@ -0,0 +1,19 @@
+package com.mercadolibre.incidenciabq.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Schema of one table, as returned by the bulk /datasets/{datasetId}/schemas endpoints
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TableSchema {
+    private String tableId;
+    private String datasetId;
+    private List<Field> fields;
+}
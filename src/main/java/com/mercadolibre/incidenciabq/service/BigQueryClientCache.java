@@ -0,0 +1,107 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryOptions;
+import com.mercadolibre.incidenciabq.config.BigQueryConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of BigQuery clients keyed by credential identity
+ * (service account email + key fingerprint)
+ *
+ * Building a client means creating BigQueryOptions, attaching credentials and
+ * spinning up a cold HTTP transport, so clients are built once per identity and
+ * reused by every request (and every session) using the same key.
+ */
+@Component
+@Slf4j
+public class BigQueryClientCache {
+
+    private final BigQueryConfig config;
+    private final SharedCredentials sharedCredentials;
+    private final Cache<CredentialIdentity, BigQuery> clients;
+
+    public BigQueryClientCache(BigQueryConfig config, SharedCredentials sharedCredentials,
+                               @Value("${bigquery.client.cache.max-size:50}") long maxSize,
+                               @Value("${bigquery.client.cache.expire-after-access-minutes:60}") long expireAfterAccessMinutes) {
+        this.config = config;
+        this.sharedCredentials = sharedCredentials;
+        this.clients = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterAccess(Duration.ofMinutes(expireAfterAccessMinutes))
+            .recordStats()
+            .removalListener((CredentialIdentity identity, BigQuery client, RemovalCause cause) ->
+                log.info("[CLIENT-CACHE] Removed BigQuery client for {} ({})", identity, cause))
+            .build();
+    }
+
+    /**
+     * Return the cached client for these credentials, building it on first use
+     */
+    public BigQuery getClient(GoogleCredentials credentials) {
+        CredentialIdentity identity = CredentialIdentity.of(credentials);
+        return clients.get(identity, key -> buildClient(key, credentials));
+    }
+
+    /**
+     * Whether a client for these credentials is already built
+     */
+    public boolean isCached(GoogleCredentials credentials) {
+        return clients.asMap().containsKey(CredentialIdentity.of(credentials));
+    }
+
+    public void evict(CredentialIdentity identity) {
+        clients.invalidate(identity);
+    }
+
+    /**
+     * A session uploaded or cleared its key: drop the client built from the old key,
+     * unless other sessions still use the same key
+     */
+    @EventListener
+    public void onSessionCredentialsChanged(SessionCredentialsChangedEvent event) {
+        if (event.getPreviousCredentials() != null) {
+            CredentialIdentity identity = CredentialIdentity.of(event.getPreviousCredentials());
+            if (!sharedCredentials.isHeld(identity)) {
+                evict(identity);
+            }
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        CacheStats stats = clients.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("cachedClients", clients.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("averageBuildMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    private BigQuery buildClient(CredentialIdentity identity, GoogleCredentials credentials) {
+        long start = System.currentTimeMillis();
+        BigQueryOptions.Builder options = BigQueryOptions.newBuilder()
+            .setProjectId(config.getProjectId())
+            .setCredentials(credentials);
+        if (!config.getRestHost().isEmpty()) {
+            options.setHost(config.getRestHost());
+        }
+        BigQuery bigQuery = options.build().getService();
+        log.info("[CLIENT-CACHE] Built BigQuery client for {} in {} ms", identity, System.currentTimeMillis() - start);
+        return bigQuery;
+    }
+}
@@ -0,0 +1,162 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.config.SessionAwareCredentialsProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Dedicated, bounded executor for blocking BigQuery calls made on behalf of HTTP requests
+ *
+ * Async endpoints hand their backend call to this pool and release the Tomcat thread, so a
+ * few multi-minute REST listings can no longer exhaust the servlet pool and starve fast requests.
+ * - At most bigquery.io.threads calls (bigquery.io.virtual-threads on virtual threads, see WorkerThreads)
+ *   run at once and bigquery.io.queue-size wait; beyond that submit() rejects immediately
+ *   (the endpoint answers 503) instead of queueing without bound
+ * - The caller's credentials are captured on the request thread and bound to the worker thread
+ *   (CredentialContext.bound()), since the request-scoped provider is not available there; so is
+ *   the caller's trace span (RequestTracer), with the time spent queued recorded as bigquery.io.wait
+ * - Cancelling the returned future (e.g. on request timeout) interrupts the worker
+ */
+@Component
+@Slf4j
+public class BigQueryIoExecutor implements MeterBinder {
+
+    private final SessionAwareCredentialsProvider credentialsProvider;
+    private final RequestTracer tracer;
+    private final ThreadPoolExecutor executor;
+    private final long requestTimeoutMs;
+    private final boolean virtual;
+
+    private final AtomicLong submitted = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public BigQueryIoExecutor(SessionAwareCredentialsProvider credentialsProvider, WorkerThreads workerThreads,
+                              RequestTracer tracer,
+                              @Value("${bigquery.io.threads:16}") int platformThreads,
+                              @Value("${bigquery.io.virtual-threads:512}") int virtualThreads,
+                              @Value("${bigquery.io.queue-size:64}") int queueSize,
+                              @Value("${bigquery.io.request-timeout-ms:300000}") long requestTimeoutMs) {
+        this.credentialsProvider = credentialsProvider;
+        this.tracer = tracer;
+        this.requestTimeoutMs = requestTimeoutMs;
+        // Virtual threads are cheap to block, so far more calls may wait on BigQuery at once
+        this.virtual = workerThreads.isVirtual();
+        int threads = virtual ? virtualThreads : platformThreads;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+            queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>(),
+            workerThreads.factory("bq-io-"),
+            new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Run a backend call on the I/O pool with the current request's credentials.
+     * Must be called on the request thread.
+     *
+     * @throws RejectedExecutionException if the pool and its queue are full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CredentialContext context;
+        try {
+            context = CredentialContext.bound() != null ? CredentialContext.bound() : credentialsProvider.captureContext();
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to load credentials", e));
+        }
+
+        RequestTracer.Span span = tracer.current();
+        long submittedAt = System.currentTimeMillis();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                CredentialContext.bind(context);
+                RequestTracer.Span previousSpan = tracer.bind(span);
+                tracer.record("bigquery.io.wait", submittedAt, System.currentTimeMillis(), Map.of(), false);
+                try {
+                    result.complete(call.get());
+                } catch (RuntimeException | Error e) {
+                    failed.incrementAndGet();
+                    result.completeExceptionally(e);
+                } finally {
+                    tracer.bind(previousSpan);
+                    CredentialContext.unbind();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            log.warn("[IO] Rejected BigQuery call: {} running, {} queued (queue full)",
+                executor.getActiveCount(), executor.getQueue().size());
+            throw e;
+        }
+        submitted.incrementAndGet();
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * How long an async endpoint waits for its call before answering 504
+     */
+    public long getRequestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    public void recordTimeout() {
+        timedOut.incrementAndGet();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(executor, "bq-io", Tags.empty()).bindTo(registry);
+        FunctionCounter.builder("bigquery.io.rejected", rejected, AtomicLong::get)
+            .description("Calls refused because the I/O executor and its queue were full (503)").register(registry);
+        FunctionCounter.builder("bigquery.io.timeouts", timedOut, AtomicLong::get)
+            .description("Calls cancelled after bigquery.io.request-timeout-ms (504)").register(registry);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("threadMode", virtual ? "virtual" : "platform");
+        stats.put("threads", executor.getMaximumPoolSize());
+        stats.put("active", executor.getActiveCount());
+        stats.put("queued", executor.getQueue().size());
+        stats.put("queueCapacity", executor.getQueue().size() + executor.getQueue().remainingCapacity());
+        stats.put("requestTimeoutMs", requestTimeoutMs);
+        stats.put("submitted", submitted.get());
+        stats.put("completed", executor.getCompletedTaskCount());
+        stats.put("failed", failed.get());
+        stats.put("rejected", rejected.get());
+        stats.put("timedOut", timedOut.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
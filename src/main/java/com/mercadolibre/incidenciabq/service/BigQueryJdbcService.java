@@ -1,8 +1,13 @@
 package com.mercadolibre.incidenciabq.service;
 
 import com.mercadolibre.incidenciabq.config.SessionAwareCredentialsProvider;
+import com.mercadolibre.incidenciabq.model.CatalogSnapshot;
+import com.mercadolibre.incidenciabq.model.ColumnarTables;
 import com.mercadolibre.incidenciabq.model.Dataset;
 import com.mercadolibre.incidenciabq.model.Table;
+import com.mercadolibre.incidenciabq.model.TablePage;
+import com.mercadolibre.incidenciabq.model.TableRefreshResult;
+import com.mercadolibre.incidenciabq.model.TableSchema;
 import com.mercadolibre.incidenciabq.model.Field;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,9 +15,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 /**
  * Service for BigQuery metadata operations using JDBC
@@ -34,17 +45,34 @@ public class BigQueryJdbcService {
     @Value("${bigquery.service.account.email:}")
     private String serviceAccountEmail;
 
-    @Value("${bigquery.service.account.key.path}")
-    private String serviceAccountKeyPath;
+    @Value("${bigquery.region:us}")
+    private String region;
+
+    @Value("${bigquery.cache.refresh.overlap-seconds:300}")
+    private long refreshOverlapSeconds;
     
     @Autowired
     private SessionAwareCredentialsProvider credentialsProvider;
 
+    @Autowired
+    private JdbcConnectionPoolManager connectionPoolManager;
+
+    @Autowired
+    private MetadataCache metadataCache;
+
+    @Autowired
+    private TableIndexRegistry tableIndexes;
+
+    @Autowired
+    private MetadataMetrics metrics;
+
     /**
      * Get JDBC connection to BigQuery using session-aware credentials
+     * Connections come from a pool per key path (see JdbcConnectionPoolManager);
+     * closing the connection returns it to that pool.
      * Note: This will work once SIMBA driver is installed
      */
-    private Connection getConnection() throws SQLException {
+    private Connection getConnection(CredentialContext context, String operation) throws SQLException {
         long startTime = System.currentTimeMillis();
         logger.info("[TIMING][JDBC] Starting JDBC connection acquisition");
         logger.info("[DETAIL][JDBC] ┌─────────────────────────────────────────────────────");
@@ -53,18 +81,15 @@ public class BigQueryJdbcService {
         
         try {
             // Get session-aware credentials path
-            String sessionId = credentialsProvider.getSessionId();
-            boolean hasCustom = credentialsProvider.hasSessionCredentials();
+            String sessionId = context.getSessionId();
+            boolean hasCustom = context.hasSessionCredentials();
             
-            String keyPath;
+            // Session-specific key path, or the default key path
+            String keyPath = context.getKeyPath();
             if (hasCustom) {
-                // Use session-specific key path
-                keyPath = "./session-credentials/service-account-" + sessionId + ".json";
                 logger.info("[DETAIL][JDBC] │   → Using SESSION-SPECIFIC credentials");
                 logger.info("[DETAIL][JDBC] │   → Session ID: {}", sessionId);
             } else {
-                // Use default key path
-                keyPath = serviceAccountKeyPath;
                 logger.info("[DETAIL][JDBC] │   → Using DEFAULT credentials");
             }
             
@@ -79,14 +104,15 @@ public class BigQueryJdbcService {
                 keyPath
             );
             
-            logger.info("[DETAIL][JDBC] │ Step 1: Creating JDBC connection");
+            logger.info("[DETAIL][JDBC] │ Step 1: Borrowing pooled JDBC connection");
             logger.info("[DETAIL][JDBC] │   → Driver: Simba BigQuery JDBC");
             logger.info("[DETAIL][JDBC] │   → Project: {}", projectId);
             logger.info("[DETAIL][JDBC] │   → Key Path: {}", keyPath);
             
-            Connection conn = DriverManager.getConnection(jdbcUrl);
+            Connection conn = connectionPoolManager.getConnection(keyPath, jdbcUrl);
             
             long totalTime = System.currentTimeMillis() - startTime;
+            recordTiming(MetadataMetrics.Phase.CONNECTION, operation, MetadataMetrics.SUCCESS, totalTime);
             logger.info("[DETAIL][JDBC] │   ✓ Connection acquired successfully");
             logger.info("[DETAIL][JDBC] │   ✓ Using {} credentials", hasCustom ? "session-specific" : "default");
             logger.info("[DETAIL][JDBC] └─────────────────────────────────────────────────────");
@@ -96,6 +122,7 @@ public class BigQueryJdbcService {
             
         } catch (SQLException e) {
             long totalTime = System.currentTimeMillis() - startTime;
+            recordTiming(MetadataMetrics.Phase.CONNECTION, operation, MetadataMetrics.ERROR, totalTime);
             logger.error("[DETAIL][JDBC] │   ✗ Failed to acquire connection");
             logger.error("[DETAIL][JDBC] │   ✗ Error: {}", e.getMessage());
             logger.error("[DETAIL][JDBC] └─────────────────────────────────────────────────────");
@@ -105,9 +132,482 @@ public class BigQueryJdbcService {
     }
 
     /**
-     * List all datasets using JDBC INFORMATION_SCHEMA
+     * List all datasets (cached per credential identity, see MetadataCache)
      */
     public List<Dataset> listDatasets() {
+        CredentialContext context = currentContext();
+        return metadataCache.get(MetadataCacheKey.datasets(MetadataCacheKey.BACKEND_JDBC, context.getIdentity()),
+            () -> fetchDatasets(context));
+    }
+
+    /**
+     * List tables in a dataset (cached per credential identity, see MetadataCache).
+     * Stale listings are brought up to date with an incremental refresh, not a full re-listing.
+     */
+    public List<Table> listTables(String datasetId) {
+        CredentialContext context = currentContext();
+        return metadataCache.get(MetadataCacheKey.tables(MetadataCacheKey.BACKEND_JDBC, context.getIdentity(), datasetId), () -> {
+            List<Table> tables = new ArrayList<>();
+            fetchTables(context, datasetId, tables::add);
+            return tables;
+        }, current -> refreshListing(context, datasetId, current).toList());
+    }
+
+    /**
+     * Stream the tables of a dataset to the consumer row by row.
+     * Served from the metadata cache when the listing is already cached (or being loaded); otherwise rows
+     * go straight from the ResultSet to the consumer without being collected (or cached).
+     *
+     * @return number of tables written
+     */
+    public int streamTables(String datasetId, RowConsumer<Table> consumer) throws IOException {
+        CredentialContext context = currentContext();
+        MetadataCacheKey key = MetadataCacheKey.tables(MetadataCacheKey.BACKEND_JDBC, context.getIdentity(), datasetId);
+        List<Table> cached = metadataCache.getIfPresent(key);
+        if (cached == null) {
+            // Another request is already listing this dataset: wait for it instead of listing it again
+            cached = metadataCache.awaitInFlight(key);
+        }
+        if (cached != null) {
+            for (Table table : cached) {
+                consumer.accept(table);
+            }
+            return cached.size();
+        }
+        return fetchTables(context, datasetId, consumer);
+    }
+
+    /**
+     * Search a dataset's table names (prefix matches first, then substring matches).
+     * Uses the cached listing (loading it on first use) and its in-memory index.
+     */
+    public List<Table> searchTables(String datasetId, String query, int limit) {
+        return tableIndexes.search(listTables(datasetId), query, limit);
+    }
+
+    /**
+     * A dataset's table listing in columnar form (shared values once, one array per attribute).
+     * Uses the cached listing, whose compact columns are emitted as they are.
+     */
+    public ColumnarTables listTablesColumnar(String datasetId) {
+        return CompactTableList.of(listTables(datasetId)).toColumnar();
+    }
+
+    /**
+     * Reject a dataset id that cannot go into INFORMATION_SCHEMA SQL as is
+     *
+     * @throws IllegalArgumentException unless the id is letters, digits and underscores
+     */
+    public void checkDatasetId(String datasetId) {
+        IncrementalTableRefresh.checkDatasetId(datasetId);
+    }
+
+    /**
+     * Schemas of every table in a dataset from ONE INFORMATION_SCHEMA.COLUMNS query
+     * (instead of one query per table). Rows come ordered by table, so each table's
+     * fields are grouped as they arrive and handed to the consumer as soon as the next
+     * table starts; only one table's fields are held at a time. Each schema also primes
+     * the per-table schema cache used by getTableSchema.
+     *
+     * @return number of tables written
+     */
+    public int streamSchemas(String datasetId, RowConsumer<TableSchema> consumer) {
+        long operationStart = System.currentTimeMillis();
+        logger.info("[TIMING][JDBC] ========== Starting streamSchemas for dataset: {} ==========", datasetId);
+        IncrementalTableRefresh.checkDatasetId(datasetId);
+        try {
+            Class.forName("com.simba.googlebigquery.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("SIMBA JDBC Driver not installed", e);
+        }
+
+        String sql = String.format(
+            "SELECT table_name, column_name, data_type, is_nullable " +
+            "FROM `%s.%s.INFORMATION_SCHEMA.COLUMNS` " +
+            "ORDER BY table_name, ordinal_position",
+            projectId, datasetId
+        );
+        logger.info("[DETAIL][JDBC] ║   → SQL: {}", sql);
+
+        CredentialContext context = currentContext();
+        CredentialIdentity identity = context.getIdentity();
+        int tables = 0;
+        int columns = 0;
+        long firstRowTime = -1;
+        try (Connection conn = getConnection(context, "streamSchemas");
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+            String currentTable = null;
+            List<Field> fields = new ArrayList<>();
+            while (rs.next()) {
+                if (firstRowTime < 0) {
+                    firstRowTime = System.currentTimeMillis() - operationStart;
+                }
+                String tableName = rs.getString("table_name");
+                if (currentTable != null && !currentTable.equals(tableName)) {
+                    emitSchema(identity, datasetId, currentTable, fields, consumer);
+                    tables++;
+                    fields = new ArrayList<>();
+                }
+                currentTable = tableName;
+                fields.add(MetadataMapper.field(rs));
+                columns++;
+            }
+            if (currentTable != null) {
+                emitSchema(identity, datasetId, currentTable, fields, consumer);
+                tables++;
+            }
+        } catch (SQLException | IOException e) {
+            recordTiming(MetadataMetrics.Phase.OPERATION, "streamSchemas", MetadataMetrics.ERROR,
+                System.currentTimeMillis() - operationStart);
+            logger.error("[TIMING][JDBC] Error streaming schemas for dataset '{}' after {} ms ({} tables written)",
+                datasetId, System.currentTimeMillis() - operationStart, tables, e);
+            throw new RuntimeException("Failed to get schemas via JDBC for dataset: " + datasetId, e);
+        }
+
+        recordTiming(MetadataMetrics.Phase.OPERATION, "streamSchemas", MetadataMetrics.SUCCESS,
+            System.currentTimeMillis() - operationStart);
+        metrics.countRows(MetadataCacheKey.BACKEND_JDBC, "streamSchemas", columns);
+        logger.info("[TIMING][JDBC] ========== streamSchemas for '{}' completed in {} ms (first row: {} ms, tables: {}, columns: {}) ==========",
+            datasetId, System.currentTimeMillis() - operationStart, firstRowTime, tables, columns);
+        return tables;
+    }
+
+    private void emitSchema(CredentialIdentity identity, String datasetId, String tableId,
+                            List<Field> fields, RowConsumer<TableSchema> consumer) throws IOException {
+        metadataCache.put(MetadataCacheKey.schema(MetadataCacheKey.BACKEND_JDBC, identity, datasetId, tableId), fields);
+        consumer.accept(new TableSchema(tableId, datasetId, fields));
+    }
+
+    /**
+     * Load the whole project catalog (every table of every dataset in the region) with ONE
+     * query over region-xx.INFORMATION_SCHEMA.TABLES, split by table_schema, instead of
+     * listDatasets + one listTables query per dataset. With includeColumns, a second single
+     * query over region-xx.INFORMATION_SCHEMA.COLUMNS adds every table's schema.
+     *
+     * The per-dataset table listings (and schemas) also prime the metadata cache.
+     */
+    public CatalogSnapshot loadCatalog(boolean includeColumns) {
+        long operationStart = System.currentTimeMillis();
+        String regionQualifier = regionQualifier();
+        logger.info("[TIMING][JDBC] ========== Starting catalog load for {}.{} (columns: {}) ==========",
+            projectId, regionQualifier, includeColumns);
+        try {
+            Class.forName("com.simba.googlebigquery.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("SIMBA JDBC Driver not installed", e);
+        }
+
+        CredentialContext context = currentContext();
+        CredentialIdentity identity = context.getIdentity();
+        Map<String, List<Table>> tablesByDataset = new TreeMap<>();
+        Map<String, List<TableSchema>> schemasByDataset = includeColumns ? new TreeMap<>() : null;
+        int tableCount = 0;
+        int columnCount = 0;
+
+        try (Connection conn = getConnection(context, "loadCatalog")) {
+            String tablesSql = String.format(
+                "SELECT table_schema, table_name, table_type, creation_time " +
+                "FROM `%s.%s.INFORMATION_SCHEMA.TABLES` " +
+                "ORDER BY table_schema, table_name",
+                projectId, regionQualifier
+            );
+            logger.info("[DETAIL][JDBC] ║   → SQL: {}", tablesSql);
+            long tablesStart = System.currentTimeMillis();
+            try (PreparedStatement stmt = conn.prepareStatement(tablesSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    String datasetId = rs.getString("table_schema");
+                    tablesByDataset.computeIfAbsent(datasetId, k -> new ArrayList<>()).add(MetadataMapper.table(rs, projectId, datasetId));
+                    tableCount++;
+                }
+            }
+            recordTiming(MetadataMetrics.Phase.QUERY, "loadCatalog", MetadataMetrics.SUCCESS,
+                System.currentTimeMillis() - tablesStart);
+            logger.info("[TIMING][JDBC] Catalog tables query: {} tables in {} datasets in {} ms",
+                tableCount, tablesByDataset.size(), System.currentTimeMillis() - tablesStart);
+
+            if (includeColumns) {
+                String columnsSql = String.format(
+                    "SELECT table_schema, table_name, column_name, data_type, is_nullable " +
+                    "FROM `%s.%s.INFORMATION_SCHEMA.COLUMNS` " +
+                    "ORDER BY table_schema, table_name, ordinal_position",
+                    projectId, regionQualifier
+                );
+                logger.info("[DETAIL][JDBC] ║   → SQL: {}", columnsSql);
+                long columnsStart = System.currentTimeMillis();
+                try (PreparedStatement stmt = conn.prepareStatement(columnsSql);
+                     ResultSet rs = stmt.executeQuery()) {
+                    TableSchema current = null;
+                    while (rs.next()) {
+                        String datasetId = rs.getString("table_schema");
+                        String tableName = rs.getString("table_name");
+                        if (current == null || !current.getTableId().equals(tableName)
+                                || !current.getDatasetId().equals(datasetId)) {
+                            current = new TableSchema(tableName, datasetId, new ArrayList<>());
+                            schemasByDataset.computeIfAbsent(datasetId, k -> new ArrayList<>()).add(current);
+                        }
+                        current.getFields().add(MetadataMapper.field(rs));
+                        columnCount++;
+                    }
+                }
+                recordTiming(MetadataMetrics.Phase.QUERY, "loadCatalog", MetadataMetrics.SUCCESS,
+                    System.currentTimeMillis() - columnsStart);
+                logger.info("[TIMING][JDBC] Catalog columns query: {} columns in {} ms",
+                    columnCount, System.currentTimeMillis() - columnsStart);
+            }
+        } catch (SQLException e) {
+            recordTiming(MetadataMetrics.Phase.OPERATION, "loadCatalog", MetadataMetrics.ERROR,
+                System.currentTimeMillis() - operationStart);
+            logger.error("[TIMING][JDBC] Error loading catalog after {} ms", System.currentTimeMillis() - operationStart, e);
+            throw new RuntimeException("Failed to load catalog via JDBC for " + projectId + "." + regionQualifier, e);
+        }
+
+        tablesByDataset.forEach((datasetId, tables) -> metadataCache.put(
+            MetadataCacheKey.tables(MetadataCacheKey.BACKEND_JDBC, identity, datasetId), tables));
+        if (schemasByDataset != null) {
+            schemasByDataset.values().forEach(schemas -> schemas.forEach(schema -> metadataCache.put(
+                MetadataCacheKey.schema(MetadataCacheKey.BACKEND_JDBC, identity, schema.getDatasetId(), schema.getTableId()),
+                schema.getFields())));
+        }
+
+        recordTiming(MetadataMetrics.Phase.OPERATION, "loadCatalog", MetadataMetrics.SUCCESS,
+            System.currentTimeMillis() - operationStart);
+        metrics.countRows(MetadataCacheKey.BACKEND_JDBC, "loadCatalog", tableCount + columnCount);
+        logger.info("[TIMING][JDBC] ========== Catalog load completed in {} ms (datasets: {}, tables: {}, columns: {}) ==========",
+            System.currentTimeMillis() - operationStart, tablesByDataset.size(), tableCount, columnCount);
+        return new CatalogSnapshot(projectId, region, System.currentTimeMillis(), tablesByDataset, schemasByDataset);
+    }
+
+    /**
+     * "region-us" style qualifier for project-wide INFORMATION_SCHEMA views
+     */
+    private String regionQualifier() {
+        return IncrementalTableRefresh.regionQualifier(region);
+    }
+
+    /**
+     * Bring the cached table listing of a dataset up to date from what changed since it was
+     * loaded (see IncrementalTableRefresh) instead of re-listing the dataset. Without a cached
+     * listing this is a plain full load.
+     */
+    public TableRefreshResult refreshTables(String datasetId) {
+        IncrementalTableRefresh.checkDatasetId(datasetId);
+        long operationStart = System.currentTimeMillis();
+        CredentialContext context = currentContext();
+        MetadataCacheKey key = MetadataCacheKey.tables(MetadataCacheKey.BACKEND_JDBC, context.getIdentity(), datasetId);
+        CachedMetadata entry = metadataCache.getEntry(key);
+        if (entry == null) {
+            logger.info("[TIMING][JDBC] No cached listing for '{}', refresh is a full load", datasetId);
+            List<Table> tables = listTables(datasetId);
+            return new TableRefreshResult(datasetId, false, null, tables.size(), 0, 0, tables.size(), 0,
+                System.currentTimeMillis() - operationStart);
+        }
+        IncrementalTableRefresh refresh = refreshListing(context, datasetId, entry);
+        metadataCache.put(key, refresh.toList());
+        return refresh.toResult(datasetId, System.currentTimeMillis() - operationStart);
+    }
+
+    /**
+     * Run the incremental refresh queries against a cached listing and drop the cached
+     * schemas of the tables that changed. Also the background refresher of cached listings.
+     */
+    private IncrementalTableRefresh refreshListing(CredentialContext context, String datasetId, CachedMetadata entry) {
+        long operationStart = System.currentTimeMillis();
+        @SuppressWarnings("unchecked")
+        IncrementalTableRefresh refresh = new IncrementalTableRefresh((List<Table>) entry.getValue(),
+            entry.getLoadedAt() - refreshOverlapSeconds * 1000);
+        try {
+            Class.forName("com.simba.googlebigquery.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("SIMBA JDBC Driver not installed", e);
+        }
+        try (Connection conn = getConnection(context, "refreshTables")) {
+            String deltaSql = IncrementalTableRefresh.changedTablesSql(
+                projectId, regionQualifier(), datasetId, refresh.getSinceMillis());
+            logger.info("[DETAIL][JDBC] ║   → SQL: {}", deltaSql);
+            try (PreparedStatement stmt = conn.prepareStatement(deltaSql);
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    refresh.upsert(MetadataMapper.table(rs, projectId, datasetId));
+                }
+            }
+
+            Map<Integer, long[]> summary = new HashMap<>();
+            try (PreparedStatement stmt = conn.prepareStatement(IncrementalTableRefresh.bucketSummarySql(projectId, datasetId));
+                 ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    summary.put(rs.getInt("bucket"), new long[] {rs.getLong("tables"), rs.getLong("hash")});
+                }
+            }
+
+            List<Integer> mismatched = refresh.mismatchedBuckets(summary);
+            if (!mismatched.isEmpty()) {
+                List<Table> bucketTables = new ArrayList<>();
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        IncrementalTableRefresh.bucketTablesSql(projectId, datasetId, mismatched));
+                     ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        bucketTables.add(MetadataMapper.table(rs, projectId, datasetId));
+                    }
+                }
+                refresh.replaceBuckets(mismatched, bucketTables);
+            }
+        } catch (SQLException e) {
+            recordTiming(MetadataMetrics.Phase.OPERATION, "refreshTables", MetadataMetrics.ERROR,
+                System.currentTimeMillis() - operationStart);
+            logger.error("[TIMING][JDBC] Error refreshing tables of '{}' after {} ms",
+                datasetId, System.currentTimeMillis() - operationStart, e);
+            throw new RuntimeException("Failed to refresh tables via JDBC for dataset: " + datasetId, e);
+        }
+
+        metadataCache.invalidateTables(datasetId, refresh.getChangedTableIds());
+        recordTiming(MetadataMetrics.Phase.OPERATION, "refreshTables", MetadataMetrics.SUCCESS,
+            System.currentTimeMillis() - operationStart);
+        logger.info("[TIMING][JDBC] ========== Incremental refresh of '{}' completed in {} ms (added: {}, modified: {}, deleted: {}, total: {}) ==========",
+            datasetId, System.currentTimeMillis() - operationStart, refresh.getAdded(), refresh.getModified(),
+            refresh.getDeleted(), refresh.toList().size());
+        return refresh;
+    }
+
+    /**
+     * One page of a dataset's tables, ordered by table name, using keyset pagination:
+     * the page token is the (encoded) last table name of the previous page, and the next
+     * page is "WHERE table_name > token ORDER BY table_name LIMIT n". Unlike OFFSET, this
+     * costs the same for the last page as for the first.
+     *
+     * Served from the cached full listing when there is one (same order, same tokens).
+     *
+     * @throws IllegalArgumentException if the dataset id or the page token is malformed
+     */
+    public TablePage listTablesPage(String datasetId, int limit, String pageToken) {
+        IncrementalTableRefresh.checkDatasetId(datasetId);
+        String afterTableName = pageToken != null && !pageToken.isEmpty() ? decodePageToken(pageToken) : "";
+
+        CredentialContext context = currentContext();
+        MetadataCacheKey key = MetadataCacheKey.tables(MetadataCacheKey.BACKEND_JDBC, context.getIdentity(), datasetId);
+        List<Table> cached = metadataCache.getIfPresent(key);
+        if (cached == null) {
+            // Another request is already listing this dataset: wait for it instead of listing it again
+            cached = metadataCache.awaitInFlight(key);
+        }
+        if (cached != null) {
+            int from = firstIndexAfter(cached, afterTableName);
+            int to = Math.min(cached.size(), from + limit);
+            List<Table> tables = new ArrayList<>(cached.subList(from, to));
+            String nextPageToken = to < cached.size() ? encodePageToken(tables.get(tables.size() - 1).getTableId()) : null;
+            logger.info("[TIMING][JDBC] listTablesPage for '{}' served {} tables from cache", datasetId, tables.size());
+            return new TablePage(tables, nextPageToken);
+        }
+
+        long operationStart = System.currentTimeMillis();
+        logger.info("[TIMING][JDBC] ========== Starting listTablesPage for dataset: {} (limit: {}, after: '{}') ==========",
+            datasetId, limit, afterTableName);
+        try {
+            Class.forName("com.simba.googlebigquery.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("SIMBA JDBC Driver not installed", e);
+        }
+
+        String sql = String.format(
+            "SELECT table_name, table_type, creation_time " +
+            "FROM `%s.%s.INFORMATION_SCHEMA.TABLES` " +
+            "WHERE table_name > ? " +
+            "ORDER BY table_name " +
+            "LIMIT ?",
+            projectId, datasetId
+        );
+        logger.info("[DETAIL][JDBC] ║   → SQL: {}", sql);
+
+        try (Connection conn = getConnection(context, "listTablesPage");
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setString(1, afterTableName);
+            // One extra row tells us whether there is a next page
+            stmt.setInt(2, limit + 1);
+
+            List<Table> tables = new ArrayList<>(limit);
+            boolean hasMore = false;
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    if (tables.size() == limit) {
+                        hasMore = true;
+                        break;
+                    }
+                    tables.add(MetadataMapper.table(rs, projectId, datasetId));
+                }
+            }
+
+            String nextPageToken = hasMore ? encodePageToken(tables.get(tables.size() - 1).getTableId()) : null;
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listTablesPage", MetadataMetrics.SUCCESS,
+                System.currentTimeMillis() - operationStart);
+            metrics.countRows(MetadataCacheKey.BACKEND_JDBC, "listTablesPage", tables.size());
+            logger.info("[TIMING][JDBC] ========== listTablesPage for '{}' completed in {} ms (tables: {}, more: {}) ==========",
+                datasetId, System.currentTimeMillis() - operationStart, tables.size(), hasMore);
+            return new TablePage(tables, nextPageToken);
+        } catch (SQLException e) {
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listTablesPage", MetadataMetrics.ERROR,
+                System.currentTimeMillis() - operationStart);
+            logger.error("[TIMING][JDBC] Error listing table page after {} ms",
+                System.currentTimeMillis() - operationStart, e);
+            throw new RuntimeException("Failed to list tables via JDBC for dataset: " + datasetId, e);
+        }
+    }
+
+    static String encodePageToken(String lastTableName) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(lastTableName.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String decodePageToken(String pageToken) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(pageToken), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid pageToken: " + pageToken, e);
+        }
+    }
+
+    /**
+     * Index of the first table whose name sorts after the given name (list is ordered by table name)
+     */
+    private static int firstIndexAfter(List<Table> tables, String tableName) {
+        int low = 0;
+        int high = tables.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (tables.get(mid).getTableId().compareTo(tableName) <= 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Get table schema (cached per credential identity, see MetadataCache)
+     */
+    public List<Field> getTableSchema(String datasetId, String tableId) {
+        CredentialContext context = currentContext();
+        return metadataCache.get(MetadataCacheKey.schema(MetadataCacheKey.BACKEND_JDBC, context.getIdentity(), datasetId, tableId),
+            () -> fetchTableSchema(context, datasetId, tableId));
+    }
+
+    /**
+     * Credentials this request runs with (or those bound to this BigQueryIoExecutor task),
+     * captured so loaders can also run after the request ends (their identity is part of every cache key)
+     */
+    private CredentialContext currentContext() {
+        try {
+            CredentialContext bound = CredentialContext.bound();
+            return bound != null ? bound : credentialsProvider.captureContext();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load credentials", e);
+        }
+    }
+
+    /**
+     * List all datasets using JDBC INFORMATION_SCHEMA
+     */
+    private List<Dataset> fetchDatasets(CredentialContext context) {
         long operationStart = System.currentTimeMillis();
         logger.info("[TIMING][JDBC] ========== Starting listDatasets operation ==========");
         logger.info("[DETAIL][JDBC] ╔══════════════════════════════════════════════════════════");
@@ -131,7 +631,7 @@ public class BigQueryJdbcService {
             long connStart = System.currentTimeMillis();
             logger.info("[DETAIL][JDBC] ║ Step 1/3: Acquiring JDBC Connection");
             
-            try (Connection conn = getConnection()) {
+            try (Connection conn = getConnection(context, "listDatasets")) {
                 long connTime = System.currentTimeMillis() - connStart;
                 logger.info("[TIMING][JDBC] Step 1/3: Connection acquired in {} ms", connTime);
                 
@@ -158,6 +658,7 @@ public class BigQueryJdbcService {
                      ResultSet rs = stmt.executeQuery()) {
                     
                     long queryTime = System.currentTimeMillis() - queryStart;
+                    recordTiming(MetadataMetrics.Phase.QUERY, "listDatasets", MetadataMetrics.SUCCESS, queryTime);
                     logger.info("[TIMING][JDBC] Step 2/3: Query executed in {} ms", queryTime);
                     logger.info("[DETAIL][JDBC] ║   ✓ SQL query executed successfully");
                     logger.info("[DETAIL][JDBC] ║   ✓ ResultSet received");
@@ -171,8 +672,7 @@ public class BigQueryJdbcService {
                     boolean verboseLogging = false;
                     while (rs.next()) {
                         count++;
-                        String schemaName = rs.getString("schema_name");
-                        String catalogName = rs.getString("catalog_name");
+                        Dataset dataset = MetadataMapper.dataset(rs, projectId);
                         
                         // Only log details for first 10 datasets
                         verboseLogging = (count <= 10);
@@ -180,17 +680,12 @@ public class BigQueryJdbcService {
                         if (verboseLogging) {
                             logger.info("[DETAIL][JDBC] ║   ┌─ DATASET #{} ──────────────────────────────────", count);
                             logger.info("[DETAIL][JDBC] ║   │ Processing row from ResultSet");
-                            logger.info("[DETAIL][JDBC] ║   │ Schema Name: {}", schemaName);
-                            logger.info("[DETAIL][JDBC] ║   │ Catalog: {}", catalogName);
+                            logger.info("[DETAIL][JDBC] ║   │ Schema Name: {}", dataset.getDatasetId());
+                            logger.info("[DETAIL][JDBC] ║   │ Catalog: {}", rs.getString("catalog_name"));
                         } else if (count % 100 == 0) {
                             logger.info("[DETAIL][JDBC] ║   → Processed {} datasets so far...", count);
                         }
                         
-                        Dataset dataset = new Dataset();
-                        dataset.setDatasetId(schemaName);
-                        dataset.setProjectId(projectId);
-                        dataset.setFriendlyName(schemaName);
-                        
                         if (verboseLogging) {
                             logger.info("[DETAIL][JDBC] ║   │ → Extracted Fields:");
                             logger.info("[DETAIL][JDBC] ║   │   • datasetId: {}", dataset.getDatasetId());
@@ -204,6 +699,8 @@ public class BigQueryJdbcService {
                     }
                     
                     long processTime = System.currentTimeMillis() - processStart;
+                    recordTiming(MetadataMetrics.Phase.MAPPING, "listDatasets", MetadataMetrics.SUCCESS, processTime);
+                    metrics.countRows(MetadataCacheKey.BACKEND_JDBC, "listDatasets", count);
                     logger.info("[TIMING][JDBC] Step 3/3: Processed {} datasets in {} ms", count, processTime);
                 }
                 
@@ -218,6 +715,7 @@ public class BigQueryJdbcService {
                 logger.info("[DETAIL][JDBC] ║   ✓ Total operation time: {} ms", totalTime);
                 logger.info("[DETAIL][JDBC] ║   ✓ Datasets returned: {}", datasets.size());
                 logger.info("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+                recordTiming(MetadataMetrics.Phase.OPERATION, "listDatasets", MetadataMetrics.SUCCESS, totalTime);
                 logger.info("[TIMING][JDBC] ========== listDatasets completed in {} ms ==========", totalTime);
             }
             
@@ -228,6 +726,7 @@ public class BigQueryJdbcService {
             logger.error("[DETAIL][JDBC] ║   ✗ Error: {}", e.getMessage());
             logger.error("[DETAIL][JDBC] ║   ✗ Time until failure: {} ms", totalTime);
             logger.error("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listDatasets", MetadataMetrics.ERROR, totalTime);
             logger.error("[TIMING][JDBC] Error listing datasets after {} ms", totalTime, e);
             throw new RuntimeException("Failed to list datasets via JDBC", e);
         }
@@ -236,9 +735,12 @@ public class BigQueryJdbcService {
     }
 
     /**
-     * List tables in a dataset using JDBC INFORMATION_SCHEMA
+     * List tables in a dataset using JDBC INFORMATION_SCHEMA,
+     * handing each row to the consumer as it is read from the ResultSet
+     *
+     * @return number of tables read
      */
-    public List<Table> listTables(String datasetId) {
+    private int fetchTables(CredentialContext context, String datasetId, RowConsumer<Table> consumer) {
         long operationStart = System.currentTimeMillis();
         logger.info("[TIMING][JDBC] ========== Starting listTables operation for dataset: {} ==========", datasetId);
         logger.info("[DETAIL][JDBC] ╔══════════════════════════════════════════════════════════");
@@ -247,7 +749,7 @@ public class BigQueryJdbcService {
         logger.info("[DETAIL][JDBC] ║ Input Parameter:");
         logger.info("[DETAIL][JDBC] ║   → datasetId: {}", datasetId);
         
-        List<Table> tables = new ArrayList<>();
+        int count = 0;
         
         try {
             // Check if JDBC driver is available
@@ -263,7 +765,7 @@ public class BigQueryJdbcService {
             long connStart = System.currentTimeMillis();
             logger.info("[DETAIL][JDBC] ║ Step 1/3: Acquiring JDBC Connection");
             
-            try (Connection conn = getConnection()) {
+            try (Connection conn = getConnection(context, "listTables")) {
                 long connTime = System.currentTimeMillis() - connStart;
                 logger.info("[TIMING][JDBC] Step 1/3: Connection acquired in {} ms", connTime);
                 
@@ -290,6 +792,7 @@ public class BigQueryJdbcService {
                      ResultSet rs = stmt.executeQuery()) {
                     
                     long queryTime = System.currentTimeMillis() - queryStart;
+                    recordTiming(MetadataMetrics.Phase.QUERY, "listTables", MetadataMetrics.SUCCESS, queryTime);
                     logger.info("[TIMING][JDBC] Step 2/3: Query executed in {} ms", queryTime);
                     logger.info("[DETAIL][JDBC] ║   ✓ SQL query executed successfully");
                     
@@ -297,62 +800,53 @@ public class BigQueryJdbcService {
                     long processStart = System.currentTimeMillis();
                     logger.info("[DETAIL][JDBC] ║ Step 3/3: Processing ResultSet");
                     
-                    int count = 0;
                     boolean verboseLogging = false;
                     while (rs.next()) {
                         count++;
-                        String tableName = rs.getString("table_name");
-                        String tableType = rs.getString("table_type");
-                        Timestamp creationTime = rs.getTimestamp("creation_time");
+                        Table table = MetadataMapper.table(rs, projectId, datasetId);
                         
                         // Only log details for first 10 tables
                         verboseLogging = (count <= 10);
                         
                         if (verboseLogging) {
                             logger.info("[DETAIL][JDBC] ║   ┌─ TABLE #{} ─────────────────────────────────────", count);
-                            logger.info("[DETAIL][JDBC] ║   │ Table Name: {}", tableName);
-                            logger.info("[DETAIL][JDBC] ║   │ Table Type: {}", tableType);
+                            logger.info("[DETAIL][JDBC] ║   │ Table Name: {}", table.getTableId());
+                            logger.info("[DETAIL][JDBC] ║   │ Table Type: {}", table.getType());
                             logger.info("[DETAIL][JDBC] ║   │ → Extracted Fields:");
                         } else if (count % 1000 == 0) {
                             logger.info("[DETAIL][JDBC] ║   → Processed {} tables so far...", count);
                         }
                         
                         if (verboseLogging) {
-                            logger.info("[DETAIL][JDBC] ║   │   • tableId: {}", tableName);
+                            logger.info("[DETAIL][JDBC] ║   │   • tableId: {}", table.getTableId());
                             logger.info("[DETAIL][JDBC] ║   │   • datasetId: {}", datasetId);
-                            logger.info("[DETAIL][JDBC] ║   │   • type: {}", tableType);
+                            logger.info("[DETAIL][JDBC] ║   │   • type: {}", table.getType());
                             logger.info("[DETAIL][JDBC] ║   │   • method: JDBC/SQL");
                             logger.info("[DETAIL][JDBC] ║   │ ✓ Table object created");
                             logger.info("[DETAIL][JDBC] ║   └────────────────────────────────────────────────");
                         }
                         
-                        Table table = new Table();
-                        table.setTableId(tableName);
-                        table.setDatasetId(datasetId);
-                        table.setProjectId(projectId);
-                        table.setType(tableType);
-                        if (creationTime != null) {
-                            table.setCreationTime(creationTime.getTime());
-                        }
-                        
-                        tables.add(table);
+                        consumer.accept(table);
                     }
                     
                     long processTime = System.currentTimeMillis() - processStart;
+                    recordTiming(MetadataMetrics.Phase.MAPPING, "listTables", MetadataMetrics.SUCCESS, processTime);
+                    metrics.countRows(MetadataCacheKey.BACKEND_JDBC, "listTables", count);
                     logger.info("[TIMING][JDBC] Step 3/3: Processed {} tables in {} ms", count, processTime);
                 }
                 
                 long totalTime = System.currentTimeMillis() - operationStart;
                 logger.info("[DETAIL][JDBC] ║");
                 logger.info("[DETAIL][JDBC] ║ Processing Summary:");
-                logger.info("[DETAIL][JDBC] ║   • Total tables found: {}", tables.size());
+                logger.info("[DETAIL][JDBC] ║   • Total tables found: {}", count);
                 logger.info("[DETAIL][JDBC] ║   • Dataset: {}", datasetId);
                 logger.info("[DETAIL][JDBC] ║   • Method: JDBC/SQL INFORMATION_SCHEMA");
                 logger.info("[DETAIL][JDBC] ╠══════════════════════════════════════════════════════════");
                 logger.info("[DETAIL][JDBC] ║ OPERATION COMPLETE");
                 logger.info("[DETAIL][JDBC] ║   ✓ Total operation time: {} ms", totalTime);
-                logger.info("[DETAIL][JDBC] ║   ✓ Tables returned: {}", tables.size());
+                logger.info("[DETAIL][JDBC] ║   ✓ Tables returned: {}", count);
                 logger.info("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+                recordTiming(MetadataMetrics.Phase.OPERATION, "listTables", MetadataMetrics.SUCCESS, totalTime);
                 logger.info("[TIMING][JDBC] ========== listTables completed in {} ms ==========", totalTime);
             }
             
@@ -364,17 +858,18 @@ public class BigQueryJdbcService {
             logger.error("[DETAIL][JDBC] ║   ✗ Error: {}", e.getMessage());
             logger.error("[DETAIL][JDBC] ║   ✗ Time until failure: {} ms", totalTime);
             logger.error("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listTables", MetadataMetrics.ERROR, totalTime);
             logger.error("[TIMING][JDBC] Error listing tables after {} ms", totalTime, e);
             throw new RuntimeException("Failed to list tables via JDBC for dataset: " + datasetId, e);
         }
         
-        return tables;
+        return count;
     }
 
     /**
      * Get table schema using JDBC INFORMATION_SCHEMA
      */
-    public List<Field> getTableSchema(String datasetId, String tableId) {
+    private List<Field> fetchTableSchema(CredentialContext context, String datasetId, String tableId) {
         long operationStart = System.currentTimeMillis();
         logger.info("[TIMING][JDBC] ========== Starting getTableSchema operation for {}.{} ==========", datasetId, tableId);
         logger.info("[DETAIL][JDBC] ╔══════════════════════════════════════════════════════════");
@@ -400,7 +895,7 @@ public class BigQueryJdbcService {
             long connStart = System.currentTimeMillis();
             logger.info("[DETAIL][JDBC] ║ Step 1/3: Acquiring JDBC Connection");
             
-            try (Connection conn = getConnection()) {
+            try (Connection conn = getConnection(context, "getTableSchema")) {
                 long connTime = System.currentTimeMillis() - connStart;
                 logger.info("[TIMING][JDBC] Step 1/3: Connection acquired in {} ms", connTime);
                 
@@ -428,6 +923,7 @@ public class BigQueryJdbcService {
                      ResultSet rs = stmt.executeQuery()) {
                     
                     long queryTime = System.currentTimeMillis() - queryStart;
+                    recordTiming(MetadataMetrics.Phase.QUERY, "getTableSchema", MetadataMetrics.SUCCESS, queryTime);
                     logger.info("[TIMING][JDBC] Step 2/3: Query executed in {} ms", queryTime);
                     logger.info("[DETAIL][JDBC] ║   ✓ SQL query executed successfully");
                     
@@ -438,16 +934,7 @@ public class BigQueryJdbcService {
                     int count = 0;
                     while (rs.next()) {
                         count++;
-                        String columnName = rs.getString("column_name");
-                        String dataType = rs.getString("data_type");
-                        String isNullable = rs.getString("is_nullable");
-                        
-                        Field field = new Field();
-                        field.setName(columnName);
-                        field.setType(dataType);
-                        field.setMode("YES".equals(isNullable) ? "NULLABLE" : "REQUIRED");
-                        field.setDescription(null); // INFORMATION_SCHEMA.COLUMNS doesn't have description
-                        
+                        Field field = MetadataMapper.field(rs);
                         fields.add(field);
                         
                         if (count <= 5) {
@@ -461,6 +948,8 @@ public class BigQueryJdbcService {
                     }
                     
                     long processTime = System.currentTimeMillis() - processStart;
+                    recordTiming(MetadataMetrics.Phase.MAPPING, "getTableSchema", MetadataMetrics.SUCCESS, processTime);
+                    metrics.countRows(MetadataCacheKey.BACKEND_JDBC, "getTableSchema", count);
                     logger.info("[TIMING][JDBC] Step 3/3: Processed {} fields in {} ms", count, processTime);
                 }
                 
@@ -475,6 +964,7 @@ public class BigQueryJdbcService {
                 logger.info("[DETAIL][JDBC] ║   ✓ Total operation time: {} ms", totalTime);
                 logger.info("[DETAIL][JDBC] ║   ✓ Fields returned: {}", fields.size());
                 logger.info("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+                recordTiming(MetadataMetrics.Phase.OPERATION, "getTableSchema", MetadataMetrics.SUCCESS, totalTime);
                 logger.info("[TIMING][JDBC] ========== getTableSchema completed in {} ms ==========", totalTime);
             }
             
@@ -486,10 +976,15 @@ public class BigQueryJdbcService {
             logger.error("[DETAIL][JDBC] ║   ✗ Error: {}", e.getMessage());
             logger.error("[DETAIL][JDBC] ║   ✗ Time until failure: {} ms", totalTime);
             logger.error("[DETAIL][JDBC] ╚══════════════════════════════════════════════════════════");
+            recordTiming(MetadataMetrics.Phase.OPERATION, "getTableSchema", MetadataMetrics.ERROR, totalTime);
             logger.error("[TIMING][JDBC] Error getting table schema after {} ms", totalTime, e);
             throw new RuntimeException("Failed to get table schema via JDBC for: " + datasetId + "." + tableId, e);
         }
         
         return fields;
     }
+
+    private void recordTiming(MetadataMetrics.Phase phase, String operation, String outcome, long millis) {
+        metrics.record(phase, MetadataCacheKey.BACKEND_JDBC, operation, outcome, millis);
+    }
 }
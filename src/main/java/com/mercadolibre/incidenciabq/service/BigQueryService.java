@@ -1,22 +1,30 @@
 package com.mercadolibre.incidenciabq.service;
 
+import com.google.api.services.bigquery.model.TableList;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.bigquery.BigQuery;
-import com.google.cloud.bigquery.BigQueryOptions;
-import com.google.cloud.bigquery.DatasetId;
+import com.google.cloud.bigquery.FieldValue;
+import com.google.cloud.bigquery.FieldValueList;
+import com.google.cloud.bigquery.QueryJobConfiguration;
 import com.google.cloud.bigquery.TableId;
+import com.google.cloud.bigquery.TableResult;
 import com.mercadolibre.incidenciabq.config.BigQueryConfig;
 import com.mercadolibre.incidenciabq.config.SessionAwareCredentialsProvider;
+import com.mercadolibre.incidenciabq.model.ColumnarTables;
 import com.mercadolibre.incidenciabq.model.Dataset;
 import com.mercadolibre.incidenciabq.model.Table;
+import com.mercadolibre.incidenciabq.model.TablePage;
+import com.mercadolibre.incidenciabq.model.TableRefreshResult;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import lombok.extern.slf4j.Slf4j;
 
-import java.io.FileInputStream;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -27,11 +35,32 @@ public class BigQueryService {
     @Autowired
     private SessionAwareCredentialsProvider credentialsProvider;
 
+    @Autowired
+    private BigQueryClientCache clientCache;
+
+    @Autowired
+    private RestTablePager tablePager;
+
+    @Autowired
+    private MetadataCache metadataCache;
+
+    @Autowired
+    private TableIndexRegistry tableIndexes;
+
+    @Autowired
+    private MetadataMetrics metrics;
+
+    @Value("${bigquery.region:us}")
+    private String region;
+
+    @Value("${bigquery.cache.refresh.overlap-seconds:300}")
+    private long refreshOverlapSeconds;
+
     public BigQueryService(BigQueryConfig config) {
         this.config = config;
     }
 
-    private BigQuery getBigQueryClient() throws IOException {
+    private BigQuery getBigQueryClient(CredentialContext context, String operation) {
         long startTime = System.currentTimeMillis();
         log.info("[TIMING] Starting BigQuery client initialization");
         log.info("[DETAIL] ┌─────────────────────────────────────────────────────");
@@ -42,35 +71,42 @@ public class BigQueryService {
         long credentialsStart = System.currentTimeMillis();
         log.info("[DETAIL] │ Step 1: Loading service account credentials");
         
-        String sessionId = credentialsProvider.getSessionId();
-        boolean hasCustom = credentialsProvider.hasSessionCredentials();
+        String sessionId = context.getSessionId();
+        boolean hasCustom = context.hasSessionCredentials();
         
         log.info("[DETAIL] │   → Session ID: {}", sessionId);
         log.info("[DETAIL] │   → Has Custom Credentials: {}", hasCustom);
         log.info("[DETAIL] │   → Project ID: {}", config.getProjectId());
         
-        GoogleCredentials credentials = credentialsProvider.getCredentials();
+        GoogleCredentials credentials = context.getCredentials();
         
         long credentialsTime = System.currentTimeMillis() - credentialsStart;
+        recordTiming(MetadataMetrics.Phase.CREDENTIALS, operation, MetadataMetrics.SUCCESS, credentialsTime);
         log.info("[TIMING] Credentials loaded in {} ms", credentialsTime);
         log.info("[DETAIL] │   ✓ Using {} credentials", hasCustom ? "session-specific" : "default");
         log.info("[DETAIL] │   ✓ Credentials loaded successfully");
         
-        // Step 2: Build BigQuery client (always fresh for session-specific credentials)
+        // Step 2: Get BigQuery client (cached per credential identity, built on first use)
         long clientStart = System.currentTimeMillis();
-        log.info("[DETAIL] │ Step 2: Building BigQuery client");
-        log.info("[DETAIL] │   → Creating BigQueryOptions builder");
-        log.info("[DETAIL] │   → Setting project: {}", config.getProjectId());
-        log.info("[DETAIL] │   → Attaching credentials");
+        boolean cachedClient = clientCache.isCached(credentials);
+        log.info("[DETAIL] │ Step 2: {} BigQuery client", cachedClient ? "Reusing cached" : "Building");
+        log.info("[DETAIL] │   → Credential identity: {}", context.getIdentity());
+        log.info("[DETAIL] │   → Project: {}", config.getProjectId());
         
-        BigQuery bigQuery = BigQueryOptions.newBuilder()
-            .setProjectId(config.getProjectId())
-            .setCredentials(credentials)
-            .build()
-            .getService();
+        BigQuery bigQuery;
+        try {
+            bigQuery = clientCache.getClient(credentials);
+        } catch (RuntimeException e) {
+            recordTiming(MetadataMetrics.Phase.CLIENT_BUILD, operation, MetadataMetrics.ERROR,
+                    System.currentTimeMillis() - clientStart);
+            throw e;
+        }
         long clientTime = System.currentTimeMillis() - clientStart;
+        if (!cachedClient) {
+            recordTiming(MetadataMetrics.Phase.CLIENT_BUILD, operation, MetadataMetrics.SUCCESS, clientTime);
+        }
         
-        log.info("[DETAIL] │   ✓ BigQuery client built successfully");
+        log.info("[DETAIL] │   ✓ BigQuery client {}", cachedClient ? "reused from cache" : "built successfully");
         log.info("[DETAIL] │   ✓ Ready to make API calls to BigQuery");
         
         long totalTime = System.currentTimeMillis() - startTime;
@@ -82,6 +118,364 @@ public class BigQueryService {
     }
 
     public List<Dataset> listDatasets() {
+        CredentialContext context = currentContext();
+        return metadataCache.get(MetadataCacheKey.datasets(MetadataCacheKey.BACKEND_API, context.getIdentity()),
+            () -> fetchDatasets(context));
+    }
+
+    /**
+     * List tables in a dataset (cached per credential identity, see MetadataCache).
+     * Stale listings are brought up to date with an incremental refresh, not a full re-listing.
+     */
+    public List<Table> listTables(String datasetId) {
+        CredentialContext context = currentContext();
+        return metadataCache.get(MetadataCacheKey.tables(MetadataCacheKey.BACKEND_API, context.getIdentity(), datasetId), () -> {
+            List<Table> tables = new ArrayList<>();
+            fetchTables(context, datasetId, tables::add);
+            return tables;
+        }, current -> refreshListing(context, datasetId, current).toList());
+    }
+
+    /**
+     * Stream the tables of a dataset to the consumer as each REST page arrives.
+     * Served from the metadata cache when the listing is already cached (or being loaded); otherwise
+     * tables go straight to the consumer without being collected (or cached).
+     *
+     * @return number of tables written
+     */
+    public int streamTables(String datasetId, RowConsumer<Table> consumer) throws IOException {
+        CredentialContext context = currentContext();
+        MetadataCacheKey key = MetadataCacheKey.tables(MetadataCacheKey.BACKEND_API, context.getIdentity(), datasetId);
+        List<Table> cached = metadataCache.getIfPresent(key);
+        if (cached == null) {
+            // Another request is already listing this dataset: wait for it instead of listing it again
+            cached = metadataCache.awaitInFlight(key);
+        }
+        if (cached != null) {
+            for (Table table : cached) {
+                consumer.accept(table);
+            }
+            return cached.size();
+        }
+        return fetchTables(context, datasetId, consumer);
+    }
+
+    /**
+     * Search a dataset's table names (prefix matches first, then substring matches).
+     * Uses the cached listing (loading it on first use) and its in-memory index.
+     */
+    public List<Table> searchTables(String datasetId, String query, int limit) {
+        return tableIndexes.search(listTables(datasetId), query, limit);
+    }
+
+    /**
+     * A dataset's table listing in columnar form (shared values once, one array per attribute).
+     * Uses the cached listing, whose compact columns are emitted as they are.
+     */
+    public ColumnarTables listTablesColumnar(String datasetId) {
+        return CompactTableList.of(listTables(datasetId)).toColumnar();
+    }
+
+    /**
+     * Reject a dataset id that cannot go into INFORMATION_SCHEMA SQL as is
+     *
+     * @throws IllegalArgumentException unless the id is letters, digits and underscores
+     */
+    public void checkDatasetId(String datasetId) {
+        IncrementalTableRefresh.checkDatasetId(datasetId);
+    }
+
+    /**
+     * Schemas of every table in a dataset from ONE query over INFORMATION_SCHEMA.COLUMNS
+     * (instead of one getTable call per table). Rows come ordered by table and are grouped
+     * as they arrive; each table's schema goes to the consumer as soon as the next table
+     * starts, and also primes the per-table schema cache used by getTableSchema.
+     *
+     * COLUMN_FIELD_PATHS is joined in for column descriptions, and INFORMATION_SCHEMA type
+     * names are mapped to the legacy names getTable returns (INT64 → INTEGER,
+     * ARRAY<T> → T REPEATED, ...), so both paths produce the same Field values.
+     *
+     * @return number of tables written
+     */
+    public int streamSchemas(String datasetId, RowConsumer<com.mercadolibre.incidenciabq.model.TableSchema> consumer) {
+        long operationStart = System.currentTimeMillis();
+        log.info("[TIMING] ========== Starting streamSchemas for dataset: {} ==========", datasetId);
+        IncrementalTableRefresh.checkDatasetId(datasetId);
+        
+        String dataset = String.format("`%s.%s.INFORMATION_SCHEMA", config.getProjectId(), datasetId);
+        String sql = "SELECT c.table_name, c.column_name, c.data_type, c.is_nullable, p.description " +
+                "FROM " + dataset + ".COLUMNS` c " +
+                "LEFT JOIN " + dataset + ".COLUMN_FIELD_PATHS` p " +
+                "ON p.table_name = c.table_name AND p.column_name = c.column_name AND p.field_path = c.column_name " +
+                "ORDER BY c.table_name, c.ordinal_position";
+        log.info("[DETAIL] ║   → SQL: {}", sql);
+        
+        int tables = 0;
+        int columns = 0;
+        try {
+            CredentialContext context = currentContext();
+            BigQuery bigQueryClient = getBigQueryClient(context, "streamSchemas");
+            CredentialIdentity identity = context.getIdentity();
+            
+            long queryStart = System.currentTimeMillis();
+            TableResult result = runQuery(bigQueryClient, sql, "streamSchemas");
+            long queryTime = System.currentTimeMillis() - queryStart;
+            log.info("[TIMING] Schema query completed in {} ms ({} rows)", queryTime, result.getTotalRows());
+            
+            String currentTable = null;
+            List<com.mercadolibre.incidenciabq.model.Field> fields = new ArrayList<>();
+            for (FieldValueList row : result.iterateAll()) {
+                String tableName = row.get("table_name").getStringValue();
+                if (currentTable != null && !currentTable.equals(tableName)) {
+                    emitSchema(identity, datasetId, currentTable, fields, consumer);
+                    tables++;
+                    fields = new ArrayList<>();
+                }
+                currentTable = tableName;
+                fields.add(toField(row));
+                columns++;
+            }
+            if (currentTable != null) {
+                emitSchema(identity, datasetId, currentTable, fields, consumer);
+                tables++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while getting schemas for dataset: " + datasetId, e);
+        } catch (Exception e) {
+            recordTiming(MetadataMetrics.Phase.OPERATION, "streamSchemas", MetadataMetrics.ERROR,
+                    System.currentTimeMillis() - operationStart);
+            log.error("[TIMING] Error streaming schemas for dataset '{}' after {} ms ({} tables written)", 
+                    datasetId, System.currentTimeMillis() - operationStart, tables, e);
+            throw new RuntimeException("Failed to get schemas for dataset: " + datasetId, e);
+        }
+        
+        recordTiming(MetadataMetrics.Phase.OPERATION, "streamSchemas", MetadataMetrics.SUCCESS,
+                System.currentTimeMillis() - operationStart);
+        metrics.countRows(MetadataCacheKey.BACKEND_API, "streamSchemas", columns);
+        log.info("[TIMING] ========== streamSchemas for '{}' completed in {} ms (tables: {}, columns: {}) ==========", 
+                datasetId, System.currentTimeMillis() - operationStart, tables, columns);
+        return tables;
+    }
+
+    private void emitSchema(CredentialIdentity identity, String datasetId, String tableId,
+                            List<com.mercadolibre.incidenciabq.model.Field> fields,
+                            RowConsumer<com.mercadolibre.incidenciabq.model.TableSchema> consumer) throws IOException {
+        metadataCache.put(MetadataCacheKey.schema(MetadataCacheKey.BACKEND_API, identity, datasetId, tableId), fields);
+        consumer.accept(new com.mercadolibre.incidenciabq.model.TableSchema(tableId, datasetId, fields));
+    }
+
+    /**
+     * Map an INFORMATION_SCHEMA.COLUMNS row to a Field the way getTable's schema would read
+     */
+    private static com.mercadolibre.incidenciabq.model.Field toField(FieldValueList row) {
+        String dataType = row.get("data_type").getStringValue();
+        String mode = "YES".equals(row.get("is_nullable").getStringValue()) ? "NULLABLE" : "REQUIRED";
+        if (dataType.startsWith("ARRAY<") && dataType.endsWith(">")) {
+            dataType = dataType.substring("ARRAY<".length(), dataType.length() - 1);
+            mode = "REPEATED";
+        }
+        
+        com.mercadolibre.incidenciabq.model.Field field = new com.mercadolibre.incidenciabq.model.Field();
+        field.setName(row.get("column_name").getStringValue());
+        field.setType(toLegacyTypeName(dataType));
+        field.setMode(mode);
+        FieldValue description = row.get("description");
+        field.setDescription(description.isNull() ? null : description.getStringValue());
+        return field;
+    }
+
+    /**
+     * INFORMATION_SCHEMA (standard SQL) type name → legacy type name used by the table API
+     */
+    static String toLegacyTypeName(String dataType) {
+        if (dataType.startsWith("STRUCT<")) {
+            return "RECORD";
+        }
+        int parameters = dataType.indexOf('(');
+        String base = parameters > 0 ? dataType.substring(0, parameters) : dataType;
+        int generic = base.indexOf('<');
+        base = generic > 0 ? base.substring(0, generic) : base;
+        switch (base) {
+            case "INT64":
+                return "INTEGER";
+            case "FLOAT64":
+                return "FLOAT";
+            case "BOOL":
+                return "BOOLEAN";
+            default:
+                return base;
+        }
+    }
+
+    /**
+     * One page of a dataset's tables, using BigQuery's native page tokens
+     * (pageToken is the nextPageToken of the previous page, passed through as-is)
+     */
+    public TablePage listTablesPage(String datasetId, int limit, String pageToken) {
+        long operationStart = System.currentTimeMillis();
+        log.info("[TIMING] ========== Starting listTablesPage for dataset: {} (limit: {}, first page: {}) ==========",
+                datasetId, limit, pageToken == null);
+        try {
+            BigQuery bigQueryClient = getBigQueryClient(currentContext(), "listTablesPage");
+            RestTablePager.Page page = tablePager.fetchPage(bigQueryClient, config.getProjectId(), datasetId,
+                    pageToken != null && !pageToken.isEmpty() ? pageToken : null, limit);
+            metrics.recordPage(MetadataCacheKey.BACKEND_API, "listTablesPage", page);
+            
+            long mappingStart = System.nanoTime();
+            List<Table> tables = new ArrayList<>(page.getTables().size());
+            for (TableList.Tables bqTable : page.getTables()) {
+                tables.add(MetadataMapper.table(bqTable, config.getProjectId(), datasetId));
+            }
+            metrics.recordNanos(MetadataMetrics.Phase.MAPPING, MetadataCacheKey.BACKEND_API, "listTablesPage",
+                    MetadataMetrics.SUCCESS, System.nanoTime() - mappingStart);
+            metrics.countRows(MetadataCacheKey.BACKEND_API, "listTablesPage", tables.size());
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listTablesPage", MetadataMetrics.SUCCESS,
+                    System.currentTimeMillis() - operationStart);
+            
+            log.info("[TIMING] ========== listTablesPage for '{}' completed in {} ms (fetch: {} ms, tables: {}, more: {}) ==========",
+                    datasetId, System.currentTimeMillis() - operationStart, page.getFetchMs(), tables.size(),
+                    page.getNextPageToken() != null);
+            return new TablePage(tables, page.getNextPageToken());
+        } catch (Exception e) {
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listTablesPage", MetadataMetrics.ERROR,
+                    System.currentTimeMillis() - operationStart);
+            log.error("[TIMING] Error listing table page for dataset '{}' after {} ms",
+                    datasetId, System.currentTimeMillis() - operationStart, e);
+            throw new RuntimeException("Failed to list tables for dataset: " + datasetId, e);
+        }
+    }
+
+    public List<com.mercadolibre.incidenciabq.model.Field> getTableSchema(String datasetId, String tableId) {
+        CredentialContext context = currentContext();
+        return metadataCache.get(MetadataCacheKey.schema(MetadataCacheKey.BACKEND_API, context.getIdentity(), datasetId, tableId),
+            () -> fetchTableSchema(context, datasetId, tableId));
+    }
+
+    /**
+     * Bring the cached table listing of a dataset up to date from what changed since it was
+     * loaded (see IncrementalTableRefresh) instead of paging through tables.list again.
+     * Without a cached listing this is a plain full load.
+     */
+    public TableRefreshResult refreshTables(String datasetId) {
+        IncrementalTableRefresh.checkDatasetId(datasetId);
+        long operationStart = System.currentTimeMillis();
+        CredentialContext context = currentContext();
+        MetadataCacheKey key = MetadataCacheKey.tables(MetadataCacheKey.BACKEND_API, context.getIdentity(), datasetId);
+        CachedMetadata entry = metadataCache.getEntry(key);
+        if (entry == null) {
+            log.info("[TIMING] No cached listing for '{}', refresh is a full load", datasetId);
+            List<Table> tables = listTables(datasetId);
+            return new TableRefreshResult(datasetId, false, null, tables.size(), 0, 0, tables.size(), 0,
+                    System.currentTimeMillis() - operationStart);
+        }
+        IncrementalTableRefresh refresh = refreshListing(context, datasetId, entry);
+        metadataCache.put(key, refresh.toList());
+        return refresh.toResult(datasetId, System.currentTimeMillis() - operationStart);
+    }
+
+    /**
+     * Run the incremental refresh queries against a cached listing and drop the cached
+     * schemas of the tables that changed. Also the background refresher of cached listings.
+     */
+    private IncrementalTableRefresh refreshListing(CredentialContext context, String datasetId, CachedMetadata entry) {
+        long operationStart = System.currentTimeMillis();
+        @SuppressWarnings("unchecked")
+        IncrementalTableRefresh refresh = new IncrementalTableRefresh((List<Table>) entry.getValue(),
+                entry.getLoadedAt() - refreshOverlapSeconds * 1000);
+        String projectId = config.getProjectId();
+        try {
+            BigQuery bigQueryClient = getBigQueryClient(context, "refreshTables");
+            String deltaSql = IncrementalTableRefresh.changedTablesSql(
+                    projectId, IncrementalTableRefresh.regionQualifier(region), datasetId, refresh.getSinceMillis());
+            log.info("[DETAIL] ║   → SQL: {}", deltaSql);
+            for (FieldValueList row : runQuery(bigQueryClient, deltaSql, "refreshTables").iterateAll()) {
+                refresh.upsert(toTable(row, datasetId));
+            }
+
+            Map<Integer, long[]> summary = new HashMap<>();
+            for (FieldValueList row : runQuery(bigQueryClient,
+                    IncrementalTableRefresh.bucketSummarySql(projectId, datasetId), "refreshTables").iterateAll()) {
+                summary.put((int) row.get("bucket").getLongValue(),
+                        new long[] {row.get("tables").getLongValue(), row.get("hash").getLongValue()});
+            }
+
+            List<Integer> mismatched = refresh.mismatchedBuckets(summary);
+            if (!mismatched.isEmpty()) {
+                List<Table> bucketTables = new ArrayList<>();
+                for (FieldValueList row : runQuery(bigQueryClient,
+                        IncrementalTableRefresh.bucketTablesSql(projectId, datasetId, mismatched), "refreshTables").iterateAll()) {
+                    bucketTables.add(toTable(row, datasetId));
+                }
+                refresh.replaceBuckets(mismatched, bucketTables);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while refreshing tables of dataset: " + datasetId, e);
+        } catch (Exception e) {
+            recordTiming(MetadataMetrics.Phase.OPERATION, "refreshTables", MetadataMetrics.ERROR,
+                    System.currentTimeMillis() - operationStart);
+            log.error("[TIMING] Error refreshing tables of '{}' after {} ms",
+                    datasetId, System.currentTimeMillis() - operationStart, e);
+            throw new RuntimeException("Failed to refresh tables for dataset: " + datasetId, e);
+        }
+
+        metadataCache.invalidateTables(datasetId, refresh.getChangedTableIds());
+        recordTiming(MetadataMetrics.Phase.OPERATION, "refreshTables", MetadataMetrics.SUCCESS,
+                System.currentTimeMillis() - operationStart);
+        log.info("[TIMING] ========== Incremental refresh of '{}' completed in {} ms (added: {}, modified: {}, deleted: {}, total: {}) ==========",
+                datasetId, System.currentTimeMillis() - operationStart, refresh.getAdded(), refresh.getModified(),
+                refresh.getDeleted(), refresh.toList().size());
+        return refresh;
+    }
+
+    private TableResult runQuery(BigQuery bigQueryClient, String sql, String operation) throws InterruptedException {
+        long queryStart = System.currentTimeMillis();
+        String outcome = MetadataMetrics.ERROR;
+        try {
+            TableResult result = bigQueryClient.query(QueryJobConfiguration.newBuilder(sql).setUseLegacySql(false).build());
+            outcome = MetadataMetrics.SUCCESS;
+            return result;
+        } finally {
+            recordTiming(MetadataMetrics.Phase.QUERY, operation, outcome, System.currentTimeMillis() - queryStart);
+        }
+    }
+
+    private void recordTiming(MetadataMetrics.Phase phase, String operation, String outcome, long millis) {
+        metrics.record(phase, MetadataCacheKey.BACKEND_API, operation, outcome, millis);
+    }
+
+    /**
+     * Map an INFORMATION_SCHEMA.TABLES row to a Table the way tables.list would
+     * (see IncrementalTableRefresh.tableType)
+     */
+    private Table toTable(FieldValueList row, String datasetId) {
+        Table table = new Table();
+        table.setTableId(row.get("table_name").getStringValue());
+        table.setDatasetId(datasetId);
+        table.setProjectId(config.getProjectId());
+        table.setType(IncrementalTableRefresh.tableType(row.get("table_type").getStringValue()));
+        FieldValue creationTime = row.get("creation_time");
+        if (!creationTime.isNull()) {
+            table.setCreationTime(creationTime.getTimestampValue() / 1000);
+        }
+        return table;
+    }
+
+    /**
+     * Credentials this request runs with (or those bound to this BigQueryIoExecutor task),
+     * captured so loaders can also run after the request ends (their identity is part of every cache key)
+     */
+    private CredentialContext currentContext() {
+        try {
+            CredentialContext bound = CredentialContext.bound();
+            return bound != null ? bound : credentialsProvider.captureContext();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load credentials", e);
+        }
+    }
+
+    private List<Dataset> fetchDatasets(CredentialContext context) {
         long operationStart = System.currentTimeMillis();
         log.info("[TIMING] ========== Starting listDatasets operation ==========");
         log.info("[DETAIL] ╔══════════════════════════════════════════════════════════");
@@ -94,7 +488,7 @@ public class BigQueryService {
             // Step 1: Get BigQuery client
             long clientStart = System.currentTimeMillis();
             log.info("[DETAIL] ║ Step 1/3: Acquiring BigQuery Client");
-            BigQuery bigQueryClient = getBigQueryClient();
+            BigQuery bigQueryClient = getBigQueryClient(context, "listDatasets");
             long clientTime = System.currentTimeMillis() - clientStart;
             log.info("[TIMING] Step 1/3: Client acquired in {} ms", clientTime);
             
@@ -114,6 +508,7 @@ public class BigQueryService {
                 bigQueryClient.listDatasets(config.getProjectId());
             
             long queryTime = System.currentTimeMillis() - queryStart;
+            recordTiming(MetadataMetrics.Phase.QUERY, "listDatasets", MetadataMetrics.SUCCESS, queryTime);
             log.info("[TIMING] Step 2/3: Dataset list retrieved in {} ms", queryTime);
             log.info("[DETAIL] ║   ✓ API Response received from BigQuery");
             log.info("[DETAIL] ║   ✓ Status: SUCCESS");
@@ -175,6 +570,8 @@ public class BigQueryService {
             }
             
             long processingTime = System.currentTimeMillis() - processingStart;
+            recordTiming(MetadataMetrics.Phase.MAPPING, "listDatasets", MetadataMetrics.SUCCESS, processingTime);
+            metrics.countRows(MetadataCacheKey.BACKEND_API, "listDatasets", count);
             log.info("[TIMING] Step 3/3: Processed {} datasets in {} ms", count, processingTime);
             
             log.info("[DETAIL] ║");
@@ -193,6 +590,7 @@ public class BigQueryService {
             log.info("[DETAIL] ║   ✓ Datasets returned: {}", datasets.size());
             log.info("[DETAIL] ╚══════════════════════════════════════════════════════════");
             
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listDatasets", MetadataMetrics.SUCCESS, totalTime);
             log.info("[TIMING] ========== listDatasets completed in {} ms (client: {}ms, query: {}ms, process: {}ms) ==========", 
                     totalTime, clientTime, queryTime, processingTime);
             log.info("Successfully retrieved {} datasets", datasets.size());
@@ -205,6 +603,7 @@ public class BigQueryService {
             log.error("[DETAIL] ║   ✗ Exception type: {}", e.getClass().getSimpleName());
             log.error("[DETAIL] ║   ✗ Time until failure: {} ms", totalTime);
             log.error("[DETAIL] ╚══════════════════════════════════════════════════════════");
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listDatasets", MetadataMetrics.ERROR, totalTime);
             log.error("[TIMING] Error listing datasets after {} ms", totalTime, e);
             throw new RuntimeException("Failed to list datasets", e);
         }
@@ -212,7 +611,10 @@ public class BigQueryService {
         return datasets;
     }
 
-    public List<Table> listTables(String datasetId) {
+    /**
+     * @return number of tables handed to the consumer
+     */
+    private int fetchTables(CredentialContext context, String datasetId, RowConsumer<Table> consumer) {
         long operationStart = System.currentTimeMillis();
         log.info("[TIMING] ========== Starting listTables operation for dataset: {} ==========", datasetId);
         log.info("[DETAIL] ╔══════════════════════════════════════════════════════════");
@@ -221,124 +623,71 @@ public class BigQueryService {
         log.info("[DETAIL] ║ Input Parameter:");
         log.info("[DETAIL] ║   → datasetId: {}", datasetId);
         
-        List<Table> tables = new ArrayList<>();
+        int[] count = {0};
         
         try {
             // Step 1: Get BigQuery client
             long clientStart = System.currentTimeMillis();
             log.info("[DETAIL] ║ Step 1/3: Acquiring BigQuery Client");
-            BigQuery bigQueryClient = getBigQueryClient();
+            BigQuery bigQueryClient = getBigQueryClient(context, "listTables");
             long clientTime = System.currentTimeMillis() - clientStart;
             log.info("[TIMING] Step 1/3: Client acquired in {} ms", clientTime);
             
-            // Step 2: Make API call to BigQuery
+            // Step 2: Fetch table list pages (max page size, trimmed fields, next page prefetched)
             long queryStart = System.currentTimeMillis();
-            log.info("[DETAIL] ║ Step 2/3: Making API call to BigQuery");
+            log.info("[DETAIL] ║ Step 2/3: Making API calls to BigQuery (pipelined paging)");
             log.info("[DETAIL] ║   ┌─ API CALL DETAILS ─────────────────────────────");
-            log.info("[DETAIL] ║   │ API Method: BigQuery.listTables()");
+            log.info("[DETAIL] ║   │ API Method: tables.list (paged)");
             log.info("[DETAIL] ║   │ Target Project: {}", config.getProjectId());
             log.info("[DETAIL] ║   │ Target Dataset: {}", datasetId);
             log.info("[DETAIL] ║   │ Full Dataset Path: {}.{}", config.getProjectId(), datasetId);
-            log.info("[DETAIL] ║   │ Endpoint: BigQuery Data API v2");
-            log.info("[DETAIL] ║   │ Operation: LIST_TABLES");
+            log.info("[DETAIL] ║   │ Page Size: {}", tablePager.getPageSize());
+            log.info("[DETAIL] ║   │ Fields: {}", RestTablePager.TABLE_LIST_FIELDS);
             log.info("[DETAIL] ║   │ Request Type: REST API Call");
             log.info("[DETAIL] ║   └────────────────────────────────────────────────");
-            log.info("[DETAIL] ║   → Creating DatasetId object...");
-            
-            DatasetId dataset = DatasetId.of(config.getProjectId(), datasetId);
-            log.info("[DETAIL] ║   → DatasetId created: {}", dataset);
-            log.info("[DETAIL] ║   → Sending request to Google BigQuery API...");
-            
-            com.google.api.gax.paging.Page<com.google.cloud.bigquery.Table> tablePage = 
-                bigQueryClient.listTables(dataset);
-            
-            long queryTime = System.currentTimeMillis() - queryStart;
-            log.info("[TIMING] Step 2/3: Initial table list page retrieved in {} ms", queryTime);
-            log.info("[DETAIL] ║   ✓ First page of API Response received from BigQuery");
-            log.info("[DETAIL] ║   ✓ Status: SUCCESS");
-            log.info("[DETAIL] ║   ⚠️  NOTE: iterateAll() may fetch additional pages during iteration");
-            log.info("[DETAIL] ║   ⚠️  Each page fetch will add latency to processing time");
-            
-            // Step 3: Process results
-            long processingStart = System.currentTimeMillis();
-            log.info("[DETAIL] ║ Step 3/3: Processing API Response");
-            log.info("[DETAIL] ║   → Iterating through BigQuery tables...");
-            log.info("[DETAIL] ║   → ULTRA-DETAILED LOGGING ENABLED - timing each table");
-            
-            int count = 0;
-            int paginationEventCount = 0;
-            long totalPaginationTime = 0;
-            long lastTableTime = System.currentTimeMillis();
-            
-            for (com.google.cloud.bigquery.Table bqTable : tablePage.iterateAll()) {
-                long tableStartTime = System.currentTimeMillis();
-                count++;
-                
-                // Log EVERY table with full timing details
-                long timeSinceLastTable = tableStartTime - lastTableTime;
-                log.info("[DETAIL] ║   ┌─ TABLE #{} ─────────────────────────────────────", count);
-                log.info("[DETAIL] ║   │ Time since last table: {} ms", timeSinceLastTable);
-                
-                // Detect if this might be a pagination boundary (sudden large delay)
-                if (timeSinceLastTable > 100 && count > 1) {
-                    paginationEventCount++;
-                    totalPaginationTime += timeSinceLastTable;
-                    log.warn("[DETAIL] ║   │ ⚠️  ALERT: PAGINATION EVENT #{} - Large delay detected ({}ms)!", 
-                            paginationEventCount, timeSinceLastTable);
-                    log.warn("[DETAIL] ║   │ ⚠️  Fetching next page of results from BigQuery API");
+            log.info("[DETAIL] ║ Step 3/3: Processing pages as they arrive (page N+1 is fetched while page N is mapped)");
+            
+            long[] pageFetchTime = {0};
+            long[] processingTime = {0};
+            int pages = tablePager.forEachPage(bigQueryClient, config.getProjectId(), datasetId, page -> {
+                long pageStart = System.nanoTime();
+                pageFetchTime[0] += page.getFetchMs();
+                metrics.recordPage(MetadataCacheKey.BACKEND_API, "listTables", page);
+                for (TableList.Tables bqTable : page.getTables()) {
+                    Table table = MetadataMapper.table(bqTable, config.getProjectId(), datasetId);
+                    consumer.accept(table);
+                    count[0]++;
+                    
+                    // Only log details for first 10 tables to avoid performance issues
+                    if (count[0] <= 10) {
+                        log.info("[DETAIL] ║   → Table #{}: {} ({})", count[0], table.getTableId(), table.getType());
+                    }
                 }
-                
-                log.info("[DETAIL] ║   │ Getting table ID...");
-                long idStartTime = System.currentTimeMillis();
-                String tableId = bqTable.getTableId().getTable();
-                long idTime = System.currentTimeMillis() - idStartTime;
-                log.info("[DETAIL] ║   │ Table ID retrieved in {} ms: {}", idTime, tableId);
-                
-                // Create table object and measure each operation
-                log.info("[DETAIL] ║   │ Creating Table object...");
-                long objectCreateStart = System.currentTimeMillis();
-                Table table = new Table();
-                long objectCreateTime = System.currentTimeMillis() - objectCreateStart;
-                log.info("[DETAIL] ║   │ Object creation: {} ms", objectCreateTime);
-                
-                log.info("[DETAIL] ║   │ Setting table fields...");
-                long setFieldsStart = System.currentTimeMillis();
-                table.setTableId(tableId);
-                table.setDatasetId(datasetId);
-                table.setProjectId(config.getProjectId());
-                table.setType("TABLE");  // Default - getting actual type triggers lazy loading
-                long setFieldsTime = System.currentTimeMillis() - setFieldsStart;
-                log.info("[DETAIL] ║   │ Field setting: {} ms", setFieldsTime);
-                
-                log.info("[DETAIL] ║   │ Adding to list...");
-                long addListStart = System.currentTimeMillis();
-                tables.add(table);
-                long addListTime = System.currentTimeMillis() - addListStart;
-                log.info("[DETAIL] ║   │ List add: {} ms", addListTime);
-                
-                long totalTableTime = System.currentTimeMillis() - tableStartTime;
-                log.info("[DETAIL] ║   │ ✓ TOTAL TABLE TIME: {} ms", totalTableTime);
-                log.info("[DETAIL] ║   └────────────────────────────────────────────────");
-                
-                lastTableTime = System.currentTimeMillis();
-            }
+                long pageNanos = System.nanoTime() - pageStart;
+                metrics.recordNanos(MetadataMetrics.Phase.MAPPING, MetadataCacheKey.BACKEND_API, "listTables",
+                        MetadataMetrics.SUCCESS, pageNanos);
+                long pageTime = pageNanos / 1_000_000;
+                processingTime[0] += pageTime;
+                log.info("[DETAIL] ║   → Page {}: {} tables (fetch: {} ms, mapping: {} ms, total so far: {})",
+                        page.getPageNumber(), page.getTables().size(), page.getFetchMs(), pageTime, count[0]);
+            });
             
-            long processingTime = System.currentTimeMillis() - processingStart;
-            log.info("[TIMING] Step 3/3: Processed {} tables in {} ms", count, processingTime);
+            long queryTime = System.currentTimeMillis() - queryStart;
+            log.info("[TIMING] Step 2/3: Fetched {} pages in {} ms (sum of page fetches: {} ms)", 
+                    pages, queryTime, pageFetchTime[0]);
+            log.info("[TIMING] Step 3/3: Processed {} tables in {} ms", count[0], processingTime[0]);
+            metrics.countRows(MetadataCacheKey.BACKEND_API, "listTables", count[0]);
             
             log.info("[DETAIL] ║");
             log.info("[DETAIL] ║ Processing Summary:");
-            log.info("[DETAIL] ║   • Total tables found: {}", count);
+            log.info("[DETAIL] ║   • Total tables found: {}", count[0]);
             log.info("[DETAIL] ║   • Dataset: {}", datasetId);
-            log.info("[DETAIL] ║   • Pagination events: {}", paginationEventCount);
-            log.info("[DETAIL] ║   • Time in pagination: {} ms ({} seconds)", 
-                    totalPaginationTime, totalPaginationTime / 1000);
-            if (paginationEventCount > 0) {
-                log.info("[DETAIL] ║   • Average per page fetch: {} ms", 
-                        totalPaginationTime / paginationEventCount);
-                log.info("[DETAIL] ║   • Pagination overhead: {}% of total time", 
-                        (totalPaginationTime * 100) / processingTime);
+            log.info("[DETAIL] ║   • Pages fetched: {}", pages);
+            if (pages > 0) {
+                log.info("[DETAIL] ║   • Average per page fetch: {} ms", pageFetchTime[0] / pages);
             }
+            log.info("[DETAIL] ║   • Time saved by prefetching: {} ms", 
+                    Math.max(0, pageFetchTime[0] + processingTime[0] - queryTime));
             log.info("[DETAIL] ║   • All tables converted to model objects");
             log.info("[DETAIL] ║   • Ready to serialize to JSON for response");
             
@@ -346,15 +695,16 @@ public class BigQueryService {
             log.info("[DETAIL] ╠══════════════════════════════════════════════════════════");
             log.info("[DETAIL] ║ OPERATION COMPLETE");
             log.info("[DETAIL] ║   ✓ Client initialization: {} ms", clientTime);
-            log.info("[DETAIL] ║   ✓ BigQuery API call: {} ms", queryTime);
-            log.info("[DETAIL] ║   ✓ Response processing: {} ms", processingTime);
+            log.info("[DETAIL] ║   ✓ BigQuery API calls (pipelined): {} ms", queryTime);
+            log.info("[DETAIL] ║   ✓ Response processing: {} ms", processingTime[0]);
             log.info("[DETAIL] ║   ✓ Total operation time: {} ms", totalTime);
-            log.info("[DETAIL] ║   ✓ Tables returned: {}", tables.size());
+            log.info("[DETAIL] ║   ✓ Tables returned: {}", count[0]);
             log.info("[DETAIL] ╚══════════════════════════════════════════════════════════");
             
-            log.info("[TIMING] ========== listTables for dataset '{}' completed in {} ms (client: {}ms, query: {}ms, process: {}ms) ==========", 
-                    datasetId, totalTime, clientTime, queryTime, processingTime);
-            log.info("Successfully retrieved {} tables from dataset {}", tables.size(), datasetId);
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listTables", MetadataMetrics.SUCCESS, totalTime);
+            log.info("[TIMING] ========== listTables for dataset '{}' completed in {} ms (client: {}ms, query: {}ms, process: {}ms, pages: {}) ==========", 
+                    datasetId, totalTime, clientTime, queryTime, processingTime[0], pages);
+            log.info("Successfully retrieved {} tables from dataset {}", count[0], datasetId);
             
         } catch (Exception e) {
             long totalTime = System.currentTimeMillis() - operationStart;
@@ -365,14 +715,15 @@ public class BigQueryService {
             log.error("[DETAIL] ║   ✗ Exception type: {}", e.getClass().getSimpleName());
             log.error("[DETAIL] ║   ✗ Time until failure: {} ms", totalTime);
             log.error("[DETAIL] ╚══════════════════════════════════════════════════════════");
+            recordTiming(MetadataMetrics.Phase.OPERATION, "listTables", MetadataMetrics.ERROR, totalTime);
             log.error("[TIMING] Error listing tables for dataset '{}' after {} ms", datasetId, totalTime, e);
             throw new RuntimeException("Failed to list tables for dataset: " + datasetId, e);
         }
         
-        return tables;
+        return count[0];
     }
 
-    public List<com.mercadolibre.incidenciabq.model.Field> getTableSchema(String datasetId, String tableId) {
+    private List<com.mercadolibre.incidenciabq.model.Field> fetchTableSchema(CredentialContext context, String datasetId, String tableId) {
         long operationStart = System.currentTimeMillis();
         log.info("[TIMING] ========== Starting getTableSchema operation for {}.{} ==========", datasetId, tableId);
         log.info("[DETAIL] ╔══════════════════════════════════════════════════════════");
@@ -388,7 +739,7 @@ public class BigQueryService {
             // Step 1: Get BigQuery client
             long clientStart = System.currentTimeMillis();
             log.info("[DETAIL] ║ Step 1/3: Acquiring BigQuery Client");
-            BigQuery bigQueryClient = getBigQueryClient();
+            BigQuery bigQueryClient = getBigQueryClient(context, "getTableSchema");
             long clientTime = System.currentTimeMillis() - clientStart;
             log.info("[TIMING] Step 1/3: Client acquired in {} ms", clientTime);
             
@@ -404,6 +755,7 @@ public class BigQueryService {
             com.google.cloud.bigquery.Table table = bigQueryClient.getTable(bqTableId);
             
             long queryTime = System.currentTimeMillis() - queryStart;
+            recordTiming(MetadataMetrics.Phase.QUERY, "getTableSchema", MetadataMetrics.SUCCESS, queryTime);
             log.info("[TIMING] Step 2/3: Table metadata retrieved in {} ms", queryTime);
             
             if (table == null) {
@@ -426,11 +778,7 @@ public class BigQueryService {
                 for (com.google.cloud.bigquery.Field bqField : schema.getFields()) {
                     fieldCount++;
                     
-                    com.mercadolibre.incidenciabq.model.Field field = new com.mercadolibre.incidenciabq.model.Field();
-                    field.setName(bqField.getName());
-                    field.setType(bqField.getType().toString());
-                    field.setMode(bqField.getMode() != null ? bqField.getMode().toString() : "NULLABLE");
-                    field.setDescription(bqField.getDescription());
+                    com.mercadolibre.incidenciabq.model.Field field = MetadataMapper.field(bqField);
                     
                     fields.add(field);
                     
@@ -446,6 +794,8 @@ public class BigQueryService {
             }
             
             long processingTime = System.currentTimeMillis() - processingStart;
+            recordTiming(MetadataMetrics.Phase.MAPPING, "getTableSchema", MetadataMetrics.SUCCESS, processingTime);
+            metrics.countRows(MetadataCacheKey.BACKEND_API, "getTableSchema", fields.size());
             log.info("[TIMING] Step 3/3: Extracted {} fields in {} ms", fields.size(), processingTime);
             
             long totalTime = System.currentTimeMillis() - operationStart;
@@ -458,6 +808,7 @@ public class BigQueryService {
             log.info("[DETAIL] ║   ✓ Fields returned: {}", fields.size());
             log.info("[DETAIL] ╚══════════════════════════════════════════════════════════");
             
+            recordTiming(MetadataMetrics.Phase.OPERATION, "getTableSchema", MetadataMetrics.SUCCESS, totalTime);
             log.info("[TIMING] ========== getTableSchema for '{}.{}' completed in {} ms ==========", 
                     datasetId, tableId, totalTime);
             
@@ -468,6 +819,7 @@ public class BigQueryService {
             log.error("[DETAIL] ║   ✗ Table: {}.{}", datasetId, tableId);
             log.error("[DETAIL] ║   ✗ Error: {}", e.getMessage());
             log.error("[DETAIL] ╚══════════════════════════════════════════════════════════");
+            recordTiming(MetadataMetrics.Phase.OPERATION, "getTableSchema", MetadataMetrics.ERROR, totalTime);
             log.error("[TIMING] Error getting table schema after {} ms", totalTime, e);
             throw new RuntimeException("Failed to get table schema: " + datasetId + "." + tableId, e);
         }
@@ -481,7 +833,7 @@ public class BigQueryService {
         
         try {
             long clientStart = System.currentTimeMillis();
-            BigQuery bigQueryClient = getBigQueryClient();
+            BigQuery bigQueryClient = getBigQueryClient(currentContext(), "testConnection");
             long clientTime = System.currentTimeMillis() - clientStart;
             
             // Test by listing datasets (quick operation)
@@ -492,15 +844,18 @@ public class BigQueryService {
             // Just get the first page to test connectivity
             page.getValues().iterator().hasNext();
             long testTime = System.currentTimeMillis() - testStart;
+            recordTiming(MetadataMetrics.Phase.QUERY, "testConnection", MetadataMetrics.SUCCESS, testTime);
             
             log.info("BigQuery connection test successful!");
             log.info("Project: {}", config.getProjectId());
             
             long totalTime = System.currentTimeMillis() - operationStart;
+            recordTiming(MetadataMetrics.Phase.OPERATION, "testConnection", MetadataMetrics.SUCCESS, totalTime);
             log.info("[TIMING] ========== Connection test completed in {} ms (client: {}ms, test: {}ms) ==========", 
                     totalTime, clientTime, testTime);
         } catch (Exception e) {
             long totalTime = System.currentTimeMillis() - operationStart;
+            recordTiming(MetadataMetrics.Phase.OPERATION, "testConnection", MetadataMetrics.ERROR, totalTime);
             log.error("[TIMING] BigQuery connection test failed after {} ms", totalTime, e);
             throw new RuntimeException("Connection test failed", e);
         }
@@ -0,0 +1,43 @@
+package com.mercadolibre.incidenciabq.service;
+
+/**
+ * A cached metadata result plus the bookkeeping the cache needs about it
+ */
+public class CachedMetadata {
+
+    private final Object value;
+    private final int weightBytes;
+    private final long loadedAt;
+    private final boolean fromSnapshot;
+
+    public CachedMetadata(Object value, int weightBytes) {
+        this(value, weightBytes, System.currentTimeMillis(), false);
+    }
+
+    /**
+     * @param loadedAt     when the value was loaded from BigQuery (earlier than now for snapshot entries)
+     * @param fromSnapshot whether the value was read from the persisted catalog snapshot
+     */
+    public CachedMetadata(Object value, int weightBytes, long loadedAt, boolean fromSnapshot) {
+        this.value = value;
+        this.weightBytes = weightBytes;
+        this.loadedAt = loadedAt;
+        this.fromSnapshot = fromSnapshot;
+    }
+
+    public Object getValue() {
+        return value;
+    }
+
+    public int getWeightBytes() {
+        return weightBytes;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public boolean isFromSnapshot() {
+        return fromSnapshot;
+    }
+}
@@ -0,0 +1,496 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.model.Dataset;
+import com.mercadolibre.incidenciabq.model.Field;
+import com.mercadolibre.incidenciabq.model.Table;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Binary, memory-mapped catalog snapshot of one credential identity's cached metadata
+ *
+ * Layout (big-endian, all offsets absolute):
+ * <pre>
+ * header      64 bytes: magic, version, createdAt, identity, then count + offset of each section
+ * strings     (count + 1) int offsets into a UTF-8 blob; every distinct string is stored once
+ * directory   32-byte records sorted by (type, backend, dataset, table):
+ *             type, backend, dataset, table, first record, record count, loadedAt
+ * datasets    32-byte records: datasetId, projectId, friendlyName, description, location, creationTime
+ * tables      40-byte records: tableId, datasetId, projectId, friendlyName, description, type,
+ *             creationTime, numRows
+ * fields      16-byte records: name, type, mode, description
+ * </pre>
+ * Strings are int indexes into the string table (-1 = null); absent longs are Long.MIN_VALUE.
+ *
+ * Opening a snapshot only maps the file and checks the header (section offsets against the file
+ * size), so its size does not matter.
+ * Lookups binary-search the directory in place and decode just the records of one entry;
+ * nothing else is copied onto the heap.
+ */
+final class CatalogSnapshotFile {
+
+    static final int MAGIC = 0x42514D53; // "BQMS"
+    static final int VERSION = 1;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int DIR_RECORD = 32;
+    private static final int DATASET_RECORD = 32;
+    private static final int TABLE_RECORD = 40;
+    private static final int FIELD_RECORD = 16;
+    private static final int NULL_STRING = -1;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    private final long createdAt;
+    private final String identity;
+    private final int stringOffsetsPos;
+    private final int stringDataPos;
+    private final int dirCount;
+    private final int dirPos;
+    private final int datasetPos;
+    private final int tablePos;
+    private final int fieldPos;
+    private final int tableCount;
+
+    private CatalogSnapshotFile(Path path, MappedByteBuffer buffer) throws IOException {
+        this.path = path;
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a catalog snapshot: " + path);
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported catalog snapshot version " + buffer.getInt(4) + ": " + path);
+        }
+        this.createdAt = buffer.getLong(8);
+        this.stringOffsetsPos = buffer.getInt(24);
+        this.stringDataPos = buffer.getInt(28);
+        this.dirCount = buffer.getInt(32);
+        this.dirPos = buffer.getInt(36);
+        this.datasetPos = buffer.getInt(44);
+        this.tableCount = buffer.getInt(48);
+        this.tablePos = buffer.getInt(52);
+        this.fieldPos = buffer.getInt(60);
+        checkLayout(buffer.getInt(20), buffer.getInt(40), buffer.getInt(56));
+        this.identity = string(buffer.getInt(16));
+    }
+
+    /**
+     * The sections must follow each other exactly and end at the end of the file, so a
+     * truncated or corrupt snapshot is rejected on open instead of failing a later lookup
+     */
+    private void checkLayout(int stringCount, int datasetCount, int fieldCount) throws IOException {
+        long capacity = buffer.capacity();
+        if (stringCount < 0 || dirCount < 0 || datasetCount < 0 || tableCount < 0 || fieldCount < 0
+                || stringOffsetsPos != HEADER_BYTES
+                || stringDataPos != stringOffsetsPos + (stringCount + 1L) * 4 || stringDataPos > capacity) {
+            throw new IOException("Corrupt catalog snapshot header: " + path);
+        }
+        long stringBytes = buffer.getInt(stringDataPos - 4);
+        if (dirPos != stringDataPos + stringBytes
+                || datasetPos != dirPos + (long) dirCount * DIR_RECORD
+                || tablePos != datasetPos + (long) datasetCount * DATASET_RECORD
+                || fieldPos != tablePos + (long) tableCount * TABLE_RECORD
+                || capacity != fieldPos + (long) fieldCount * FIELD_RECORD) {
+            throw new IOException("Truncated or corrupt catalog snapshot (" + capacity + " bytes): " + path);
+        }
+    }
+
+    static CatalogSnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return new CatalogSnapshotFile(path, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * The entry for a key, or null if the snapshot does not have it
+     */
+    CachedMetadata lookup(MetadataCacheKey key) {
+        int low = 0;
+        int high = dirCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareDirectory(dirPos + mid * DIR_RECORD, key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return readEntry(dirPos + mid * DIR_RECORD, key.getType());
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Decode every entry (used when a snapshot is rewritten)
+     */
+    Map<MetadataCacheKey, CachedMetadata> readAll() {
+        Map<MetadataCacheKey, CachedMetadata> entries = new LinkedHashMap<>();
+        for (int i = 0; i < dirCount; i++) {
+            int record = dirPos + i * DIR_RECORD;
+            MetadataCacheKey.Type type = MetadataCacheKey.Type.values()[buffer.getInt(record)];
+            MetadataCacheKey key = MetadataCacheKey.of(string(buffer.getInt(record + 4)), identity, type,
+                string(buffer.getInt(record + 8)), string(buffer.getInt(record + 12)));
+            entries.put(key, readEntry(record, type));
+        }
+        return entries;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    String getIdentity() {
+        return identity;
+    }
+
+    long getCreatedAt() {
+        return createdAt;
+    }
+
+    int getEntryCount() {
+        return dirCount;
+    }
+
+    int getTableCount() {
+        return tableCount;
+    }
+
+    long getSizeBytes() {
+        return buffer.capacity();
+    }
+
+    // ------------------------------------------------------------------ reading
+
+    private int compareDirectory(int record, MetadataCacheKey key) {
+        int cmp = Integer.compare(buffer.getInt(record), key.getType().ordinal());
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = compareNullable(string(buffer.getInt(record + 4)), key.getBackend());
+        if (cmp != 0) {
+            return cmp;
+        }
+        cmp = compareNullable(string(buffer.getInt(record + 8)), key.getDatasetId());
+        if (cmp != 0) {
+            return cmp;
+        }
+        return compareNullable(string(buffer.getInt(record + 12)), key.getTableId());
+    }
+
+    private CachedMetadata readEntry(int record, MetadataCacheKey.Type type) {
+        int start = buffer.getInt(record + 16);
+        int count = buffer.getInt(record + 20);
+        long loadedAt = buffer.getLong(record + 24);
+        List<Object> values = new ArrayList<>(count);
+        for (int i = start; i < start + count; i++) {
+            switch (type) {
+                case DATASETS:
+                    values.add(readDataset(datasetPos + i * DATASET_RECORD));
+                    break;
+                case TABLES:
+                    values.add(readTable(tablePos + i * TABLE_RECORD));
+                    break;
+                default:
+                    values.add(readField(fieldPos + i * FIELD_RECORD));
+                    break;
+            }
+        }
+        return new CachedMetadata(values, 0, loadedAt, true);
+    }
+
+    private Dataset readDataset(int record) {
+        return new Dataset(string(buffer.getInt(record)), string(buffer.getInt(record + 4)),
+            string(buffer.getInt(record + 8)), string(buffer.getInt(record + 12)),
+            string(buffer.getInt(record + 16)), longOrNull(buffer.getLong(record + 24)));
+    }
+
+    private Table readTable(int record) {
+        return new Table(string(buffer.getInt(record)), string(buffer.getInt(record + 4)),
+            string(buffer.getInt(record + 8)), string(buffer.getInt(record + 12)),
+            string(buffer.getInt(record + 16)), string(buffer.getInt(record + 20)),
+            longOrNull(buffer.getLong(record + 24)), longOrNull(buffer.getLong(record + 32)));
+    }
+
+    private Field readField(int record) {
+        return new Field(string(buffer.getInt(record)), string(buffer.getInt(record + 4)),
+            string(buffer.getInt(record + 8)), string(buffer.getInt(record + 12)));
+    }
+
+    private String string(int index) {
+        if (index == NULL_STRING) {
+            return null;
+        }
+        int start = buffer.getInt(stringOffsetsPos + index * 4);
+        int end = buffer.getInt(stringOffsetsPos + (index + 1) * 4);
+        byte[] bytes = new byte[end - start];
+        buffer.get(stringDataPos + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Long longOrNull(long value) {
+        return value == NULL_LONG ? null : value;
+    }
+
+    private static int compareNullable(String a, String b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        return a.compareTo(b);
+    }
+
+    // ------------------------------------------------------------------ writing
+
+    /**
+     * Write a snapshot of the given entries. Entries whose value is not a list of
+     * Dataset, Table or Field are skipped. Written to a temp file and moved into place,
+     * so readers never see a partial file.
+     *
+     * @return number of entries written
+     */
+    static int write(Path path, String identity, Map<MetadataCacheKey, CachedMetadata> entries) throws IOException {
+        List<Map.Entry<MetadataCacheKey, CachedMetadata>> sorted = new ArrayList<>();
+        for (Map.Entry<MetadataCacheKey, CachedMetadata> entry : entries.entrySet()) {
+            if (isSupported(entry.getKey().getType(), entry.getValue().getValue())) {
+                sorted.add(entry);
+            }
+        }
+        sorted.sort(Comparator.comparing((Map.Entry<MetadataCacheKey, CachedMetadata> e) -> e.getKey().getType().ordinal())
+            .thenComparing(e -> e.getKey().getBackend(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(e -> e.getKey().getDatasetId(), Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(e -> e.getKey().getTableId(), Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        StringTable strings = new StringTable();
+        int identityIndex = strings.index(identity);
+        ByteBuffer directory = ByteBuffer.allocate(sorted.size() * DIR_RECORD);
+        GrowableBuffer datasets = new GrowableBuffer();
+        GrowableBuffer tables = new GrowableBuffer();
+        GrowableBuffer fields = new GrowableBuffer();
+        int datasetCount = 0;
+        int tableCount = 0;
+        int fieldCount = 0;
+
+        for (Map.Entry<MetadataCacheKey, CachedMetadata> entry : sorted) {
+            MetadataCacheKey key = entry.getKey();
+            List<?> values = (List<?>) entry.getValue().getValue();
+            int start;
+            switch (key.getType()) {
+                case DATASETS:
+                    start = datasetCount;
+                    for (Object value : values) {
+                        Dataset d = (Dataset) value;
+                        datasets.putInt(strings.index(d.getDatasetId())).putInt(strings.index(d.getProjectId()))
+                            .putInt(strings.index(d.getFriendlyName())).putInt(strings.index(d.getDescription()))
+                            .putInt(strings.index(d.getLocation())).putInt(0)
+                            .putLong(orNull(d.getCreationTime()));
+                    }
+                    datasetCount += values.size();
+                    break;
+                case TABLES:
+                    start = tableCount;
+                    for (Object value : values) {
+                        Table t = (Table) value;
+                        tables.putInt(strings.index(t.getTableId())).putInt(strings.index(t.getDatasetId()))
+                            .putInt(strings.index(t.getProjectId())).putInt(strings.index(t.getFriendlyName()))
+                            .putInt(strings.index(t.getDescription())).putInt(strings.index(t.getType()))
+                            .putLong(orNull(t.getCreationTime())).putLong(orNull(t.getNumRows()));
+                    }
+                    tableCount += values.size();
+                    break;
+                default:
+                    start = fieldCount;
+                    for (Object value : values) {
+                        Field f = (Field) value;
+                        fields.putInt(strings.index(f.getName())).putInt(strings.index(f.getType()))
+                            .putInt(strings.index(f.getMode())).putInt(strings.index(f.getDescription()));
+                    }
+                    fieldCount += values.size();
+                    break;
+            }
+            directory.putInt(key.getType().ordinal())
+                .putInt(strings.index(key.getBackend()))
+                .putInt(strings.index(key.getDatasetId()))
+                .putInt(strings.index(key.getTableId()))
+                .putInt(start)
+                .putInt(values.size())
+                .putLong(entry.getValue().getLoadedAt());
+        }
+
+        int stringOffsetsPos = HEADER_BYTES;
+        int stringDataPos = stringOffsetsPos + (strings.size() + 1) * 4;
+        int dirPos = stringDataPos + strings.byteLength();
+        int datasetPos = dirPos + directory.capacity();
+        int tablePos = datasetPos + datasets.size();
+        int fieldPos = tablePos + tables.size();
+        long totalSize = (long) fieldPos + fields.size();
+        if (totalSize > Integer.MAX_VALUE) {
+            throw new IOException("Catalog snapshot too large (" + totalSize + " bytes)");
+        }
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(identityIndex);
+            out.writeInt(strings.size());
+            out.writeInt(stringOffsetsPos);
+            out.writeInt(stringDataPos);
+            out.writeInt(sorted.size());
+            out.writeInt(dirPos);
+            out.writeInt(datasetCount);
+            out.writeInt(datasetPos);
+            out.writeInt(tableCount);
+            out.writeInt(tablePos);
+            out.writeInt(fieldCount);
+            out.writeInt(fieldPos);
+            strings.writeTo(out);
+            out.write(directory.array());
+            datasets.writeTo(out);
+            tables.writeTo(out);
+            fields.writeTo(out);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return sorted.size();
+    }
+
+    private static boolean isSupported(MetadataCacheKey.Type type, Object value) {
+        if (!(value instanceof List)) {
+            return false;
+        }
+        Class<?> expected = type == MetadataCacheKey.Type.DATASETS ? Dataset.class
+            : type == MetadataCacheKey.Type.TABLES ? Table.class : Field.class;
+        for (Object item : (List<?>) value) {
+            if (!expected.isInstance(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long orNull(Long value) {
+        return value != null ? value : NULL_LONG;
+    }
+
+    /**
+     * Deduplicating string table: each distinct string gets one index
+     */
+    private static final class StringTable {
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final List<byte[]> values = new ArrayList<>();
+        private int byteLength;
+
+        int index(String value) {
+            if (value == null) {
+                return NULL_STRING;
+            }
+            return indexes.computeIfAbsent(value, v -> {
+                byte[] bytes = v.getBytes(StandardCharsets.UTF_8);
+                values.add(bytes);
+                byteLength += bytes.length;
+                return values.size() - 1;
+            });
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        int byteLength() {
+            return byteLength;
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] value : values) {
+                offset += value.length;
+                out.writeInt(offset);
+            }
+            for (byte[] value : values) {
+                out.write(value);
+            }
+        }
+    }
+
+    private static final class GrowableBuffer {
+        private ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        GrowableBuffer putInt(int value) {
+            ensure(4).putInt(value);
+            return this;
+        }
+
+        GrowableBuffer putLong(long value) {
+            ensure(8).putLong(value);
+            return this;
+        }
+
+        int size() {
+            return buffer.position();
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.write(buffer.array(), 0, buffer.position());
+        }
+
+        private ByteBuffer ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                ByteBuffer larger = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            }
+            return buffer;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return path + " (" + identity + ", " + dirCount + " entries)";
+    }
+
+    /**
+     * File name of an identity's snapshot (hashed: identities contain the service account email)
+     */
+    static String fileNameFor(String identity) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(identity.getBytes(StandardCharsets.UTF_8));
+            return "catalog-" + HexFormat.of().formatHex(digest, 0, 8) + ".bin";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    static List<Path> listSnapshots(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            return Collections.emptyList();
+        }
+        List<Path> paths = new ArrayList<>();
+        try (var stream = Files.newDirectoryStream(dir, "catalog-*.bin")) {
+            stream.forEach(paths::add);
+        }
+        return paths;
+    }
+}
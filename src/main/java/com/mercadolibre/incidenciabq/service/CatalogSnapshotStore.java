@@ -0,0 +1,202 @@
+package com.mercadolibre.incidenciabq.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * Persistent catalog snapshots: the metadata cache written to disk, one file per credential identity
+ *
+ * On startup every snapshot in the directory is memory-mapped (only the header is read), so a
+ * restarted instance can answer dataset/table/schema requests from the last known catalog
+ * immediately while the cache refreshes it from BigQuery in the background.
+ *
+ * Snapshots are rewritten from the cache periodically and on shutdown (see MetadataCache).
+ * Entries older than bigquery.catalog.snapshot.max-age-hours are never served.
+ */
+@Component
+@Slf4j
+public class CatalogSnapshotStore {
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long maxAgeMs;
+
+    /** Mapped snapshots by identity; a snapshot is replaced as a whole when rewritten */
+    private final Map<String, CatalogSnapshotFile> snapshots = new ConcurrentHashMap<>();
+
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong writeFailures = new AtomicLong();
+
+    public CatalogSnapshotStore(@Value("${bigquery.catalog.snapshot.enabled:true}") boolean enabled,
+                                @Value("${bigquery.catalog.snapshot.dir:./catalog-snapshot}") String directory,
+                                @Value("${bigquery.catalog.snapshot.max-age-hours:24}") long maxAgeHours) {
+        this.enabled = enabled;
+        this.directory = Paths.get(directory);
+        this.maxAgeMs = TimeUnit.HOURS.toMillis(maxAgeHours);
+    }
+
+    @PostConstruct
+    public void load() {
+        if (!enabled) {
+            log.info("[SNAPSHOT] Catalog snapshots disabled");
+            return;
+        }
+        try {
+            for (Path path : CatalogSnapshotFile.listSnapshots(directory)) {
+                try {
+                    CatalogSnapshotFile snapshot = CatalogSnapshotFile.open(path);
+                    snapshots.put(snapshot.getIdentity(), snapshot);
+                    log.info("[SNAPSHOT] Mapped {} ({} entries, {} tables, {} KB, written {} min ago)",
+                        path.getFileName(), snapshot.getEntryCount(), snapshot.getTableCount(),
+                        snapshot.getSizeBytes() / 1024,
+                        TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis() - snapshot.getCreatedAt()));
+                } catch (IOException | RuntimeException e) {
+                    log.warn("[SNAPSHOT] Ignoring unreadable snapshot {}: {}", path, e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            log.warn("[SNAPSHOT] Could not list snapshot directory {}: {}", directory, e.getMessage());
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The persisted entry for a key, or null if there is none (or it is older than the max age)
+     */
+    public CachedMetadata lookup(MetadataCacheKey key) {
+        if (!enabled) {
+            return null;
+        }
+        CatalogSnapshotFile snapshot = snapshots.get(key.getIdentity());
+        if (snapshot == null) {
+            return null;
+        }
+        lookups.incrementAndGet();
+        CachedMetadata entry;
+        try {
+            entry = snapshot.lookup(key);
+        } catch (RuntimeException e) {
+            log.warn("[SNAPSHOT] Corrupt snapshot {}: {}", snapshot.getPath(), e.getMessage());
+            snapshots.remove(key.getIdentity(), snapshot);
+            return null;
+        }
+        if (entry == null || System.currentTimeMillis() - entry.getLoadedAt() > maxAgeMs) {
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Rewrite an identity's snapshot with the given cache entries.
+     * Entries of the existing snapshot that are not in the cache anymore (e.g. evicted) are
+     * carried over unless they are older than the max age; entries matching dropped are not.
+     */
+    public synchronized void write(String identity, Map<MetadataCacheKey, CachedMetadata> entries,
+                                   Predicate<MetadataCacheKey> dropped) {
+        if (!enabled) {
+            return;
+        }
+        Map<MetadataCacheKey, CachedMetadata> merged = new LinkedHashMap<>();
+        CatalogSnapshotFile previous = snapshots.get(identity);
+        if (previous != null) {
+            long now = System.currentTimeMillis();
+            try {
+                previous.readAll().forEach((key, entry) -> {
+                    if (now - entry.getLoadedAt() <= maxAgeMs && !dropped.test(key)) {
+                        merged.put(key, entry);
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("[SNAPSHOT] Discarding corrupt snapshot {}: {}", previous.getPath(), e.getMessage());
+            }
+        }
+        merged.putAll(entries);
+
+        long start = System.currentTimeMillis();
+        Path path = directory.resolve(CatalogSnapshotFile.fileNameFor(identity));
+        try {
+            Files.createDirectories(directory);
+            int written = CatalogSnapshotFile.write(path, identity, merged);
+            snapshots.put(identity, CatalogSnapshotFile.open(path));
+            writes.incrementAndGet();
+            log.info("[SNAPSHOT] Wrote {} entries for {} to {} in {} ms",
+                written, identity, path.getFileName(), System.currentTimeMillis() - start);
+        } catch (IOException | RuntimeException e) {
+            writeFailures.incrementAndGet();
+            log.warn("[SNAPSHOT] Failed to write snapshot {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Drop matching entries from every snapshot (explicit cache invalidation)
+     */
+    public synchronized void remove(Predicate<MetadataCacheKey> predicate) {
+        if (!enabled) {
+            return;
+        }
+        for (String identity : new ArrayList<>(snapshots.keySet())) {
+            write(identity, Map.of(), predicate);
+        }
+    }
+
+    public synchronized void clearAll() {
+        if (!enabled) {
+            return;
+        }
+        List<CatalogSnapshotFile> removed = new ArrayList<>(snapshots.values());
+        snapshots.clear();
+        for (CatalogSnapshotFile snapshot : removed) {
+            try {
+                Files.deleteIfExists(snapshot.getPath());
+            } catch (IOException e) {
+                log.warn("[SNAPSHOT] Could not delete {}: {}", snapshot.getPath(), e.getMessage());
+            }
+        }
+        log.info("[SNAPSHOT] Deleted {} snapshots", removed.size());
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("directory", directory.toAbsolutePath().toString());
+        result.put("maxAgeHours", TimeUnit.MILLISECONDS.toHours(maxAgeMs));
+        result.put("lookups", lookups.get());
+        result.put("hits", hits.get());
+        result.put("writes", writes.get());
+        result.put("writeFailures", writeFailures.get());
+
+        List<Map<String, Object>> files = new ArrayList<>();
+        for (CatalogSnapshotFile snapshot : snapshots.values()) {
+            Map<String, Object> file = new LinkedHashMap<>();
+            file.put("file", snapshot.getPath().getFileName().toString());
+            file.put("entries", snapshot.getEntryCount());
+            file.put("tables", snapshot.getTableCount());
+            file.put("sizeBytes", snapshot.getSizeBytes());
+            file.put("createdAt", snapshot.getCreatedAt());
+            files.add(file);
+        }
+        result.put("snapshots", files);
+        return result;
+    }
+}
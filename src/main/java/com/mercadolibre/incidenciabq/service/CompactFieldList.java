@@ -0,0 +1,56 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.model.Field;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A cached table schema stored column by column: names and descriptions as StringColumns, types
+ * and modes as DictionaryColumns (a byte per field; "STRING", "NULLABLE", ... are shared by every
+ * schema). Immutable; get() builds the Field DTO on the fly, like CompactTableList.
+ */
+public final class CompactFieldList extends AbstractList<Field> implements RandomAccess {
+
+    private final int size;
+    private final StringColumn names;
+    private final DictionaryColumn types;
+    private final DictionaryColumn modes;
+    private final StringColumn descriptions;
+
+    private CompactFieldList(List<Field> fields) {
+        this.size = fields.size();
+        this.names = StringColumn.of(size, row -> fields.get(row).getName());
+        this.types = DictionaryColumn.of(size, row -> fields.get(row).getType());
+        this.modes = DictionaryColumn.of(size, row -> fields.get(row).getMode());
+        this.descriptions = StringColumn.of(size, row -> fields.get(row).getDescription());
+    }
+
+    public static CompactFieldList of(List<Field> fields) {
+        if (fields instanceof CompactFieldList) {
+            return (CompactFieldList) fields;
+        }
+        return new CompactFieldList(fields instanceof RandomAccess ? fields : List.copyOf(fields));
+    }
+
+    @Override
+    public Field get(int index) {
+        Objects.checkIndex(index, size);
+        return new Field(names.get(index), types.get(index), modes.get(index), descriptions.get(index));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Estimated heap held by the columns
+     */
+    public long estimatedBytes() {
+        return 32 + names.estimatedBytes() + types.estimatedBytes() + modes.estimatedBytes()
+            + descriptions.estimatedBytes();
+    }
+}
@@ -0,0 +1,154 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.model.ColumnarTables;
+import com.mercadolibre.incidenciabq.model.Table;
+
+import java.util.AbstractList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * A cached table listing stored column by column (struct of arrays) instead of one Table per row
+ *
+ * Table ids, friendly names and descriptions are StringColumns; project id, dataset id and type are
+ * DictionaryColumns (one byte per row plus the few distinct values); creation time and row count are
+ * primitive long columns with Long.MIN_VALUE for null. The list is immutable and reads as a
+ * List&lt;Table&gt;: get() builds a Table on the fly, so callers and the JSON responses see the usual DTOs
+ * while the cache keeps only the columns.
+ */
+public final class CompactTableList extends AbstractList<Table> implements RandomAccess {
+
+    private static final long NULL_LONG = Long.MIN_VALUE;
+
+    private final int size;
+    private final StringColumn tableIds;
+    private final DictionaryColumn datasetIds;
+    private final DictionaryColumn projectIds;
+    private final StringColumn friendlyNames;
+    private final StringColumn descriptions;
+    private final DictionaryColumn types;
+    private final long[] creationTimes;
+    private final long[] numRows;
+
+    private CompactTableList(List<Table> tables) {
+        this.size = tables.size();
+        this.tableIds = StringColumn.of(size, row -> tables.get(row).getTableId());
+        this.datasetIds = DictionaryColumn.of(size, row -> tables.get(row).getDatasetId());
+        this.projectIds = DictionaryColumn.of(size, row -> tables.get(row).getProjectId());
+        this.friendlyNames = StringColumn.of(size, row -> tables.get(row).getFriendlyName());
+        this.descriptions = StringColumn.of(size, row -> tables.get(row).getDescription());
+        this.types = DictionaryColumn.of(size, row -> tables.get(row).getType());
+        this.creationTimes = new long[size];
+        this.numRows = new long[size];
+        for (int row = 0; row < size; row++) {
+            Table table = tables.get(row);
+            creationTimes[row] = orNull(table.getCreationTime());
+            numRows[row] = orNull(table.getNumRows());
+        }
+    }
+
+    /**
+     * Compact copy of a listing (a random-access list: rows are read by index)
+     */
+    public static CompactTableList of(List<Table> tables) {
+        if (tables instanceof CompactTableList) {
+            return (CompactTableList) tables;
+        }
+        return new CompactTableList(tables instanceof RandomAccess ? tables : List.copyOf(tables));
+    }
+
+    @Override
+    public Table get(int index) {
+        Objects.checkIndex(index, size);
+        return new Table(tableIds.get(index), datasetIds.get(index), projectIds.get(index),
+            friendlyNames.get(index), descriptions.get(index), types.get(index),
+            longOrNull(creationTimes[index]), longOrNull(numRows[index]));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Table id of one row, without building the Table
+     */
+    public String getTableId(int index) {
+        Objects.checkIndex(index, size);
+        return tableIds.get(index);
+    }
+
+    /**
+     * The listing as parallel arrays (?format=columnar), read straight from the columns: dictionary
+     * columns keep their codes, and a column with a single value becomes a constant
+     */
+    public ColumnarTables toColumnar() {
+        ColumnarTables columnar = new ColumnarTables(size, new LinkedHashMap<>(), new LinkedHashMap<>(),
+            new LinkedHashMap<>());
+        putStrings(columnar, "tableId", tableIds);
+        putDictionary(columnar, "datasetId", datasetIds);
+        putDictionary(columnar, "projectId", projectIds);
+        putStrings(columnar, "friendlyName", friendlyNames);
+        putStrings(columnar, "description", descriptions);
+        putDictionary(columnar, "type", types);
+        putLongs(columnar, "creationTime", creationTimes);
+        putLongs(columnar, "numRows", numRows);
+        return columnar;
+    }
+
+    private void putStrings(ColumnarTables columnar, String name, StringColumn column) {
+        if (column.isAllNull()) {
+            columnar.getConstants().put(name, null);
+        } else {
+            columnar.getColumns().put(name, column.toArray(size));
+        }
+    }
+
+    private void putDictionary(ColumnarTables columnar, String name, DictionaryColumn column) {
+        if (column.cardinality() <= 1) {
+            columnar.getConstants().put(name, column.cardinality() == 1 ? column.get(0) : null);
+        } else {
+            columnar.getDictionaries().put(name, column.values());
+            columnar.getColumns().put(name, column.codes(size));
+        }
+    }
+
+    private void putLongs(ColumnarTables columnar, String name, long[] column) {
+        boolean hasNulls = false;
+        boolean allNull = true;
+        for (long value : column) {
+            hasNulls |= value == NULL_LONG;
+            allNull &= value == NULL_LONG;
+        }
+        if (allNull) {
+            columnar.getConstants().put(name, null);
+        } else if (!hasNulls) {
+            columnar.getColumns().put(name, column.clone());
+        } else {
+            Long[] values = new Long[size];
+            for (int row = 0; row < size; row++) {
+                values[row] = longOrNull(column[row]);
+            }
+            columnar.getColumns().put(name, values);
+        }
+    }
+
+    /**
+     * Estimated heap held by the columns
+     */
+    public long estimatedBytes() {
+        return 56 + tableIds.estimatedBytes() + datasetIds.estimatedBytes() + projectIds.estimatedBytes()
+            + friendlyNames.estimatedBytes() + descriptions.estimatedBytes() + types.estimatedBytes()
+            + 2 * (16 + 8L * size);
+    }
+
+    private static long orNull(Long value) {
+        return value != null ? value : NULL_LONG;
+    }
+
+    private static Long longOrNull(long value) {
+        return value == NULL_LONG ? null : value;
+    }
+}
@@ -0,0 +1,73 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.google.auth.oauth2.GoogleCredentials;
+
+/**
+ * Credentials a backend call runs with, captured from the request-scoped
+ * SessionAwareCredentialsProvider while the request is active
+ *
+ * Work that may outlive the request (background refreshes, async endpoints)
+ * must carry one of these instead of calling the request-scoped provider.
+ * BigQueryIoExecutor binds the caller's context to the worker thread for the
+ * duration of a task; services look for a bound context first (see bound()).
+ */
+public final class CredentialContext {
+
+    private static final ThreadLocal<CredentialContext> BOUND = new ThreadLocal<>();
+
+    private final GoogleCredentials credentials;
+    private final CredentialIdentity identity;
+    private final String sessionId;
+    private final boolean sessionCredentials;
+    private final String keyPath;
+
+    public CredentialContext(GoogleCredentials credentials, String sessionId,
+                             boolean sessionCredentials, String keyPath) {
+        this.credentials = credentials;
+        this.identity = CredentialIdentity.of(credentials);
+        this.sessionId = sessionId;
+        this.sessionCredentials = sessionCredentials;
+        this.keyPath = keyPath;
+    }
+
+    /**
+     * The context bound to the current thread, or null outside BigQueryIoExecutor tasks
+     */
+    public static CredentialContext bound() {
+        return BOUND.get();
+    }
+
+    static void bind(CredentialContext context) {
+        BOUND.set(context);
+    }
+
+    static void unbind() {
+        BOUND.remove();
+    }
+
+    public GoogleCredentials getCredentials() {
+        return credentials;
+    }
+
+    public CredentialIdentity getIdentity() {
+        return identity;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Whether the session uploaded its own service account key (vs. the default key)
+     */
+    public boolean hasSessionCredentials() {
+        return sessionCredentials;
+    }
+
+    /**
+     * Path of the key file the credentials were read from (used by the JDBC driver)
+     */
+    public String getKeyPath() {
+        return keyPath;
+    }
+}
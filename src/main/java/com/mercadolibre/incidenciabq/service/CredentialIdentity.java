@@ -0,0 +1,75 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.google.auth.oauth2.GoogleCredentials;
+import com.google.auth.oauth2.ServiceAccountCredentials;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+
+/**
+ * Identity of a set of credentials: service account email + fingerprint of its private key
+ *
+ * Two sessions that uploaded the same key get the same identity, so anything
+ * built from the credentials (clients, cached metadata) can be shared between them.
+ */
+public final class CredentialIdentity {
+
+    private final String principal;
+    private final String keyFingerprint;
+
+    private CredentialIdentity(String principal, String keyFingerprint) {
+        this.principal = principal;
+        this.keyFingerprint = keyFingerprint;
+    }
+
+    public static CredentialIdentity of(GoogleCredentials credentials) {
+        if (credentials instanceof ServiceAccountCredentials) {
+            ServiceAccountCredentials sa = (ServiceAccountCredentials) credentials;
+            byte[] keyBytes = sa.getPrivateKey() != null && sa.getPrivateKey().getEncoded() != null
+                ? sa.getPrivateKey().getEncoded()
+                : String.valueOf(sa.getPrivateKeyId()).getBytes(StandardCharsets.UTF_8);
+            return new CredentialIdentity(sa.getClientEmail(), fingerprint(keyBytes));
+        }
+        // Non service-account credentials have no stable key material; identify the instance
+        return new CredentialIdentity(credentials.getClass().getSimpleName(),
+            Integer.toHexString(System.identityHashCode(credentials)));
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public String getKeyFingerprint() {
+        return keyFingerprint;
+    }
+
+    private static String fingerprint(byte[] keyBytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(keyBytes);
+            return HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CredentialIdentity)) return false;
+        CredentialIdentity that = (CredentialIdentity) o;
+        return principal.equals(that.principal) && keyFingerprint.equals(that.keyFingerprint);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(principal, keyFingerprint);
+    }
+
+    @Override
+    public String toString() {
+        return principal + "#" + keyFingerprint;
+    }
+}
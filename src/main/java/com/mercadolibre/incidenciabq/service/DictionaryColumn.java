@@ -0,0 +1,102 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * Low-cardinality string column of a compact listing (project and dataset ids, table types, field
+ * types and modes): the distinct values once, plus one code per row
+ *
+ * Codes take a byte per row while the column has at most 256 distinct values, an int otherwise.
+ * The values are interned across all columns, so every listing shares the same "TABLE", "STRING"
+ * or "NULLABLE" String instead of holding one per row. The interner holds them weakly: once no cached
+ * listing uses a value (evicted, invalidated or its session gone) it is collected like any String.
+ */
+final class DictionaryColumn {
+
+    /** Values of the columns in the cache; only as large as what the cached listings still reference */
+    private static final Interner<String> INTERNER = Interners.newWeakInterner();
+
+    private final String[] values;
+    private final byte[] byteCodes;
+    private final int[] intCodes;
+
+    private DictionaryColumn(String[] values, byte[] byteCodes, int[] intCodes) {
+        this.values = values;
+        this.byteCodes = byteCodes;
+        this.intCodes = intCodes;
+    }
+
+    static DictionaryColumn of(int size, IntFunction<String> rows) {
+        Map<String, Integer> codes = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        int[] rowCodes = new int[size];
+        for (int row = 0; row < size; row++) {
+            String value = rows.apply(row);
+            rowCodes[row] = codes.computeIfAbsent(value, v -> {
+                values.add(v == null ? null : INTERNER.intern(v));
+                return values.size() - 1;
+            });
+        }
+        String[] dictionary = values.toArray(new String[0]);
+        if (dictionary.length > 256) {
+            return new DictionaryColumn(dictionary, null, rowCodes);
+        }
+        byte[] byteCodes = new byte[size];
+        for (int row = 0; row < size; row++) {
+            byteCodes[row] = (byte) rowCodes[row];
+        }
+        return new DictionaryColumn(dictionary, byteCodes, null);
+    }
+
+    String get(int row) {
+        return values[byteCodes != null ? byteCodes[row] & 0xFF : intCodes[row]];
+    }
+
+    /**
+     * The distinct values, in code order
+     */
+    List<String> values() {
+        return Arrays.asList(values.clone());
+    }
+
+    /**
+     * Code of every row, in order (an index into values())
+     */
+    int[] codes(int size) {
+        if (intCodes != null) {
+            return intCodes.clone();
+        }
+        int[] codes = new int[size];
+        for (int row = 0; row < size; row++) {
+            codes[row] = byteCodes[row] & 0xFF;
+        }
+        return codes;
+    }
+
+    /**
+     * Number of distinct values (null counts as one)
+     */
+    int cardinality() {
+        return values.length;
+    }
+
+    long estimatedBytes() {
+        // Values shared with other columns are counted by each of them, so the weigher can never undercount
+        long valueBytes = 0;
+        for (String value : values) {
+            if (value != null) {
+                valueBytes += 40 + 2L * value.length();
+            }
+        }
+        return 24 + (16 + 4L * values.length) + valueBytes
+            + (byteCodes != null ? 16 + byteCodes.length : 16 + 4L * intCodes.length);
+    }
+}
@@ -0,0 +1,261 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.mercadolibre.incidenciabq.model.Table;
+import com.mercadolibre.incidenciabq.model.TableRefreshResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Incremental refresh of a cached table listing, shared by the REST and JDBC backends
+ *
+ * Instead of re-listing the whole dataset, a refresh runs:
+ * 1. a delta query: tables created (INFORMATION_SCHEMA.TABLES.creation_time) or modified
+ *    (TABLE_STORAGE.storage_last_modified_time) since the listing's high-water mark
+ * 2. a summary query: table count and BIT_XOR(FARM_FINGERPRINT(table_name)) per name-hash bucket
+ * 3. only if a bucket's count/hash differs from the merged listing (a table was deleted or
+ *    the delta missed something): the tables of the differing buckets, which replace them
+ *
+ * Queries 1 and 2 return rows proportional to churn and to BUCKETS; query 3 only reads the
+ * buckets that changed, so the cost of a refresh follows churn rather than dataset size.
+ * The high-water mark is the load time of the cached listing minus an overlap that absorbs
+ * clock skew and INFORMATION_SCHEMA lag; re-reading a table already in the listing is harmless.
+ */
+final class IncrementalTableRefresh {
+
+    static final int BUCKETS = 64;
+
+    /** Same function as BigQuery's FARM_FINGERPRINT (FarmHash Fingerprint64 of the UTF-8 bytes) */
+    private static final HashFunction FINGERPRINT = Hashing.farmHashFingerprint64();
+
+    private final TreeMap<String, Table> tables = new TreeMap<>();
+    private final Set<String> changedTableIds = new HashSet<>();
+    private final long sinceMillis;
+    private int added;
+    private int modified;
+    private int deleted;
+    private int reconciledBuckets;
+
+    /**
+     * @param listing     the cached listing to bring up to date
+     * @param sinceMillis high-water mark: changes at or after this time are read
+     */
+    IncrementalTableRefresh(List<Table> listing, long sinceMillis) {
+        this.sinceMillis = sinceMillis;
+        for (Table table : listing) {
+            tables.put(table.getTableId(), table);
+        }
+    }
+
+    // ------------------------------------------------------------------ SQL (shared by both backends)
+
+    /**
+     * Tables created or whose storage was modified at or after sinceMillis, ordered by name
+     * (columns: table_name, table_type, creation_time)
+     */
+    static String changedTablesSql(String projectId, String regionQualifier, String datasetId, long sinceMillis) {
+        return String.format(
+            "SELECT t.table_name, t.table_type, t.creation_time " +
+            "FROM `%1$s.%3$s.INFORMATION_SCHEMA.TABLES` t " +
+            "LEFT JOIN (SELECT table_name, storage_last_modified_time " +
+            "FROM `%1$s.%2$s.INFORMATION_SCHEMA.TABLE_STORAGE` " +
+            "WHERE table_schema = '%3$s' AND NOT deleted) s ON s.table_name = t.table_name " +
+            "WHERE t.creation_time >= TIMESTAMP_MILLIS(%4$d) " +
+            "OR s.storage_last_modified_time >= TIMESTAMP_MILLIS(%4$d) " +
+            "ORDER BY t.table_name",
+            projectId, regionQualifier, checkDatasetId(datasetId), sinceMillis);
+    }
+
+    /**
+     * Table count and XOR of name fingerprints per bucket (columns: bucket, tables, hash)
+     */
+    static String bucketSummarySql(String projectId, String datasetId) {
+        return String.format(
+            "SELECT FARM_FINGERPRINT(table_name) & %3$d AS bucket, COUNT(*) AS tables, " +
+            "BIT_XOR(FARM_FINGERPRINT(table_name)) AS hash " +
+            "FROM `%1$s.%2$s.INFORMATION_SCHEMA.TABLES` GROUP BY bucket",
+            projectId, checkDatasetId(datasetId), BUCKETS - 1);
+    }
+
+    /**
+     * Every table in the given buckets (columns: table_name, table_type, creation_time)
+     */
+    static String bucketTablesSql(String projectId, String datasetId, Collection<Integer> buckets) {
+        return String.format(
+            "SELECT table_name, table_type, creation_time " +
+            "FROM `%1$s.%2$s.INFORMATION_SCHEMA.TABLES` " +
+            "WHERE FARM_FINGERPRINT(table_name) & %3$d IN (%4$s) " +
+            "ORDER BY table_name",
+            projectId, checkDatasetId(datasetId), BUCKETS - 1,
+            buckets.stream().map(String::valueOf).collect(Collectors.joining(", ")));
+    }
+
+    /**
+     * "region-us" style qualifier for project-wide INFORMATION_SCHEMA views
+     */
+    static String regionQualifier(String region) {
+        String normalized = region.trim().toLowerCase(Locale.ROOT);
+        if (normalized.startsWith("region-")) {
+            normalized = normalized.substring("region-".length());
+        }
+        if (!normalized.matches("[a-z0-9-]+")) {
+            throw new IllegalArgumentException("Invalid bigquery.region: " + region);
+        }
+        return "region-" + normalized;
+    }
+
+    /**
+     * The dataset id goes into backticks and a string literal of the SQL above, so only the
+     * characters BigQuery allows in dataset names (letters, digits, underscores) are accepted
+     */
+    static String checkDatasetId(String datasetId) {
+        if (datasetId == null || !datasetId.matches("[A-Za-z0-9_]+")) {
+            throw new IllegalArgumentException("Invalid dataset id: " + datasetId);
+        }
+        return datasetId;
+    }
+
+    /**
+     * INFORMATION_SCHEMA.TABLES table_type as tables.list reports it, so rows merged from the
+     * queries above match a full listing: "BASE TABLE" and "CLONE" → "TABLE",
+     * "MATERIALIZED VIEW" → "MATERIALIZED_VIEW"
+     */
+    static String tableType(String informationSchemaType) {
+        if (informationSchemaType == null) {
+            return null;
+        }
+        if ("BASE TABLE".equals(informationSchemaType) || "CLONE".equals(informationSchemaType)) {
+            return "TABLE";
+        }
+        return informationSchemaType.replace(' ', '_');
+    }
+
+    // ------------------------------------------------------------------ merging
+
+    /**
+     * Merge a table from the delta query: new tables are added, known ones replaced
+     * (keeping listing-only attributes the delta query does not return)
+     */
+    void upsert(Table table) {
+        Table previous = tables.put(table.getTableId(), table);
+        if (previous == null) {
+            added++;
+        } else {
+            if (table.getFriendlyName() == null) {
+                table.setFriendlyName(previous.getFriendlyName());
+            }
+            if (table.getDescription() == null) {
+                table.setDescription(previous.getDescription());
+            }
+            if (table.getNumRows() == null) {
+                table.setNumRows(previous.getNumRows());
+            }
+            modified++;
+        }
+        changedTableIds.add(table.getTableId());
+    }
+
+    /**
+     * Buckets whose count or hash differs from the remote summary
+     *
+     * @param remote bucket → {table count, XOR of fingerprints}; buckets without tables are absent
+     */
+    List<Integer> mismatchedBuckets(Map<Integer, long[]> remote) {
+        long[] counts = new long[BUCKETS];
+        long[] hashes = new long[BUCKETS];
+        for (String tableId : tables.keySet()) {
+            long fingerprint = fingerprint(tableId);
+            int bucket = (int) (fingerprint & (BUCKETS - 1));
+            counts[bucket]++;
+            hashes[bucket] ^= fingerprint;
+        }
+        List<Integer> mismatched = new ArrayList<>();
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            long[] summary = remote.getOrDefault(bucket, new long[] {0, 0});
+            if (summary[0] != counts[bucket] || summary[1] != hashes[bucket]) {
+                mismatched.add(bucket);
+            }
+        }
+        return mismatched;
+    }
+
+    /**
+     * Replace the tables of the given buckets with the remote ones: tables missing remotely
+     * are deleted, remote tables missing locally are added
+     */
+    void replaceBuckets(Collection<Integer> buckets, List<Table> remoteTables) {
+        Set<Integer> replaced = new HashSet<>(buckets);
+        reconciledBuckets += replaced.size();
+        Set<String> remoteIds = new TreeSet<>();
+        for (Table table : remoteTables) {
+            remoteIds.add(table.getTableId());
+            if (!tables.containsKey(table.getTableId())) {
+                tables.put(table.getTableId(), table);
+                changedTableIds.add(table.getTableId());
+                added++;
+            }
+        }
+        tables.keySet().removeIf(tableId -> {
+            if (replaced.contains(bucket(tableId)) && !remoteIds.contains(tableId)) {
+                changedTableIds.add(tableId);
+                deleted++;
+                return true;
+            }
+            return false;
+        });
+    }
+
+    /**
+     * The merged listing, ordered by table name
+     */
+    List<Table> toList() {
+        return new ArrayList<>(tables.values());
+    }
+
+    /**
+     * Tables added, modified or deleted by this refresh (their cached schemas are stale)
+     */
+    Set<String> getChangedTableIds() {
+        return changedTableIds;
+    }
+
+    long getSinceMillis() {
+        return sinceMillis;
+    }
+
+    TableRefreshResult toResult(String datasetId, long durationMs) {
+        return new TableRefreshResult(datasetId, true, sinceMillis, added, modified, deleted,
+            tables.size(), reconciledBuckets, durationMs);
+    }
+
+    int getAdded() {
+        return added;
+    }
+
+    int getModified() {
+        return modified;
+    }
+
+    int getDeleted() {
+        return deleted;
+    }
+
+    static long fingerprint(String tableId) {
+        return FINGERPRINT.hashString(tableId, StandardCharsets.UTF_8).asLong();
+    }
+
+    static int bucket(String tableId) {
+        return (int) (fingerprint(tableId) & (BUCKETS - 1));
+    }
+}
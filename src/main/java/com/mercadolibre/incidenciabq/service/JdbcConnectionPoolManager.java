@@ -0,0 +1,261 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Manages pooled JDBC connections to BigQuery (SIMBA driver)
+ *
+ * One HikariCP pool is kept per resolved service account key path, so the
+ * default credentials and every session-specific key
+ * (./session-credentials/service-account-&lt;id&gt;.json) get their own pool.
+ * Connections are reused across requests instead of paying the OAuth
+ * handshake and Simba session setup on every call.
+ *
+ * Pools that have not been used for a while are closed by a periodic sweep
+ * (the default pool is kept alive).
+ *
+ * There is no single JDBC DataSource bean: these per-key pools are the only ones,
+ * configured with the bigquery.jdbc.pool.* properties.
+ */
+@Component
+public class JdbcConnectionPoolManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcConnectionPoolManager.class);
+    private static final String DRIVER_CLASS = "com.simba.googlebigquery.jdbc.Driver";
+
+    @Value("${bigquery.service.account.key.path}")
+    private String defaultKeyPath;
+
+    @Value("${bigquery.jdbc.pool.min-idle:1}")
+    private int minIdle;
+
+    @Value("${bigquery.jdbc.pool.max-size:5}")
+    private int maxSize;
+
+    @Value("${bigquery.jdbc.pool.idle-timeout-ms:300000}")
+    private long idleTimeoutMs;
+
+    @Value("${bigquery.jdbc.pool.max-lifetime-ms:1800000}")
+    private long maxLifetimeMs;
+
+    @Value("${bigquery.jdbc.pool.connection-timeout-ms:30000}")
+    private long connectionTimeoutMs;
+
+    @Value("${bigquery.jdbc.pool.validation-timeout-ms:5000}")
+    private long validationTimeoutMs;
+
+    @Value("${bigquery.jdbc.pool.connection-test-query:}")
+    private String connectionTestQuery;
+
+    @Value("${bigquery.jdbc.pool.unused-pool-eviction-ms:900000}")
+    private long unusedPoolEvictionMs;
+
+    private final Map<String, ManagedPool> pools = new ConcurrentHashMap<>();
+    private final AtomicLong poolsCreated = new AtomicLong();
+    private final AtomicLong poolsEvicted = new AtomicLong();
+    private volatile boolean closed;
+
+    /**
+     * Borrow a connection from the pool for the given key path, creating the pool on first use.
+     * The returned connection must be closed to give it back to the pool.
+     */
+    public Connection getConnection(String keyPath, String jdbcUrl) throws SQLException {
+        while (true) {
+            // Touched under the map's lock, so the sweep never picks a pool that is being borrowed from
+            ManagedPool pool = pools.compute(keyPath, (path, existing) -> {
+                if (existing == null && closed) {
+                    return null;
+                }
+                ManagedPool resolved = existing != null ? existing : createPool(path, jdbcUrl);
+                resolved.lastUsed = System.currentTimeMillis();
+                return resolved;
+            });
+            if (pool == null) {
+                throw new SQLException("JDBC connection pools are shut down");
+            }
+            pool.borrowed.incrementAndGet();
+            try {
+                return pool.dataSource.getConnection();
+            } catch (SQLException e) {
+                // evictPool() closed it in between (the key changed): borrow from its replacement
+                if (!pool.dataSource.isClosed()) {
+                    throw e;
+                }
+                logger.debug("[JDBC] Pool '{}' was closed while borrowing, retrying", pool.dataSource.getPoolName());
+            }
+        }
+    }
+
+    /**
+     * Close and forget the pool for a key path (e.g. when the key file behind it changed)
+     */
+    public void evictPool(String keyPath) {
+        ManagedPool pool = pools.remove(keyPath);
+        if (pool != null) {
+            closePool(pool, "evicted");
+        }
+    }
+
+    /**
+     * A session uploaded or cleared its key: connections authenticated with the old key must go
+     */
+    @EventListener
+    public void onSessionCredentialsChanged(SessionCredentialsChangedEvent event) {
+        evictPool(event.getCredentialsPath());
+    }
+
+    /**
+     * Periodically close pools that have not been used recently.
+     * The default-credentials pool is never closed by the sweep.
+     */
+    @Scheduled(fixedDelayString = "${bigquery.jdbc.pool.sweep-interval-ms:60000}")
+    public void evictUnusedPools() {
+        long now = System.currentTimeMillis();
+        for (String keyPath : pools.keySet()) {
+            if (keyPath.equals(defaultKeyPath)) {
+                continue;
+            }
+            ManagedPool[] removed = new ManagedPool[1];
+            // Checked and removed under the same lock getConnection() touches lastUsed with
+            pools.computeIfPresent(keyPath, (path, pool) -> {
+                if (now - pool.lastUsed > unusedPoolEvictionMs && activeConnections(pool) == 0) {
+                    removed[0] = pool;
+                    return null;
+                }
+                return pool;
+            });
+            if (removed[0] != null) {
+                closePool(removed[0], "unused for " + (now - removed[0].lastUsed) + " ms");
+            }
+        }
+    }
+
+    /**
+     * Pool metrics for every live pool plus lifetime counters
+     */
+    public Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("livePools", pools.size());
+        stats.put("poolsCreated", poolsCreated.get());
+        stats.put("poolsEvicted", poolsEvicted.get());
+        stats.put("minIdle", minIdle);
+        stats.put("maxSize", maxSize);
+
+        Map<String, Object> perPool = new LinkedHashMap<>();
+        pools.forEach((keyPath, pool) -> {
+            Map<String, Object> poolStats = new LinkedHashMap<>();
+            HikariPoolMXBean mxBean = pool.dataSource.getHikariPoolMXBean();
+            if (mxBean != null) {
+                poolStats.put("activeConnections", mxBean.getActiveConnections());
+                poolStats.put("idleConnections", mxBean.getIdleConnections());
+                poolStats.put("totalConnections", mxBean.getTotalConnections());
+                poolStats.put("threadsAwaitingConnection", mxBean.getThreadsAwaitingConnection());
+            }
+            poolStats.put("borrowed", pool.borrowed.get());
+            poolStats.put("createdAt", pool.createdAt);
+            poolStats.put("lastUsed", pool.lastUsed);
+            perPool.put(pool.dataSource.getPoolName(), poolStats);
+        });
+        stats.put("pools", perPool);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        closed = true;
+        logger.info("[JDBC] Closing {} connection pool(s)", pools.size());
+        // Out of the map before closing: a borrow that fails on a closed pool retries, and must not
+        // find that pool again (nor, with closed set, create a new one nobody would close)
+        for (String keyPath : pools.keySet()) {
+            ManagedPool pool = pools.remove(keyPath);
+            if (pool != null) {
+                pool.dataSource.close();
+            }
+        }
+    }
+
+    private ManagedPool createPool(String keyPath, String jdbcUrl) {
+        String poolName = poolName(keyPath);
+        logger.info("[JDBC] Creating connection pool '{}' (min idle: {}, max size: {})", poolName, minIdle, maxSize);
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setPoolName(poolName);
+        hikariConfig.setDriverClassName(DRIVER_CLASS);
+        hikariConfig.setJdbcUrl(jdbcUrl);
+        hikariConfig.setMinimumIdle(minIdle);
+        hikariConfig.setMaximumPoolSize(maxSize);
+        hikariConfig.setIdleTimeout(idleTimeoutMs);
+        hikariConfig.setMaxLifetime(maxLifetimeMs);
+        hikariConfig.setConnectionTimeout(connectionTimeoutMs);
+        hikariConfig.setValidationTimeout(validationTimeoutMs);
+        if (connectionTestQuery != null && !connectionTestQuery.isBlank()) {
+            hikariConfig.setConnectionTestQuery(connectionTestQuery);
+        }
+        // Don't open a connection while building the pool; the first borrow does that
+        hikariConfig.setInitializationFailTimeout(-1);
+
+        poolsCreated.incrementAndGet();
+        return new ManagedPool(new HikariDataSource(hikariConfig));
+    }
+
+    private void closePool(ManagedPool pool, String reason) {
+        logger.info("[JDBC] Closing connection pool '{}' ({})", pool.dataSource.getPoolName(), reason);
+        poolsEvicted.incrementAndGet();
+        pool.dataSource.close();
+    }
+
+    private int activeConnections(ManagedPool pool) {
+        HikariPoolMXBean mxBean = pool.dataSource.getHikariPoolMXBean();
+        return mxBean != null ? mxBean.getActiveConnections() : 0;
+    }
+
+    /**
+     * Pool names end up in logs and stats, so never expose the full key path. Session pools are
+     * named after a hash of the whole session id: stats are keyed by pool name, and a prefix of
+     * the id alone would let sessions sharing it overwrite each other there.
+     */
+    private String poolName(String keyPath) {
+        if (keyPath.equals(defaultKeyPath)) {
+            return "bq-jdbc-default";
+        }
+        String fileName = keyPath.substring(keyPath.lastIndexOf('/') + 1).replace(".json", "");
+        String credentialsId = fileName.replace("service-account-", "");
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(credentialsId.getBytes(StandardCharsets.UTF_8));
+            return "bq-jdbc-session-" + HexFormat.of().formatHex(digest, 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static class ManagedPool {
+        private final HikariDataSource dataSource;
+        private final long createdAt = System.currentTimeMillis();
+        private final AtomicLong borrowed = new AtomicLong();
+        private volatile long lastUsed = createdAt;
+
+        private ManagedPool(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+    }
+}
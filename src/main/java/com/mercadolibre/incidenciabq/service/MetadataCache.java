@@ -0,0 +1,826 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.mercadolibre.incidenciabq.model.Dataset;
+import com.mercadolibre.incidenciabq.model.Field;
+import com.mercadolibre.incidenciabq.model.Table;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Shared cache for dataset lists, table lists and table schemas of both backends
+ *
+ * - Each entry type has its own TTL (bigquery.cache.ttl.*)
+ * - The cache is bounded by an estimate of the heap its entries occupy
+ *   (bigquery.cache.max-weight-mb), not by entry count: one 30k-table listing
+ *   weighs as much as thousands of schemas
+ * - Hit/miss/load/eviction counters are kept per entry type
+ * - Concurrent misses for the same key share one load (SingleFlight); the others are counted as coalesced
+ * - Invalidation wins over loads and refreshes running at the time: their results are not cached,
+ *   and later requests do not join a load that started before the invalidation
+ * - Misses fall back to the persisted catalog snapshot (CatalogSnapshotStore): a snapshot entry
+ *   is served right away and reloaded from BigQuery in the background. The cache is written
+ *   back to the snapshot periodically and on shutdown.
+ * - Stale-while-revalidate: an entry older than its TTL is kept for bigquery.cache.stale-seconds
+ *   more; a request for it gets the stale value immediately and triggers a background refresh
+ * - Refresh-ahead: entries that keep being requested are refreshed before their TTL runs out,
+ *   so hot datasets and schemas never go stale. Background refreshes run on a small bounded
+ *   pool (bigquery.cache.refresh.threads); when its queue is full they are skipped, not queued.
+ * - Table listings and schemas are stored compacted (CompactTableList, CompactFieldList: columns
+ *   with dictionary-encoded ids, types and modes) and turned back into DTOs as they are read
+ *   (bigquery.cache.compact)
+ * - The counters are also exported to Micrometer (metadata.cache.*, tagged by entry type)
+ */
+@Component
+@Slf4j
+public class MetadataCache implements MeterBinder {
+
+    private final Cache<MetadataCacheKey, CachedMetadata> cache;
+    private final Map<MetadataCacheKey.Type, Long> ttlSeconds = new EnumMap<>(MetadataCacheKey.Type.class);
+    private final Map<MetadataCacheKey.Type, TypeStats> stats = new EnumMap<>(MetadataCacheKey.Type.class);
+    private final long maxWeightBytes;
+    private final CatalogSnapshotStore snapshotStore;
+    private final ThreadPoolExecutor refreshExecutor;
+
+    private final long staleSeconds;
+    private final double refreshAheadRatio;
+    private final boolean compact;
+    private final long hotMinHits;
+
+    /** Keys being refreshed in the background, so each is refreshed only once at a time */
+    private final Set<MetadataCacheKey> refreshing = ConcurrentHashMap.newKeySet();
+
+    /** Loads in progress, shared by concurrent requests for the same key */
+    private final SingleFlight<MetadataCacheKey, Object> inFlight = new SingleFlight<>();
+
+    /** Loads and background refreshes running now; invalidation marks the ones it overtakes */
+    private final Set<PendingLoad> pending = ConcurrentHashMap.newKeySet();
+
+    /** How each cached key is reloaded, and its access/refresh history */
+    private final Map<MetadataCacheKey, EntryActivity> activity = new ConcurrentHashMap<>();
+
+    /** Set when the cache changed since the last snapshot write */
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public MetadataCache(CatalogSnapshotStore snapshotStore, WorkerThreads workerThreads,
+                         @Value("${bigquery.cache.max-weight-mb:64}") long maxWeightMb,
+                         @Value("${bigquery.cache.ttl.datasets-seconds:300}") long datasetsTtl,
+                         @Value("${bigquery.cache.ttl.tables-seconds:600}") long tablesTtl,
+                         @Value("${bigquery.cache.ttl.schema-seconds:1800}") long schemaTtl,
+                         @Value("${bigquery.cache.stale-seconds:3600}") long staleSeconds,
+                         @Value("${bigquery.cache.refresh.threads:4}") int refreshThreads,
+                         @Value("${bigquery.cache.refresh.queue-size:256}") int refreshQueueSize,
+                         @Value("${bigquery.cache.refresh.ahead-ratio:0.8}") double refreshAheadRatio,
+                         @Value("${bigquery.cache.refresh.hot-min-hits:2}") long hotMinHits,
+                         @Value("${bigquery.cache.compact:true}") boolean compact) {
+        this.snapshotStore = snapshotStore;
+        this.maxWeightBytes = maxWeightMb * 1024 * 1024;
+        this.staleSeconds = staleSeconds;
+        this.refreshAheadRatio = refreshAheadRatio;
+        this.hotMinHits = hotMinHits;
+        this.compact = compact;
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(refreshQueueSize), workerThreads.factory("metadata-refresh-"));
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+        ttlSeconds.put(MetadataCacheKey.Type.DATASETS, datasetsTtl);
+        ttlSeconds.put(MetadataCacheKey.Type.TABLES, tablesTtl);
+        ttlSeconds.put(MetadataCacheKey.Type.SCHEMA, schemaTtl);
+        for (MetadataCacheKey.Type type : MetadataCacheKey.Type.values()) {
+            stats.put(type, new TypeStats());
+        }
+
+        this.cache = Caffeine.newBuilder()
+            .maximumWeight(maxWeightBytes)
+            .weigher((MetadataCacheKey key, CachedMetadata entry) -> entry.getWeightBytes())
+            .expireAfter(new Expiry<MetadataCacheKey, CachedMetadata>() {
+                @Override
+                public long expireAfterCreate(MetadataCacheKey key, CachedMetadata entry, long currentTime) {
+                    return TimeUnit.SECONDS.toNanos(ttlSeconds.get(key.getType()) + staleSeconds);
+                }
+
+                @Override
+                public long expireAfterUpdate(MetadataCacheKey key, CachedMetadata entry, long currentTime, long currentDuration) {
+                    return TimeUnit.SECONDS.toNanos(ttlSeconds.get(key.getType()) + staleSeconds);
+                }
+
+                @Override
+                public long expireAfterRead(MetadataCacheKey key, CachedMetadata entry, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .removalListener((MetadataCacheKey key, CachedMetadata entry, RemovalCause cause) -> onRemoval(key, cause))
+            .build();
+    }
+
+    /**
+     * Return the cached value for the key, or run the loader and cache its result.
+     * Loader failures are not cached.
+     *
+     * Stale entries and snapshot entries are returned as they are while the loader runs in the
+     * background, and hot entries are reloaded ahead of expiry, so the loader must not depend
+     * on the current request (capture a CredentialContext instead of using the request-scoped provider).
+     */
+    public <T> T get(MetadataCacheKey key, Supplier<T> loader) {
+        return get(key, loader, null);
+    }
+
+    /**
+     * Like get(key, loader), with a cheaper way to bring an existing entry up to date
+     * (e.g. an incremental table listing refresh) used for background refreshes.
+     * If the refresher fails, the background refresh falls back to the loader.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(MetadataCacheKey key, Supplier<T> loader, Function<CachedMetadata, T> refresher) {
+        TypeStats typeStats = stats.get(key.getType());
+        EntryActivity entryActivity = activity.computeIfAbsent(key, k -> new EntryActivity());
+        entryActivity.accessed(loader, refresher);
+
+        CachedMetadata cached = cache.getIfPresent(key);
+        if (cached != null) {
+            typeStats.hits.incrementAndGet();
+            if (isStale(key, cached)) {
+                typeStats.staleServes.incrementAndGet();
+                log.info("[CACHE] STALE {} (age {} s) - serving it and refreshing in the background",
+                    key, ageSeconds(cached));
+                refreshInBackground(key);
+            } else {
+                log.debug("[CACHE] HIT {}", key);
+            }
+            return (T) cached.getValue();
+        }
+
+        typeStats.misses.incrementAndGet();
+        CachedMetadata persisted = fromSnapshot(key);
+        if (persisted != null) {
+            refreshInBackground(key);
+            return (T) persisted.getValue();
+        }
+
+        log.info("[CACHE] MISS {} - loading from BigQuery", key);
+        try {
+            return load(key, loader);
+        } catch (RuntimeException e) {
+            if (!cache.asMap().containsKey(key)) {
+                activity.remove(key);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Return the cached value for the key (or its catalog snapshot value), or null without loading anything
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(MetadataCacheKey key) {
+        CachedMetadata cached = cache.getIfPresent(key);
+        if (cached == null) {
+            stats.get(key.getType()).misses.incrementAndGet();
+            // Served but not cached: without a loader it could not be refreshed
+            CachedMetadata persisted = snapshotStore.lookup(key);
+            if (persisted == null) {
+                return null;
+            }
+            stats.get(key.getType()).snapshotHits.incrementAndGet();
+            return (T) immutable(persisted.getValue());
+        }
+        stats.get(key.getType()).hits.incrementAndGet();
+        log.debug("[CACHE] HIT {}", key);
+        return (T) cached.getValue();
+    }
+
+    /**
+     * Wait for a load of the key that is already in flight (started by get from another request)
+     *
+     * @return the loaded value, or null if the key is not being loaded
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T awaitInFlight(MetadataCacheKey key) {
+        T value = (T) inFlight.awaitIfInFlight(key);
+        if (value != null) {
+            stats.get(key.getType()).coalesced.incrementAndGet();
+            log.info("[CACHE] COALESCED {} - served from the load already in flight", key);
+        }
+        return value;
+    }
+
+    /**
+     * The cached (or persisted) entry for the key with its load time, without counting a lookup
+     * or loading anything (used by incremental refreshes, which start from the existing value)
+     */
+    public CachedMetadata getEntry(MetadataCacheKey key) {
+        CachedMetadata cached = cache.getIfPresent(key);
+        return cached != null ? cached : snapshotStore.lookup(key);
+    }
+
+    /**
+     * Store a value loaded elsewhere (e.g. a bulk query that produced many entries at once)
+     */
+    public <T> void put(MetadataCacheKey key, T value) {
+        Object stored = compact(key, value);
+        cache.put(key, new CachedMetadata(stored, estimateBytes(stored)));
+        dirty.set(true);
+    }
+
+    public void invalidateAll() {
+        log.info("[CACHE] Invalidating all {} entries", cache.estimatedSize());
+        pending.forEach(load -> load.invalidated = true);
+        inFlight.forget(key -> true);
+        cache.invalidateAll();
+        snapshotStore.clearAll();
+        dirty.set(false);
+    }
+
+    /**
+     * Drop the table list and all schemas of a dataset (every backend and identity),
+     * plus dataset lists since the dataset may have been added or removed
+     */
+    public int invalidateDataset(String datasetId) {
+        return invalidateMatching(key -> key.getType() == MetadataCacheKey.Type.DATASETS
+            || datasetId.equals(key.getDatasetId()));
+    }
+
+    /**
+     * Drop the schema of a single table (every backend and identity)
+     */
+    public int invalidateTable(String datasetId, String tableId) {
+        return invalidateMatching(key -> key.getType() == MetadataCacheKey.Type.SCHEMA
+            && datasetId.equals(key.getDatasetId())
+            && tableId.equals(key.getTableId()));
+    }
+
+    /**
+     * Drop the schemas of several tables of a dataset (every backend and identity)
+     */
+    public int invalidateTables(String datasetId, Set<String> tableIds) {
+        if (tableIds.isEmpty()) {
+            return 0;
+        }
+        return invalidateMatching(key -> key.getType() == MetadataCacheKey.Type.SCHEMA
+            && datasetId.equals(key.getDatasetId())
+            && tableIds.contains(key.getTableId()));
+    }
+
+    /**
+     * Write the cache to the catalog snapshots (one per identity) if it changed since the last write
+     */
+    @Scheduled(initialDelayString = "${bigquery.catalog.snapshot.flush-interval-ms:300000}",
+               fixedDelayString = "${bigquery.catalog.snapshot.flush-interval-ms:300000}")
+    public void flushSnapshot() {
+        if (!snapshotStore.isEnabled() || !dirty.getAndSet(false)) {
+            return;
+        }
+        Map<String, Map<MetadataCacheKey, CachedMetadata>> byIdentity = new HashMap<>();
+        cache.asMap().forEach((key, entry) ->
+            byIdentity.computeIfAbsent(key.getIdentity(), identity -> new LinkedHashMap<>()).put(key, entry));
+        byIdentity.forEach((identity, entries) -> snapshotStore.write(identity, entries, key -> false));
+    }
+
+    /**
+     * Refresh-ahead: reload entries that were requested at least hot-min-hits times since their
+     * last load (and recently) once they reach ahead-ratio of their TTL, before anyone sees them stale
+     */
+    @Scheduled(initialDelayString = "${bigquery.cache.refresh.sweep-interval-ms:30000}",
+               fixedDelayString = "${bigquery.cache.refresh.sweep-interval-ms:30000}")
+    public void refreshAhead() {
+        long now = System.currentTimeMillis();
+        int scheduled = 0;
+        for (Map.Entry<MetadataCacheKey, CachedMetadata> entry : cache.asMap().entrySet()) {
+            MetadataCacheKey key = entry.getKey();
+            EntryActivity entryActivity = activity.get(key);
+            if (entryActivity == null || entryActivity.loader == null || refreshing.contains(key)) {
+                continue;
+            }
+            long ttlMs = TimeUnit.SECONDS.toMillis(ttlSeconds.get(key.getType()));
+            boolean hot = entryActivity.accesses.get() - entryActivity.accessesAtLastLoad >= hotMinHits
+                && now - entryActivity.lastAccess <= ttlMs;
+            if (hot && now - entry.getValue().getLoadedAt() >= ttlMs * refreshAheadRatio) {
+                stats.get(key.getType()).aheadRefreshes.incrementAndGet();
+                refreshInBackground(key);
+                scheduled++;
+            }
+        }
+        if (scheduled > 0) {
+            log.info("[CACHE] Refresh-ahead: {} hot entries scheduled ({} queued)", scheduled, refreshExecutor.getQueue().size());
+        }
+    }
+
+    /**
+     * Freshness of every cached entry (optionally of one type and/or dataset), oldest first
+     */
+    public List<Map<String, Object>> getEntries(MetadataCacheKey.Type type, String datasetId, int limit) {
+        long now = System.currentTimeMillis();
+        List<Map.Entry<MetadataCacheKey, CachedMetadata>> entries = new ArrayList<>();
+        cache.asMap().forEach((key, entry) -> {
+            if ((type == null || key.getType() == type) && (datasetId == null || datasetId.equals(key.getDatasetId()))) {
+                entries.add(Map.entry(key, entry));
+            }
+        });
+        entries.sort(Comparator.comparingLong(e -> e.getValue().getLoadedAt()));
+
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map.Entry<MetadataCacheKey, CachedMetadata> e : entries.subList(0, Math.min(limit, entries.size()))) {
+            MetadataCacheKey key = e.getKey();
+            CachedMetadata entry = e.getValue();
+            EntryActivity entryActivity = activity.get(key);
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("key", key.toString());
+            item.put("type", key.getType().name());
+            item.put("backend", key.getBackend());
+            item.put("datasetId", key.getDatasetId());
+            item.put("tableId", key.getTableId());
+            item.put("lastSuccess", entry.getLoadedAt());
+            item.put("ageSeconds", (now - entry.getLoadedAt()) / 1000);
+            item.put("ttlSeconds", ttlSeconds.get(key.getType()));
+            item.put("stale", isStale(key, entry));
+            item.put("fromSnapshot", entry.isFromSnapshot());
+            item.put("weightBytes", entry.getWeightBytes());
+            item.put("refreshing", refreshing.contains(key));
+            item.put("refreshable", entryActivity != null && entryActivity.loader != null);
+            if (entryActivity != null) {
+                item.put("accesses", entryActivity.accesses.get());
+                item.put("lastAccess", entryActivity.lastAccess);
+                item.put("lastRefreshAttempt", entryActivity.lastRefreshAttempt > 0 ? entryActivity.lastRefreshAttempt : null);
+                item.put("lastRefreshError", entryActivity.lastRefreshError);
+            }
+            result.add(item);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+        flushSnapshot();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("metadata.cache.entries", cache, Cache::estimatedSize)
+            .description("Cached dataset lists, table lists and schemas").register(registry);
+        Gauge.builder("metadata.cache.weight", this, MetadataCache::currentWeightBytes)
+            .baseUnit("bytes").description("Estimated heap held by cached entries").register(registry);
+        Gauge.builder("metadata.cache.loads.in.flight", inFlight, SingleFlight::getInFlight)
+            .description("Loads running now (concurrent requests for the same key share one)").register(registry);
+        FunctionCounter.builder("metadata.cache.loads.executed", inFlight, SingleFlight::getExecutions)
+            .description("Loads that actually called BigQuery").register(registry);
+        FunctionCounter.builder("metadata.cache.loads.suppressed", inFlight, SingleFlight::getSuppressed)
+            .description("Requests that joined a load already in flight").register(registry);
+        stats.forEach((type, typeStats) -> {
+            Tags tags = Tags.of("type", type.name());
+            counter(registry, "metadata.cache.requests", tags.and("result", "hit"), typeStats.hits);
+            counter(registry, "metadata.cache.requests", tags.and("result", "miss"), typeStats.misses);
+            counter(registry, "metadata.cache.loads", tags.and("outcome", MetadataMetrics.SUCCESS), typeStats.loads);
+            counter(registry, "metadata.cache.loads", tags.and("outcome", MetadataMetrics.ERROR), typeStats.loadFailures);
+            counter(registry, "metadata.cache.coalesced", tags, typeStats.coalesced);
+            counter(registry, "metadata.cache.evictions", tags.and("cause", "size"), typeStats.evictions);
+            counter(registry, "metadata.cache.evictions", tags.and("cause", "expired"), typeStats.expirations);
+            counter(registry, "metadata.cache.evictions", tags.and("cause", "invalidated"), typeStats.invalidations);
+            counter(registry, "metadata.cache.snapshot.hits", tags, typeStats.snapshotHits);
+            counter(registry, "metadata.cache.stale.serves", tags, typeStats.staleServes);
+            counter(registry, "metadata.cache.refreshes", tags.and("trigger", "stale"), typeStats.backgroundRefreshes);
+            counter(registry, "metadata.cache.refreshes", tags.and("trigger", "ahead"), typeStats.aheadRefreshes);
+            counter(registry, "metadata.cache.refresh.failures", tags, typeStats.refreshFailures);
+            counter(registry, "metadata.cache.refresh.skipped", tags, typeStats.refreshesSkipped);
+        });
+        new ExecutorServiceMetrics(refreshExecutor, "metadata-refresh", Tags.empty()).bindTo(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String name, Tags tags, AtomicLong value) {
+        FunctionCounter.builder(name, value, AtomicLong::get).tags(tags).register(registry);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("entries", cache.estimatedSize());
+        result.put("weightBytes", currentWeightBytes());
+        result.put("maxWeightBytes", maxWeightBytes);
+        result.put("staleSeconds", staleSeconds);
+        result.put("backgroundRefreshesPending", refreshing.size());
+        result.put("refreshQueue", refreshExecutor.getQueue().size());
+        result.put("loadsInFlight", inFlight.getInFlight());
+        result.put("loadsExecuted", inFlight.getExecutions());
+        result.put("duplicateLoadsSuppressed", inFlight.getSuppressed());
+
+        Map<String, Object> perType = new LinkedHashMap<>();
+        stats.forEach((type, typeStats) -> {
+            Map<String, Object> typeResult = new LinkedHashMap<>();
+            typeResult.put("ttlSeconds", ttlSeconds.get(type));
+            typeResult.put("hits", typeStats.hits.get());
+            typeResult.put("misses", typeStats.misses.get());
+            long lookups = typeStats.hits.get() + typeStats.misses.get();
+            typeResult.put("hitRate", lookups == 0 ? 0.0 : (double) typeStats.hits.get() / lookups);
+            typeResult.put("loads", typeStats.loads.get());
+            typeResult.put("loadFailures", typeStats.loadFailures.get());
+            typeResult.put("coalesced", typeStats.coalesced.get());
+            typeResult.put("averageLoadMs", typeStats.loads.get() == 0 ? 0.0
+                : typeStats.loadNanos.get() / 1_000_000.0 / typeStats.loads.get());
+            typeResult.put("evictions", typeStats.evictions.get());
+            typeResult.put("expirations", typeStats.expirations.get());
+            typeResult.put("invalidations", typeStats.invalidations.get());
+            typeResult.put("snapshotHits", typeStats.snapshotHits.get());
+            typeResult.put("staleServes", typeStats.staleServes.get());
+            typeResult.put("aheadRefreshes", typeStats.aheadRefreshes.get());
+            typeResult.put("backgroundRefreshes", typeStats.backgroundRefreshes.get());
+            typeResult.put("refreshFailures", typeStats.refreshFailures.get());
+            typeResult.put("refreshesSkipped", typeStats.refreshesSkipped.get());
+            perType.put(type.name(), typeResult);
+        });
+        result.put("types", perType);
+        result.put("snapshot", snapshotStore.getStats());
+        return result;
+    }
+
+    /**
+     * Run the loader, or join the load of the same key another request already started
+     * (same backend, identity, operation, dataset and table)
+     */
+    @SuppressWarnings("unchecked")
+    private <T> T load(MetadataCacheKey key, Supplier<T> loader) {
+        TypeStats typeStats = stats.get(key.getType());
+        boolean[] leader = {false};
+        T value = (T) inFlight.execute(key, () -> {
+            leader[0] = true;
+            PendingLoad pendingLoad = begin(key);
+            try {
+                long start = System.nanoTime();
+                T loaded;
+                try {
+                    loaded = loader.get();
+                } catch (RuntimeException e) {
+                    typeStats.loadFailures.incrementAndGet();
+                    throw e;
+                }
+                typeStats.loads.incrementAndGet();
+                typeStats.loadNanos.addAndGet(System.nanoTime() - start);
+                if (store(pendingLoad, loaded, false)) {
+                    EntryActivity entryActivity = activity.get(key);
+                    if (entryActivity != null) {
+                        entryActivity.loaded();
+                    }
+                } else {
+                    log.info("[CACHE] Not caching {}: invalidated while it was loading", key);
+                    if (!cache.asMap().containsKey(key)) {
+                        activity.remove(key);
+                    }
+                }
+                return loaded;
+            } finally {
+                pending.remove(pendingLoad);
+            }
+        });
+        if (!leader[0]) {
+            typeStats.coalesced.incrementAndGet();
+            log.info("[CACHE] COALESCED {} - joined the load already in flight", key);
+        }
+        return value;
+    }
+
+    private boolean isStale(MetadataCacheKey key, CachedMetadata entry) {
+        return System.currentTimeMillis() - entry.getLoadedAt() > TimeUnit.SECONDS.toMillis(ttlSeconds.get(key.getType()));
+    }
+
+    private static long ageSeconds(CachedMetadata entry) {
+        return (System.currentTimeMillis() - entry.getLoadedAt()) / 1000;
+    }
+
+    /**
+     * Look the key up in the catalog snapshot and, if found, cache the persisted value
+     * (keeping its original load time) so it keeps being served until it is refreshed
+     */
+    private CachedMetadata fromSnapshot(MetadataCacheKey key) {
+        CachedMetadata persisted = snapshotStore.lookup(key);
+        if (persisted == null) {
+            return null;
+        }
+        Object value = compact(key, persisted.getValue());
+        CachedMetadata entry = new CachedMetadata(value, estimateBytes(value), persisted.getLoadedAt(), true);
+        cache.asMap().putIfAbsent(key, entry);
+        stats.get(key.getType()).snapshotHits.incrementAndGet();
+        log.info("[CACHE] SNAPSHOT {} (loaded {} s ago)", key,
+            (System.currentTimeMillis() - persisted.getLoadedAt()) / 1000);
+        return entry;
+    }
+
+    /**
+     * Reload a key on the refresh pool (at most once at a time per key). If the reload fails
+     * the current value stays cached until it expires, so stale or snapshot data keeps being
+     * served while BigQuery is unreachable.
+     */
+    private void refreshInBackground(MetadataCacheKey key) {
+        EntryActivity entryActivity = activity.get(key);
+        if (entryActivity == null || entryActivity.loader == null || !refreshing.add(key)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh(key, entryActivity);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            stats.get(key.getType()).refreshesSkipped.incrementAndGet();
+            log.debug("[CACHE] Background refresh of {} skipped (queue full)", key);
+        }
+    }
+
+    private void refresh(MetadataCacheKey key, EntryActivity entryActivity) {
+        TypeStats typeStats = stats.get(key.getType());
+        entryActivity.lastRefreshAttempt = System.currentTimeMillis();
+        long start = System.currentTimeMillis();
+        PendingLoad pendingLoad = begin(key);
+        try {
+            CachedMetadata current = cache.getIfPresent(key);
+            if (current == null) {
+                log.debug("[CACHE] Background refresh of {} skipped: no longer cached", key);
+                return;
+            }
+            Object value = null;
+            if (entryActivity.refresher != null) {
+                try {
+                    value = entryActivity.refresher.apply(current);
+                } catch (RuntimeException e) {
+                    log.warn("[CACHE] Incremental refresh of {} failed, reloading it: {}", key, e.getMessage());
+                }
+            }
+            if (value == null) {
+                value = entryActivity.loader.get();
+            }
+            if (!store(pendingLoad, value, true)) {
+                log.info("[CACHE] Dropped background refresh of {}: invalidated or evicted while it ran", key);
+                return;
+            }
+            entryActivity.loaded();
+            entryActivity.lastRefreshError = null;
+            typeStats.backgroundRefreshes.incrementAndGet();
+            log.info("[CACHE] Refreshed {} in the background in {} ms", key, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            entryActivity.lastRefreshError = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+            typeStats.refreshFailures.incrementAndGet();
+            log.warn("[CACHE] Background refresh of {} failed, keeping cached value: {}", key, e.getMessage());
+        } finally {
+            pending.remove(pendingLoad);
+        }
+    }
+
+    private PendingLoad begin(MetadataCacheKey key) {
+        PendingLoad pendingLoad = new PendingLoad(key);
+        pending.add(pendingLoad);
+        return pendingLoad;
+    }
+
+    /**
+     * Cache the result of a load unless an invalidation of its key overtook it
+     *
+     * @param replaceOnly only replace an entry that is still cached (a background refresh must
+     *                    not bring back an entry that was evicted or invalidated meanwhile)
+     * @return whether the value was cached
+     */
+    private boolean store(PendingLoad pendingLoad, Object value, boolean replaceOnly) {
+        if (pendingLoad.invalidated) {
+            return false;
+        }
+        Object stored = compact(pendingLoad.key, value);
+        CachedMetadata entry = new CachedMetadata(stored, estimateBytes(stored));
+        boolean[] cached = {false};
+        BiFunction<MetadataCacheKey, CachedMetadata, CachedMetadata> update = (key, current) -> {
+            if (pendingLoad.invalidated) {
+                return current;
+            }
+            cached[0] = true;
+            return entry;
+        };
+        if (replaceOnly) {
+            cache.asMap().computeIfPresent(pendingLoad.key, update);
+        } else {
+            cache.asMap().compute(pendingLoad.key, update);
+        }
+        if (cached[0]) {
+            dirty.set(true);
+        }
+        return cached[0];
+    }
+
+    private int invalidateMatching(Predicate<MetadataCacheKey> predicate) {
+        // Mark running loads before removing entries: a load stores its result atomically with
+        // the check of this mark, so it is either skipped or stored in time to be removed below
+        pending.forEach(load -> {
+            if (predicate.test(load.key)) {
+                load.invalidated = true;
+            }
+        });
+        inFlight.forget(predicate);
+        int[] removed = {0};
+        cache.asMap().keySet().forEach(key -> {
+            if (predicate.test(key)) {
+                cache.invalidate(key);
+                removed[0]++;
+            }
+        });
+        snapshotStore.remove(predicate);
+        log.info("[CACHE] Invalidated {} entries", removed[0]);
+        return removed[0];
+    }
+
+    private long currentWeightBytes() {
+        return cache.policy().eviction()
+            .map(eviction -> eviction.weightedSize().orElse(0L))
+            .orElse(0L);
+    }
+
+    private void onRemoval(MetadataCacheKey key, RemovalCause cause) {
+        if (cause != RemovalCause.REPLACED && !cache.asMap().containsKey(key)) {
+            activity.remove(key);
+        }
+        TypeStats typeStats = stats.get(key.getType());
+        switch (cause) {
+            case SIZE:
+                typeStats.evictions.incrementAndGet();
+                log.info("[CACHE] Evicted {} (cache weight limit)", key);
+                break;
+            case EXPIRED:
+                typeStats.expirations.incrementAndGet();
+                break;
+            case EXPLICIT:
+                typeStats.invalidations.incrementAndGet();
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * The form a value is cached in: table listings and schemas as compact column lists,
+     * anything else as an unmodifiable view
+     */
+    @SuppressWarnings("unchecked")
+    private Object compact(MetadataCacheKey key, Object value) {
+        if (compact && value instanceof List && !((List<?>) value).isEmpty()) {
+            List<?> list = (List<?>) value;
+            if (key.getType() == MetadataCacheKey.Type.TABLES && allInstances(list, Table.class)) {
+                return CompactTableList.of((List<Table>) list);
+            }
+            if (key.getType() == MetadataCacheKey.Type.SCHEMA && allInstances(list, Field.class)) {
+                return CompactFieldList.of((List<Field>) list);
+            }
+        }
+        return immutable(value);
+    }
+
+    private static boolean allInstances(List<?> list, Class<?> type) {
+        for (Object item : list) {
+            if (!type.isInstance(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object immutable(Object value) {
+        if (value instanceof List) {
+            return Collections.unmodifiableList((List<?>) value);
+        }
+        return value;
+    }
+
+    /**
+     * Rough heap footprint of a cached value (object headers + fields + string contents)
+     */
+    static int estimateBytes(Object value) {
+        long bytes = 64;
+        if (value instanceof CompactTableList) {
+            bytes += ((CompactTableList) value).estimatedBytes();
+        } else if (value instanceof CompactFieldList) {
+            bytes += ((CompactFieldList) value).estimatedBytes();
+        } else if (value instanceof Collection) {
+            Collection<?> items = (Collection<?>) value;
+            bytes += 16L + 8L * items.size();
+            for (Object item : items) {
+                bytes += estimateItemBytes(item);
+            }
+        } else if (value instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                bytes += 48 + estimateItemBytes(entry.getKey()) + estimateBytes(entry.getValue());
+            }
+        } else {
+            bytes += estimateItemBytes(value);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static long estimateItemBytes(Object item) {
+        if (item instanceof Table) {
+            Table t = (Table) item;
+            return 48 + str(t.getTableId()) + str(t.getDatasetId()) + str(t.getProjectId())
+                + str(t.getFriendlyName()) + str(t.getDescription()) + str(t.getType())
+                + (t.getCreationTime() != null ? 16 : 0) + (t.getNumRows() != null ? 16 : 0);
+        }
+        if (item instanceof Field) {
+            Field f = (Field) item;
+            return 32 + str(f.getName()) + str(f.getType()) + str(f.getMode()) + str(f.getDescription());
+        }
+        if (item instanceof Dataset) {
+            Dataset d = (Dataset) item;
+            return 40 + str(d.getDatasetId()) + str(d.getProjectId()) + str(d.getFriendlyName())
+                + str(d.getDescription()) + str(d.getLocation()) + (d.getCreationTime() != null ? 16 : 0);
+        }
+        if (item instanceof String) {
+            return str((String) item);
+        }
+        return 64;
+    }
+
+    private static long str(String s) {
+        return s == null ? 0 : 40 + s.length();
+    }
+
+    private static class TypeStats {
+        private final AtomicLong hits = new AtomicLong();
+        private final AtomicLong misses = new AtomicLong();
+        private final AtomicLong loads = new AtomicLong();
+        private final AtomicLong loadFailures = new AtomicLong();
+        private final AtomicLong coalesced = new AtomicLong();
+        private final AtomicLong loadNanos = new AtomicLong();
+        private final AtomicLong evictions = new AtomicLong();
+        private final AtomicLong expirations = new AtomicLong();
+        private final AtomicLong invalidations = new AtomicLong();
+        private final AtomicLong snapshotHits = new AtomicLong();
+        private final AtomicLong staleServes = new AtomicLong();
+        private final AtomicLong aheadRefreshes = new AtomicLong();
+        private final AtomicLong backgroundRefreshes = new AtomicLong();
+        private final AtomicLong refreshFailures = new AtomicLong();
+        private final AtomicLong refreshesSkipped = new AtomicLong();
+    }
+
+    /**
+     * A load or background refresh of a key, marked when an invalidation of the key overtakes it
+     */
+    private static class PendingLoad {
+        private final MetadataCacheKey key;
+        private volatile boolean invalidated;
+
+        PendingLoad(MetadataCacheKey key) {
+            this.key = key;
+        }
+    }
+
+    /**
+     * How a key is reloaded (the latest loader/refresher passed to get) and its access/refresh history
+     */
+    private static class EntryActivity {
+        private volatile Supplier<?> loader;
+        private volatile Function<CachedMetadata, ?> refresher;
+        private final AtomicLong accesses = new AtomicLong();
+        private volatile long accessesAtLastLoad;
+        private volatile long lastAccess;
+        private volatile long lastRefreshAttempt;
+        private volatile String lastRefreshError;
+
+        void accessed(Supplier<?> loader, Function<CachedMetadata, ?> refresher) {
+            this.loader = loader;
+            this.refresher = refresher;
+            this.lastAccess = System.currentTimeMillis();
+            accesses.incrementAndGet();
+        }
+
+        void loaded() {
+            accessesAtLastLoad = accesses.get();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.mercadolibre.incidenciabq.service;
+
+import java.util.Objects;
+
+/**
+ * Key of a cached metadata result: which backend produced it, for which
+ * credential identity, and which operation/dataset/table it answers.
+ *
+ * The credential identity is part of the key because different service
+ * accounts may see different datasets and tables.
+ */
+public final class MetadataCacheKey {
+
+    public enum Type { DATASETS, TABLES, SCHEMA }
+
+    public static final String BACKEND_API = "api";
+    public static final String BACKEND_JDBC = "jdbc";
+
+    private final String backend;
+    private final String identity;
+    private final Type type;
+    private final String datasetId;
+    private final String tableId;
+
+    private MetadataCacheKey(String backend, String identity, Type type, String datasetId, String tableId) {
+        this.backend = backend;
+        this.identity = identity;
+        this.type = type;
+        this.datasetId = datasetId;
+        this.tableId = tableId;
+    }
+
+    public static MetadataCacheKey datasets(String backend, CredentialIdentity identity) {
+        return new MetadataCacheKey(backend, identity.toString(), Type.DATASETS, null, null);
+    }
+
+    public static MetadataCacheKey tables(String backend, CredentialIdentity identity, String datasetId) {
+        return new MetadataCacheKey(backend, identity.toString(), Type.TABLES, datasetId, null);
+    }
+
+    public static MetadataCacheKey schema(String backend, CredentialIdentity identity, String datasetId, String tableId) {
+        return new MetadataCacheKey(backend, identity.toString(), Type.SCHEMA, datasetId, tableId);
+    }
+
+    /**
+     * Rebuild a key from its parts (e.g. when reading a persisted catalog snapshot)
+     */
+    static MetadataCacheKey of(String backend, String identity, Type type, String datasetId, String tableId) {
+        return new MetadataCacheKey(backend, identity, type, datasetId, tableId);
+    }
+
+    public String getBackend() {
+        return backend;
+    }
+
+    public String getIdentity() {
+        return identity;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getDatasetId() {
+        return datasetId;
+    }
+
+    public String getTableId() {
+        return tableId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MetadataCacheKey)) return false;
+        MetadataCacheKey that = (MetadataCacheKey) o;
+        return backend.equals(that.backend)
+            && identity.equals(that.identity)
+            && type == that.type
+            && Objects.equals(datasetId, that.datasetId)
+            && Objects.equals(tableId, that.tableId);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(backend, identity, type, datasetId, tableId);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(backend).append(':').append(type);
+        if (datasetId != null) {
+            sb.append(':').append(datasetId);
+        }
+        if (tableId != null) {
+            sb.append('.').append(tableId);
+        }
+        return sb.append('@').append(identity).toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.google.api.services.bigquery.model.TableList;
+import com.mercadolibre.incidenciabq.model.Dataset;
+import com.mercadolibre.incidenciabq.model.Field;
+import com.mercadolibre.incidenciabq.model.Table;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Per-row mapping of BigQuery results into the model classes, for both backends
+ *
+ * These run once per table/column of a listing (up to hundreds of thousands of times per request),
+ * so they are kept free of logging and lookups; src/jmh/java measures them (mvn -Pbenchmarks).
+ */
+final class MetadataMapper {
+
+    private MetadataMapper() {
+    }
+
+    /**
+     * A (field-trimmed, see RestTablePager) tables.list entry
+     */
+    static Table table(TableList.Tables bqTable, String projectId, String datasetId) {
+        Table table = new Table();
+        table.setTableId(bqTable.getTableReference().getTableId());
+        table.setDatasetId(datasetId);
+        table.setProjectId(projectId);
+        table.setFriendlyName(bqTable.getFriendlyName());
+        table.setType(bqTable.getType() != null ? bqTable.getType() : "TABLE");
+        table.setCreationTime(bqTable.getCreationTime());
+        return table;
+    }
+
+    /**
+     * A schema field of a tables.get response
+     */
+    static Field field(com.google.cloud.bigquery.Field bqField) {
+        Field field = new Field();
+        field.setName(bqField.getName());
+        field.setType(bqField.getType().toString());
+        field.setMode(bqField.getMode() != null ? bqField.getMode().toString() : "NULLABLE");
+        field.setDescription(bqField.getDescription());
+        return field;
+    }
+
+    /**
+     * An INFORMATION_SCHEMA.SCHEMATA row (JDBC)
+     */
+    static Dataset dataset(ResultSet rs, String projectId) throws SQLException {
+        String schemaName = rs.getString("schema_name");
+        Dataset dataset = new Dataset();
+        dataset.setDatasetId(schemaName);
+        dataset.setProjectId(projectId);
+        dataset.setFriendlyName(schemaName);
+        return dataset;
+    }
+
+    /**
+     * An INFORMATION_SCHEMA.TABLES row (JDBC)
+     */
+    static Table table(ResultSet rs, String projectId, String datasetId) throws SQLException {
+        Table table = new Table();
+        table.setTableId(rs.getString("table_name"));
+        table.setDatasetId(datasetId);
+        table.setProjectId(projectId);
+        table.setType(rs.getString("table_type"));
+        Timestamp creationTime = rs.getTimestamp("creation_time");
+        if (creationTime != null) {
+            table.setCreationTime(creationTime.getTime());
+        }
+        return table;
+    }
+
+    /**
+     * An INFORMATION_SCHEMA.COLUMNS row (JDBC)
+     */
+    static Field field(ResultSet rs) throws SQLException {
+        Field field = new Field();
+        field.setName(rs.getString("column_name"));
+        field.setType(rs.getString("data_type"));
+        field.setMode("YES".equals(rs.getString("is_nullable")) ? "NULLABLE" : "REQUIRED");
+        field.setDescription(null); // INFORMATION_SCHEMA.COLUMNS doesn't have description
+        return field;
+    }
+}
@@ -0,0 +1,111 @@
+package com.mercadolibre.incidenciabq.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Micrometer timers for the phases of a metadata call, on both backends
+ *
+ * Every timer is tagged backend (api/jdbc), operation (listDatasets, listTables, ...) and
+ * outcome (success/error), and publishes a percentile histogram, so /actuator/prometheus exposes
+ * the latency distribution of each phase instead of the per-call [TIMING] log lines.
+ * Each recorded phase is also added as a span to the trace of the current request (see RequestTracer).
+ */
+@Component
+public class MetadataMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String ERROR = "error";
+
+    public enum Phase {
+        CREDENTIALS("bigquery.credentials.load", "Loading the credentials of the caller"),
+        CLIENT_BUILD("bigquery.client.build", "Building a BigQuery client (client cache miss)"),
+        CONNECTION("bigquery.connection.acquire", "Acquiring a pooled JDBC connection"),
+        QUERY("bigquery.query", "One BigQuery API call or JDBC query, until its first results"),
+        PAGE_FETCH("bigquery.page.fetch", "Fetching one tables.list page"),
+        MAPPING("bigquery.rows.map", "Mapping API results or ResultSet rows into model objects"),
+        SERIALIZATION("bigquery.response.serialize", "Writing a JSON response body"),
+        OPERATION("bigquery.operation", "A whole backend operation, from client/connection to mapped result");
+
+        private final String metricName;
+        private final String description;
+
+        Phase(String metricName, String description) {
+            this.metricName = metricName;
+            this.description = description;
+        }
+    }
+
+    private final MeterRegistry registry;
+    private final RequestTracer tracer;
+
+    public MetadataMetrics(MeterRegistry registry, RequestTracer tracer) {
+        this.registry = registry;
+        this.tracer = tracer;
+    }
+
+    public void record(Phase phase, String backend, String operation, String outcome, long millis) {
+        recordNanos(phase, backend, operation, outcome, TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+
+    public void recordNanos(Phase phase, String backend, String operation, String outcome, long nanos) {
+        long end = System.currentTimeMillis();
+        timer(phase, backend, operation, outcome).record(nanos, TimeUnit.NANOSECONDS);
+        trace(phase, backend, operation, outcome, end - TimeUnit.NANOSECONDS.toMillis(nanos), end, null);
+    }
+
+    /**
+     * One tables.list page; its span starts when the fetch started, which may be well before the
+     * page is consumed when it was prefetched
+     */
+    public void recordPage(String backend, String operation, RestTablePager.Page page) {
+        timer(Phase.PAGE_FETCH, backend, operation, SUCCESS).record(page.getFetchMs(), TimeUnit.MILLISECONDS);
+        trace(Phase.PAGE_FETCH, backend, operation, SUCCESS, page.getFetchStartedAt(),
+            page.getFetchStartedAt() + page.getFetchMs(), page);
+    }
+
+    /**
+     * Model objects (datasets, tables, fields) produced by an operation
+     */
+    public void countRows(String backend, String operation, long rows) {
+        Counter.builder("bigquery.rows")
+            .description("Datasets, tables and fields mapped from BigQuery results")
+            .tags("backend", backend, "operation", operation)
+            .register(registry)
+            .increment(rows);
+    }
+
+    private Timer timer(Phase phase, String backend, String operation, String outcome) {
+        return Timer.builder(phase.metricName)
+            .description(phase.description)
+            .tags("backend", backend, "operation", operation, "outcome", outcome)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofMinutes(10))
+            .register(registry);
+    }
+
+    private void trace(Phase phase, String backend, String operation, String outcome,
+                       long startMillis, long endMillis, RestTablePager.Page page) {
+        if (tracer.current() == null) {
+            return;
+        }
+        Map<String, Object> attributes = new LinkedHashMap<>();
+        attributes.put("backend", backend);
+        attributes.put("operation", operation);
+        attributes.put("outcome", outcome);
+        if (page != null) {
+            attributes.put("page", page.getPageNumber());
+            attributes.put("tables", page.getTables().size());
+        }
+        // A whole operation is recorded when it ends, after its phases: it adopts them as children
+        tracer.record(phase.metricName, startMillis, endMillis, attributes, phase == Phase.OPERATION);
+    }
+}
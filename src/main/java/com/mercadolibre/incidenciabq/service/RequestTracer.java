@@ -0,0 +1,284 @@
+package com.mercadolibre.incidenciabq.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-process span tree per HTTP request, kept in a bounded ring buffer and served by /api/traces/{traceId}
+ *
+ * TracingFilter starts a trace for every /api request and returns its id as X-Trace-Id. Spans are
+ * attached to the span bound to the current thread (see bind()); BigQueryIoExecutor carries that
+ * binding to its worker threads, the way it carries CredentialContext.
+ * - Open spans (inSpan) wrap a block, e.g. the controller body running on the I/O pool
+ * - Completed spans (record) come from MetadataMetrics: every phase timed for Micrometer (credentials,
+ *   client build, connection, query, REST page, row mapping, serialization) also lands in the trace.
+ *   An enclosing span (a whole service operation, recorded when it ends) adopts the spans recorded
+ *   under the same parent since it started, which rebuilds controller → operation → phase nesting
+ *
+ * The buffer holds the last bigquery.trace.buffer-size traces (running ones included); each trace keeps
+ * at most bigquery.trace.max-spans spans and counts the rest as dropped.
+ */
+@Component
+@Slf4j
+public class RequestTracer {
+
+    private static final ThreadLocal<Span> CURRENT = new ThreadLocal<>();
+
+    private final int maxSpans;
+    private final Map<String, Trace> traces;
+
+    public RequestTracer(@Value("${bigquery.trace.buffer-size:200}") int bufferSize,
+                         @Value("${bigquery.trace.max-spans:2000}") int maxSpans) {
+        this.maxSpans = maxSpans;
+        this.traces = new LinkedHashMap<>(bufferSize * 4 / 3 + 1) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Trace> eldest) {
+                return size() > bufferSize;
+            }
+        };
+    }
+
+    /**
+     * Start the trace of a request and put it in the buffer (evicting the oldest one when full)
+     */
+    public Trace begin(String name) {
+        Trace trace = new Trace(newTraceId(), name, maxSpans);
+        synchronized (traces) {
+            traces.put(trace.traceId, trace);
+        }
+        return trace;
+    }
+
+    public void finish(Trace trace, int status) {
+        trace.root.end(System.currentTimeMillis());
+        trace.status = status;
+        log.debug("[TRACE] {} answered {} in {} ms ({} spans) trace={}",
+            trace.root.name, status, trace.root.durationMs, trace.spanCount.get(), trace.traceId);
+    }
+
+    /**
+     * The span tree of a traced request, or null if it is unknown or was evicted
+     */
+    public Map<String, Object> getTrace(String traceId) {
+        Trace trace;
+        synchronized (traces) {
+            trace = traces.get(traceId);
+        }
+        return trace != null ? trace.describe(true) : null;
+    }
+
+    /**
+     * Most recent traces first, without their spans
+     */
+    public List<Map<String, Object>> getRecent(int limit) {
+        List<Trace> snapshot;
+        synchronized (traces) {
+            snapshot = new ArrayList<>(traces.values());
+        }
+        List<Map<String, Object>> recent = new ArrayList<>();
+        for (int i = snapshot.size() - 1; i >= 0 && recent.size() < limit; i--) {
+            recent.add(snapshot.get(i).describe(false));
+        }
+        return recent;
+    }
+
+    /**
+     * The span new spans on this thread are attached to, or null outside a traced request
+     */
+    public Span current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Attach the spans of this thread to span (null clears it); returns the previous binding to restore
+     */
+    public Span bind(Span span) {
+        Span previous = CURRENT.get();
+        if (span != null) {
+            CURRENT.set(span);
+        } else {
+            CURRENT.remove();
+        }
+        return previous;
+    }
+
+    /**
+     * Run body inside a new child span of the current one (just runs it outside a traced request)
+     */
+    public <T> T inSpan(String name, Map<String, Object> attributes, Supplier<T> body) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return body.get();
+        }
+        Span span = parent.trace.newSpan(name, System.currentTimeMillis(), attributes);
+        if (span == null) {
+            return body.get();
+        }
+        parent.add(span);
+        CURRENT.set(span);
+        try {
+            return body.get();
+        } finally {
+            span.end(System.currentTimeMillis());
+            CURRENT.set(parent);
+        }
+    }
+
+    /**
+     * Record a span that already finished. An enclosing span becomes the parent of the spans recorded
+     * under the same parent since startMillis (the phases of the operation it times).
+     */
+    public void record(String name, long startMillis, long endMillis, Map<String, Object> attributes, boolean enclosing) {
+        Span parent = CURRENT.get();
+        if (parent == null) {
+            return;
+        }
+        Span span = parent.trace.newSpan(name, startMillis, attributes);
+        if (span == null) {
+            return;
+        }
+        span.end(endMillis);
+        if (enclosing) {
+            parent.adoptInto(span);
+        } else {
+            parent.add(span);
+        }
+    }
+
+    private static String newTraceId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%016x%08x", random.nextLong(), random.nextInt());
+    }
+
+    /**
+     * One traced request: its root span and span budget
+     */
+    public static class Trace {
+        private final String traceId;
+        private final Instant startedAt = Instant.now();
+        private final Span root;
+        private final int maxSpans;
+        private final AtomicInteger spanCount = new AtomicInteger(1);
+        private final AtomicInteger droppedSpans = new AtomicInteger();
+        private volatile Integer status;
+
+        Trace(String traceId, String name, int maxSpans) {
+            this.traceId = traceId;
+            this.maxSpans = maxSpans;
+            this.root = new Span(this, name, startedAt.toEpochMilli(), Collections.emptyMap());
+        }
+
+        public String getTraceId() {
+            return traceId;
+        }
+
+        public Span getRoot() {
+            return root;
+        }
+
+        private Span newSpan(String name, long startMillis, Map<String, Object> attributes) {
+            if (spanCount.incrementAndGet() > maxSpans) {
+                spanCount.decrementAndGet();
+                droppedSpans.incrementAndGet();
+                return null;
+            }
+            return new Span(this, name, startMillis, attributes);
+        }
+
+        private Map<String, Object> describe(boolean withSpans) {
+            Map<String, Object> trace = new LinkedHashMap<>();
+            trace.put("traceId", traceId);
+            trace.put("request", root.name);
+            trace.put("startedAt", startedAt.toString());
+            trace.put("status", status);
+            trace.put("durationMs", root.durationMs);
+            trace.put("spans", spanCount.get());
+            trace.put("droppedSpans", droppedSpans.get());
+            if (withSpans) {
+                trace.put("root", root.describe());
+            }
+            return trace;
+        }
+    }
+
+    /**
+     * A timed step of a request; children are kept in recording order and listed by start time
+     */
+    public static class Span {
+        private final Trace trace;
+        private final String name;
+        private final long startMillis;
+        private final String thread = Thread.currentThread().getName();
+        private final Map<String, Object> attributes;
+        private final List<Span> children = new ArrayList<>();
+        private volatile Long durationMs;
+
+        private Span(Trace trace, String name, long startMillis, Map<String, Object> attributes) {
+            this.trace = trace;
+            this.name = name;
+            this.startMillis = startMillis;
+            this.attributes = attributes;
+        }
+
+        private void end(long endMillis) {
+            durationMs = Math.max(0, endMillis - startMillis);
+        }
+
+        private synchronized void add(Span child) {
+            children.add(child);
+        }
+
+        /**
+         * Move the trailing children that started within span under it, then add span
+         * (one millisecond of slack: phases are timed in whole milliseconds)
+         */
+        private synchronized void adoptInto(Span span) {
+            int from = children.size();
+            while (from > 0 && children.get(from - 1).startMillis >= span.startMillis - 1) {
+                from--;
+            }
+            List<Span> adopted = children.subList(from, children.size());
+            synchronized (span) {
+                span.children.addAll(adopted);
+            }
+            adopted.clear();
+            children.add(span);
+        }
+
+        private Map<String, Object> describe() {
+            Map<String, Object> span = new LinkedHashMap<>();
+            span.put("name", name);
+            span.put("startMs", startMillis - trace.root.startMillis);
+            span.put("durationMs", durationMs);
+            span.put("thread", thread);
+            if (!attributes.isEmpty()) {
+                span.put("attributes", attributes);
+            }
+            List<Span> sorted;
+            synchronized (this) {
+                sorted = new ArrayList<>(children);
+            }
+            if (!sorted.isEmpty()) {
+                sorted.sort(Comparator.comparingLong(child -> child.startMillis));
+                List<Map<String, Object>> described = new ArrayList<>(sorted.size());
+                for (Span child : sorted) {
+                    described.add(child.describe());
+                }
+                span.put("children", described);
+            }
+            return span;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.services.bigquery.Bigquery;
+import com.google.api.services.bigquery.model.TableList;
+import com.google.cloud.bigquery.BigQuery;
+import com.google.cloud.bigquery.BigQueryOptions;
+import com.google.cloud.http.HttpTransportOptions;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Paging engine for the REST tables.list call
+ *
+ * Compared to walking Page.iterateAll() serially, this:
+ * - asks for the maximum page size instead of the default ~50 items per page
+ * - requests only the table-reference fields we map (partial response via the "fields" parameter)
+ * - fetches page N+1 in the background while the caller maps page N
+ *
+ * Page tokens are chained, so at most one page can be in flight ahead of the caller.
+ * The google-cloud-bigquery Page API exposes neither the "fields" parameter nor the
+ * raw page token flow we need, so the underlying apiary client is used directly
+ * (built the same way HttpBigQueryRpc builds it, from the cached client's options).
+ */
+@Component
+@Slf4j
+public class RestTablePager implements MeterBinder {
+
+    /** Only the fields mapped into model.Table */
+    static final String TABLE_LIST_FIELDS =
+        "nextPageToken,tables(tableReference/tableId,type,creationTime,friendlyName)";
+
+    private final int pageSize;
+    private final ThreadPoolExecutor prefetchExecutor;
+
+    /** Raw API clients, tied to the lifetime of the cached BigQuery client they were built from */
+    private final Cache<BigQuery, Bigquery> apiClients = Caffeine.newBuilder().weakKeys().build();
+
+    public RestTablePager(WorkerThreads workerThreads,
+                          @Value("${bigquery.rest.tables.page-size:1000}") int pageSize,
+                          @Value("${bigquery.rest.prefetch.threads:8}") int prefetchThreads,
+                          @Value("${bigquery.rest.prefetch.queue-size:32}") int prefetchQueueSize) {
+        this.pageSize = pageSize;
+        this.prefetchExecutor = new ThreadPoolExecutor(
+            prefetchThreads, prefetchThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(prefetchQueueSize),
+            workerThreads.factory("bq-prefetch-"),
+            // When saturated, fetch on the caller thread (plain serial paging)
+            new ThreadPoolExecutor.CallerRunsPolicy());
+        this.prefetchExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * One page of tables.list results
+     */
+    public static class Page {
+        private final int pageNumber;
+        private final List<TableList.Tables> tables;
+        private final String nextPageToken;
+        private final long fetchStartedAt;
+        private final long fetchMs;
+
+        Page(int pageNumber, List<TableList.Tables> tables, String nextPageToken, long fetchStartedAt, long fetchMs) {
+            this.pageNumber = pageNumber;
+            this.tables = tables != null ? tables : Collections.emptyList();
+            this.nextPageToken = nextPageToken;
+            this.fetchStartedAt = fetchStartedAt;
+            this.fetchMs = fetchMs;
+        }
+
+        public int getPageNumber() {
+            return pageNumber;
+        }
+
+        public List<TableList.Tables> getTables() {
+            return tables;
+        }
+
+        public String getNextPageToken() {
+            return nextPageToken;
+        }
+
+        /**
+         * Epoch millis at which the tables.list call was sent
+         */
+        public long getFetchStartedAt() {
+            return fetchStartedAt;
+        }
+
+        public long getFetchMs() {
+            return fetchMs;
+        }
+    }
+
+    @FunctionalInterface
+    public interface PageConsumer {
+        void accept(Page page) throws Exception;
+    }
+
+    /**
+     * Walk every page of a dataset's table list, prefetching the next page while
+     * the consumer processes the current one.
+     *
+     * @return number of pages fetched
+     */
+    public int forEachPage(BigQuery client, String projectId, String datasetId, PageConsumer consumer) throws Exception {
+        Bigquery api = apiClient(client);
+        CompletableFuture<Page> next = fetchAsync(api, projectId, datasetId, null, 1);
+        int pages = 0;
+        try {
+            while (next != null) {
+                Page page = await(next);
+                pages++;
+                // Prefetch page N+1 before handing page N to the consumer
+                next = page.getNextPageToken() != null
+                    ? fetchAsync(api, projectId, datasetId, page.getNextPageToken(), page.getPageNumber() + 1)
+                    : null;
+                consumer.accept(page);
+            }
+        } finally {
+            if (next != null) {
+                next.cancel(true);
+            }
+        }
+        return pages;
+    }
+
+    /**
+     * Fetch a single page synchronously
+     */
+    public Page fetchPage(BigQuery client, String projectId, String datasetId,
+                          String pageToken, int maxResults) throws IOException {
+        return fetch(apiClient(client), projectId, datasetId, pageToken, maxResults, 1);
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new ExecutorServiceMetrics(prefetchExecutor, "bq-prefetch", Tags.empty()).bindTo(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    private CompletableFuture<Page> fetchAsync(Bigquery api, String projectId, String datasetId,
+                                               String pageToken, int pageNumber) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return fetch(api, projectId, datasetId, pageToken, pageSize, pageNumber);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, prefetchExecutor);
+    }
+
+    private Page fetch(Bigquery api, String projectId, String datasetId,
+                       String pageToken, int maxResults, int pageNumber) throws IOException {
+        long start = System.currentTimeMillis();
+        TableList tableList = api.tables().list(projectId, datasetId)
+            .setPrettyPrint(false)
+            .setFields(TABLE_LIST_FIELDS)
+            .setMaxResults((long) maxResults)
+            .setPageToken(pageToken)
+            .execute();
+        long fetchMs = System.currentTimeMillis() - start;
+        log.debug("[PAGER] Page {} of {}.{} fetched in {} ms", pageNumber, projectId, datasetId, fetchMs);
+        return new Page(pageNumber, tableList.getTables(), tableList.getNextPageToken(), start, fetchMs);
+    }
+
+    private Page await(CompletableFuture<Page> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    private Bigquery apiClient(BigQuery client) {
+        return apiClients.get(client, key -> {
+            BigQueryOptions options = key.getOptions();
+            HttpTransportOptions transportOptions = (HttpTransportOptions) options.getTransportOptions();
+            return new Bigquery.Builder(
+                    transportOptions.getHttpTransportFactory().create(),
+                    GsonFactory.getDefaultInstance(),
+                    transportOptions.getHttpRequestInitializer(options))
+                .setRootUrl(options.getResolvedApiaryHost("bigquery"))
+                .setApplicationName(options.getApplicationName())
+                .build();
+        });
+    }
+}
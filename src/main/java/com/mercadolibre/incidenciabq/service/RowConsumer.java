@@ -0,0 +1,13 @@
+package com.mercadolibre.incidenciabq.service;
+
+import java.io.IOException;
+
+/**
+ * Receives metadata rows one at a time as a backend produces them
+ * (e.g. to write each row to an HTTP response instead of collecting a List)
+ */
+@FunctionalInterface
+public interface RowConsumer<T> {
+
+    void accept(T row) throws IOException;
+}
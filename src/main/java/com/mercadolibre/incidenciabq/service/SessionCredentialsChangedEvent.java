@@ -0,0 +1,45 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.google.auth.oauth2.GoogleCredentials;
+
+/**
+ * Published by {@link SessionCredentialsManager} when a session uploads a new
+ * service account key, clears its key, or its key is evicted because the session
+ * expired, so anything built from the old key (pooled connections, clients) can be dropped.
+ */
+public class SessionCredentialsChangedEvent {
+
+    public enum Change { SAVED, CLEARED, EXPIRED }
+
+    private final String credentialsId;
+    private final String credentialsPath;
+    private final Change change;
+    private final GoogleCredentials previousCredentials;
+
+    public SessionCredentialsChangedEvent(String credentialsId, String credentialsPath, Change change,
+                                          GoogleCredentials previousCredentials) {
+        this.credentialsId = credentialsId;
+        this.credentialsPath = credentialsPath;
+        this.change = change;
+        this.previousCredentials = previousCredentials;
+    }
+
+    public String getCredentialsId() {
+        return credentialsId;
+    }
+
+    public String getCredentialsPath() {
+        return credentialsPath;
+    }
+
+    public Change getChange() {
+        return change;
+    }
+
+    /**
+     * Credentials the session was using before the change, or null if they were not loaded
+     */
+    public GoogleCredentials getPreviousCredentials() {
+        return previousCredentials;
+    }
+}
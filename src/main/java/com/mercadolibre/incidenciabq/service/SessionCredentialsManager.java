@@ -2,33 +2,82 @@ package com.mercadolibre.incidenciabq.service;
 
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.auth.oauth2.ServiceAccountCredentials;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import jakarta.servlet.http.HttpSession;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 /**
  * Manages service account credentials per user session
  * Each session gets its own isolated service account key
+ *
+ * A session's key (cached credentials, key file, and through SessionCredentialsChangedEvent its JDBC
+ * pool and client) is evicted when the session is cleared, when it expires (see
+ * SessionCredentialsCleanupListener), or by a periodic sweep once it has not been used for
+ * bigquery.credentials.session-ttl-minutes, which also removes orphaned key files.
  */
 @Service
-public class SessionCredentialsManager {
+public class SessionCredentialsManager implements MeterBinder {
 
     private static final Logger logger = LoggerFactory.getLogger(SessionCredentialsManager.class);
     private static final String SESSION_CREDENTIALS_KEY = "sessionCredentialsId";
     private static final String CREDENTIALS_DIR = "./session-credentials/";
+    private static final String DEFAULT_HOLDER = "default:";
+    private static final Pattern SESSION_KEY_FILE = Pattern.compile("service-account-(.+)\\.json");
 
-    // In-memory cache of session credentials
-    private final Map<String, GoogleCredentials> credentialsCache = new HashMap<>();
+    // Sessions that uploaded a key: credentials ID → key file and last use. Authoritative: kept in sync by
+    // save/clear/eviction, so requests never stat the key files; the directory is only read at startup and by the sweep
+    private final ConcurrentMap<String, SessionKey> sessionKeys = new ConcurrentHashMap<>();
+
+    // In-memory cache of session credentials. Request threads read and write it concurrently;
+    // ConcurrentHashMap locks per bin, and computeIfAbsent coalesces loads of the same session's key
+    private final ConcurrentMap<String, GoogleCredentials> credentialsCache = new ConcurrentHashMap<>();
+
+    // Parsed default key per path, re-parsed only when the file changes
+    private final ConcurrentMap<String, LoadedKey> defaultCredentials = new ConcurrentHashMap<>();
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final SharedCredentials sharedCredentials;
+    private final long defaultKeyCheckIntervalMs;
+    private final long sessionTtlMs;
+
+    private final AtomicLong clearedKeys = new AtomicLong();
+    private final AtomicLong expiredKeys = new AtomicLong();
+    private final AtomicLong idleKeys = new AtomicLong();
+    private final AtomicLong orphanFilesDeleted = new AtomicLong();
+
+    public SessionCredentialsManager(ApplicationEventPublisher eventPublisher, SharedCredentials sharedCredentials,
+                                     @Value("${bigquery.credentials.default-key-check-interval-ms:5000}") long defaultKeyCheckIntervalMs,
+                                     @Value("${bigquery.credentials.session-ttl-minutes:120}") long sessionTtlMinutes) {
+        this.eventPublisher = eventPublisher;
+        this.sharedCredentials = sharedCredentials;
+        this.defaultKeyCheckIntervalMs = defaultKeyCheckIntervalMs;
+        this.sessionTtlMs = TimeUnit.MINUTES.toMillis(sessionTtlMinutes);
 
-    public SessionCredentialsManager() {
         // Create credentials directory if it doesn't exist
         try {
             Files.createDirectories(Paths.get(CREDENTIALS_DIR));
@@ -36,6 +85,26 @@ public class SessionCredentialsManager {
         } catch (IOException e) {
             logger.error("Failed to create session credentials directory", e);
         }
+        recoverSessionKeys();
+    }
+
+    /**
+     * Rebuild the registry from the key files left in the credentials directory by a previous run
+     * (last used = file modification time, so keys of sessions that did not survive the restart age out)
+     */
+    private void recoverSessionKeys() {
+        try (Stream<Path> files = Files.list(Paths.get(CREDENTIALS_DIR))) {
+            files.forEach(file -> {
+                Matcher matcher = SESSION_KEY_FILE.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    sessionKeys.put(matcher.group(1),
+                        new SessionKey(getSessionCredentialsPath(matcher.group(1)), file.toFile().lastModified()));
+                }
+            });
+            logger.info("Recovered {} session credentials from {}", sessionKeys.size(), CREDENTIALS_DIR);
+        } catch (IOException e) {
+            logger.error("Failed to read session credentials directory", e);
+        }
     }
 
     /**
@@ -100,8 +169,14 @@ public class SessionCredentialsManager {
                 fos.write(jsonContent.getBytes());
             }
             
-            // Cache the credentials
-            credentialsCache.put(credentialsId, credentials);
+            // Register and cache the credentials (shared with sessions that uploaded the same key)
+            sessionKeys.put(credentialsId, new SessionKey(credentialsPath, System.currentTimeMillis()));
+            GoogleCredentials previous = credentialsCache.put(credentialsId,
+                sharedCredentials.acquire(credentialsId, credentials));
+            
+            // Anything built from a previous key for this session is now stale
+            eventPublisher.publishEvent(new SessionCredentialsChangedEvent(
+                credentialsId, credentialsPath, SessionCredentialsChangedEvent.Change.SAVED, previous));
             
             logger.info("✓ Session credentials saved successfully: {}", credentialsPath);
             
@@ -123,35 +198,99 @@ public class SessionCredentialsManager {
 
     /**
      * Get credentials for the current session
-     * Falls back to default service account if no session credentials exist
+     * Falls back to default service account if no session credentials exist (or there is no session)
      */
     public GoogleCredentials getCredentials(HttpSession session, String defaultKeyPath) throws IOException {
+        if (session == null) {
+            return getDefaultCredentials(defaultKeyPath);
+        }
         String credentialsId = getSessionCredentialsId(session);
         
-        // Check cache first
-        if (credentialsCache.containsKey(credentialsId)) {
-            logger.debug("Using cached credentials for session: {}", credentialsId);
-            return credentialsCache.get(credentialsId);
+        SessionKey sessionKey = sessionKeys.get(credentialsId);
+        if (sessionKey != null) {
+            sessionKey.lastUsed = System.currentTimeMillis();
+            
+            // Check cache first
+            GoogleCredentials cached = credentialsCache.get(credentialsId);
+            if (cached != null) {
+                logger.debug("Using cached credentials for session: {}", credentialsId);
+                return cached;
+            }
+            
+            // Load session-specific credentials; concurrent requests of the session wait for one load
+            GoogleCredentials sessionCredentials;
+            try {
+                sessionCredentials = credentialsCache.computeIfAbsent(credentialsId, this::loadSessionCredentials);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (sessionCredentials != null) {
+                return sessionCredentials;
+            }
         }
         
-        // Check if session-specific credentials exist
-        String sessionCredentialsPath = getSessionCredentialsPath(credentialsId);
-        File sessionFile = new File(sessionCredentialsPath);
+        // Fall back to default credentials
+        logger.debug("Using default service account for session: {}", credentialsId);
+        return getDefaultCredentials(defaultKeyPath);
+    }
+
+    /**
+     * Parse a session's registered key file, or return null (nothing cached) if it was cleared meanwhile
+     */
+    private GoogleCredentials loadSessionCredentials(String credentialsId) {
+        SessionKey sessionKey = sessionKeys.get(credentialsId);
+        if (sessionKey == null) {
+            return null;
+        }
+        String sessionCredentialsPath = sessionKey.path;
+        logger.info("Loading session-specific credentials: {}", sessionCredentialsPath);
+        try (FileInputStream fis = new FileInputStream(sessionCredentialsPath)) {
+            return sharedCredentials.acquire(credentialsId, GoogleCredentials.fromStream(fis));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Default credentials, parsed once per key file and reloaded when the file's modification
+     * time or size changes (checked at most every bigquery.credentials.default-key-check-interval-ms)
+     */
+    private GoogleCredentials getDefaultCredentials(String defaultKeyPath) throws IOException {
+        long now = System.currentTimeMillis();
+        LoadedKey loaded = defaultCredentials.get(defaultKeyPath);
+        if (loaded != null && now - loaded.checkedAt < defaultKeyCheckIntervalMs) {
+            return loaded.credentials;
+        }
         
-        if (sessionFile.exists()) {
-            logger.info("Loading session-specific credentials: {}", sessionCredentialsPath);
-            try (FileInputStream fis = new FileInputStream(sessionFile)) {
-                GoogleCredentials credentials = GoogleCredentials.fromStream(fis);
-                credentialsCache.put(credentialsId, credentials);
-                return credentials;
-            }
+        BasicFileAttributes attributes = Files.readAttributes(Paths.get(defaultKeyPath), BasicFileAttributes.class);
+        if (loaded != null && loaded.matches(attributes)) {
+            loaded.checkedAt = now;
+            return loaded.credentials;
         }
         
-        // Fall back to default credentials
-        logger.info("Using default service account for session: {}", credentialsId);
-        try (FileInputStream fis = new FileInputStream(defaultKeyPath)) {
-            GoogleCredentials credentials = GoogleCredentials.fromStream(fis);
-            return credentials;
+        try {
+            return defaultCredentials.compute(defaultKeyPath, (path, current) -> {
+                if (current != null && current.matches(attributes)) {
+                    // Another request reloaded it while this one was checking
+                    current.checkedAt = now;
+                    return current;
+                }
+                return loadDefaultKey(path, attributes, current != null, now);
+            }).credentials;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private LoadedKey loadDefaultKey(String path, BasicFileAttributes attributes, boolean reload, long now) {
+        long start = System.currentTimeMillis();
+        try (InputStream in = Files.newInputStream(Paths.get(path))) {
+            GoogleCredentials credentials = sharedCredentials.acquire(DEFAULT_HOLDER + path, GoogleCredentials.fromStream(in));
+            logger.info("{} default service account key {} in {} ms",
+                reload ? "Reloaded changed" : "Loaded", path, System.currentTimeMillis() - start);
+            return new LoadedKey(credentials, attributes.lastModifiedTime(), attributes.size(), now);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
@@ -159,9 +298,15 @@ public class SessionCredentialsManager {
      * Check if session has custom credentials
      */
     public boolean hasSessionCredentials(HttpSession session) {
-        String credentialsId = getSessionCredentialsId(session);
-        String sessionCredentialsPath = getSessionCredentialsPath(credentialsId);
-        return new File(sessionCredentialsPath).exists();
+        return sessionKeys.containsKey(getSessionCredentialsId(session));
+    }
+
+    /**
+     * Key file of the session's uploaded credentials, or null if it uses the default key
+     */
+    public String getSessionKeyPath(HttpSession session) {
+        SessionKey sessionKey = sessionKeys.get(getSessionCredentialsId(session));
+        return sessionKey != null ? sessionKey.path : null;
     }
 
     /**
@@ -180,8 +325,9 @@ public class SessionCredentialsManager {
                 info.put("projectId", sa.getProjectId());
             }
             
-            String sessionCredentialsPath = getSessionCredentialsPath(credentialsId);
-            boolean hasCustom = new File(sessionCredentialsPath).exists();
+            SessionKey sessionKey = sessionKeys.get(credentialsId);
+            boolean hasCustom = sessionKey != null;
+            String sessionCredentialsPath = hasCustom ? sessionKey.path : null;
             
             info.put("sessionId", credentialsId);
             info.put("hasCustomCredentials", hasCustom);
@@ -201,10 +347,105 @@ public class SessionCredentialsManager {
      */
     public void clearSessionCredentials(HttpSession session) {
         String credentialsId = getSessionCredentialsId(session);
-        String sessionCredentialsPath = getSessionCredentialsPath(credentialsId);
+        evict(credentialsId, SessionCredentialsChangedEvent.Change.CLEARED);
+        clearedKeys.incrementAndGet();
         
-        // Remove from cache
-        credentialsCache.remove(credentialsId);
+        // Remove from session
+        session.removeAttribute(SESSION_CREDENTIALS_KEY);
+    }
+
+    /**
+     * The session expired or was invalidated: evict its key, if it uploaded one
+     */
+    public void onSessionDestroyed(HttpSession session) {
+        String credentialsId = (String) session.getAttribute(SESSION_CREDENTIALS_KEY);
+        if (credentialsId != null && sessionKeys.containsKey(credentialsId)) {
+            logger.info("Session {} ended, evicting its credentials: {}", session.getId(), credentialsId);
+            evict(credentialsId, SessionCredentialsChangedEvent.Change.EXPIRED);
+            expiredKeys.incrementAndGet();
+        }
+    }
+
+    /**
+     * Evict keys unused for longer than the session TTL (sessions that ended without a destroy
+     * notification, e.g. before a restart), and delete key files no session is registered for
+     */
+    @Scheduled(initialDelayString = "${bigquery.credentials.session-sweep-interval-ms:600000}",
+               fixedDelayString = "${bigquery.credentials.session-sweep-interval-ms:600000}")
+    public void evictIdleSessionKeys() {
+        long now = System.currentTimeMillis();
+        int evicted = 0;
+        for (Map.Entry<String, SessionKey> entry : sessionKeys.entrySet()) {
+            if (now - entry.getValue().lastUsed > sessionTtlMs) {
+                evict(entry.getKey(), SessionCredentialsChangedEvent.Change.EXPIRED);
+                idleKeys.incrementAndGet();
+                evicted++;
+            }
+        }
+        
+        int orphans = 0;
+        try (Stream<Path> files = Files.list(Paths.get(CREDENTIALS_DIR))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SESSION_KEY_FILE.matcher(file.getFileName().toString());
+                // Recently written files may belong to an upload that is registering right now
+                if (matcher.matches() && !sessionKeys.containsKey(matcher.group(1))
+                        && now - file.toFile().lastModified() > sessionTtlMs && file.toFile().delete()) {
+                    orphanFilesDeleted.incrementAndGet();
+                    orphans++;
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to sweep session credentials directory: {}", e.getMessage());
+        }
+        if (evicted > 0 || orphans > 0) {
+            logger.info("Session credentials sweep: {} idle keys evicted, {} orphaned key files deleted ({} live)",
+                evicted, orphans, sessionKeys.size());
+        }
+    }
+
+    /**
+     * Live and evicted session credentials
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("liveSessionKeys", sessionKeys.size());
+        stats.put("cachedCredentials", credentialsCache.size());
+        stats.put("evictedCleared", clearedKeys.get());
+        stats.put("evictedSessionExpired", expiredKeys.get());
+        stats.put("evictedIdle", idleKeys.get());
+        stats.put("orphanFilesDeleted", orphanFilesDeleted.get());
+        stats.put("sessionTtlMinutes", TimeUnit.MILLISECONDS.toMinutes(sessionTtlMs));
+        return stats;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("bigquery.credentials.sessions", sessionKeys, Map::size)
+            .description("Sessions with an uploaded service account key").register(registry);
+        evictionCounter(registry, "cleared", clearedKeys);
+        evictionCounter(registry, "expired", expiredKeys);
+        evictionCounter(registry, "idle", idleKeys);
+        FunctionCounter.builder("bigquery.credentials.orphan.files.deleted", orphanFilesDeleted, AtomicLong::get)
+            .description("Session key files deleted by the sweep without a registered session").register(registry);
+    }
+
+    private static void evictionCounter(MeterRegistry registry, String cause, AtomicLong count) {
+        FunctionCounter.builder("bigquery.credentials.evictions", count, AtomicLong::get)
+            .description("Session keys evicted (cached credentials, key file, JDBC pool, client)")
+            .tag("cause", cause)
+            .register(registry);
+    }
+
+    /**
+     * Drop everything held for a session's key: registry entry, cached and shared credentials, key file;
+     * the event lets the JDBC pool and client caches drop what they built from it
+     */
+    private void evict(String credentialsId, SessionCredentialsChangedEvent.Change change) {
+        // Unregister first, so a concurrent request cannot load the key again once the cache entry is removed
+        SessionKey sessionKey = sessionKeys.remove(credentialsId);
+        String sessionCredentialsPath = sessionKey != null ? sessionKey.path : getSessionCredentialsPath(credentialsId);
+        GoogleCredentials previous = credentialsCache.remove(credentialsId);
+        sharedCredentials.release(credentialsId);
         
         // Delete file
         File file = new File(sessionCredentialsPath);
@@ -216,8 +457,41 @@ public class SessionCredentialsManager {
             }
         }
         
-        // Remove from session
-        session.removeAttribute(SESSION_CREDENTIALS_KEY);
+        eventPublisher.publishEvent(new SessionCredentialsChangedEvent(
+            credentialsId, sessionCredentialsPath, change, previous));
     }
-}
 
+    /**
+     * Registered key file of a session and when the session last used it
+     */
+    private static final class SessionKey {
+        private final String path;
+        private volatile long lastUsed;
+
+        private SessionKey(String path, long lastUsed) {
+            this.path = path;
+            this.lastUsed = lastUsed;
+        }
+    }
+
+    /**
+     * Parsed key file plus the file attributes it was parsed from
+     */
+    private static final class LoadedKey {
+        private final GoogleCredentials credentials;
+        private final FileTime lastModified;
+        private final long size;
+        private volatile long checkedAt;
+
+        private LoadedKey(GoogleCredentials credentials, FileTime lastModified, long size, long checkedAt) {
+            this.credentials = credentials;
+            this.lastModified = lastModified;
+            this.size = size;
+            this.checkedAt = checkedAt;
+        }
+
+        private boolean matches(BasicFileAttributes attributes) {
+            return lastModified.equals(attributes.lastModifiedTime()) && size == attributes.size();
+        }
+    }
+}
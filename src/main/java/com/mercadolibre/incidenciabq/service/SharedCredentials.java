@@ -0,0 +1,232 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.google.auth.oauth2.AccessToken;
+import com.google.auth.oauth2.GoogleCredentials;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One GoogleCredentials instance per credential identity (service account email + key fingerprint),
+ * shared by every session that uploaded the same key, with its access token refreshed in the background
+ *
+ * OAuth2Credentials caches its access token per instance, so every session that parsed its own copy of
+ * a key minted its own token, and the first request after the token expired waited for the OAuth round
+ * trip. Holders (a session's credentials ID, or the default key) acquire the shared instance here; a
+ * sweep refreshes every token that was never fetched or expires within refresh-margin-seconds, on a
+ * small background pool, so requests find a valid token. An identity no holder uses any more is dropped.
+ *
+ * Keys are scoped here rather than by the client: BigQueryOptions would otherwise scope (copy) the
+ * credentials per client, and the copy would mint its own token.
+ */
+@Component
+@Slf4j
+public class SharedCredentials {
+
+    /** The scope BigQueryOptions requests for unscoped credentials */
+    private static final List<String> BIGQUERY_SCOPES = List.of("https://www.googleapis.com/auth/bigquery");
+
+    private final ConcurrentMap<CredentialIdentity, Entry> entries = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, CredentialIdentity> holders = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor refreshExecutor;
+    private final long refreshMarginMs;
+    private final Timer refreshSuccess;
+    private final Timer refreshFailure;
+
+    public SharedCredentials(WorkerThreads workerThreads, MeterRegistry registry,
+                             @Value("${bigquery.credentials.refresh.threads:2}") int refreshThreads,
+                             @Value("${bigquery.credentials.refresh.margin-seconds:600}") long refreshMarginSeconds) {
+        this.refreshMarginMs = TimeUnit.SECONDS.toMillis(refreshMarginSeconds);
+        this.refreshExecutor = new ThreadPoolExecutor(refreshThreads, refreshThreads, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(256), workerThreads.factory("credentials-refresh-"));
+        this.refreshExecutor.allowCoreThreadTimeOut(true);
+
+        this.refreshSuccess = refreshTimer(registry, MetadataMetrics.SUCCESS);
+        this.refreshFailure = refreshTimer(registry, MetadataMetrics.ERROR);
+        Gauge.builder("bigquery.credentials.shared", entries, Map::size)
+            .description("Distinct credential identities in use (one access token each)").register(registry);
+        Gauge.builder("bigquery.credentials.holders", holders, Map::size)
+            .description("Sessions (and the default key) holding shared credentials").register(registry);
+        new ExecutorServiceMetrics(refreshExecutor, "credentials-refresh", Tags.empty()).bindTo(registry);
+    }
+
+    /**
+     * The shared instance for these credentials' identity, held by holder until release(holder) or until
+     * the holder acquires other credentials. A new identity gets its first token in the background.
+     */
+    public GoogleCredentials acquire(String holder, GoogleCredentials credentials) {
+        CredentialIdentity identity = CredentialIdentity.of(credentials);
+        AtomicBoolean created = new AtomicBoolean();
+        Entry entry = entries.compute(identity, (id, current) -> {
+            Entry held = current;
+            if (held == null) {
+                held = new Entry(credentials.createScopedRequired()
+                    ? credentials.createScoped(BIGQUERY_SCOPES) : credentials);
+                created.set(true);
+            }
+            held.holders.add(holder);
+            return held;
+        });
+        CredentialIdentity previous = holders.put(holder, identity);
+        if (previous != null && !previous.equals(identity)) {
+            unhold(previous, holder);
+        }
+        if (created.get()) {
+            log.info("[CREDENTIALS] Sharing credentials {} (first holder: {})", identity, holder);
+            refreshInBackground(identity, entry);
+        }
+        return entry.credentials;
+    }
+
+    /**
+     * The holder no longer uses its credentials; the identity is dropped when it was the last holder
+     */
+    public void release(String holder) {
+        CredentialIdentity identity = holders.remove(holder);
+        if (identity != null) {
+            unhold(identity, holder);
+        }
+    }
+
+    /**
+     * Whether any holder still uses credentials with this identity
+     */
+    public boolean isHeld(CredentialIdentity identity) {
+        return entries.containsKey(identity);
+    }
+
+    /**
+     * Refresh tokens that were never fetched or expire within the refresh margin
+     */
+    @Scheduled(fixedDelayString = "${bigquery.credentials.refresh.sweep-interval-ms:30000}")
+    public void refreshExpiring() {
+        long now = System.currentTimeMillis();
+        entries.forEach((identity, entry) -> {
+            if (needsRefresh(entry.credentials.getAccessToken(), now)) {
+                refreshInBackground(identity, entry);
+            }
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        long now = System.currentTimeMillis();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("sharedCredentials", entries.size());
+        stats.put("holders", holders.size());
+        stats.put("refreshes", refreshSuccess.count());
+        stats.put("refreshFailures", refreshFailure.count());
+        stats.put("averageRefreshMs", refreshSuccess.mean(TimeUnit.MILLISECONDS));
+        stats.put("refreshMarginSeconds", TimeUnit.MILLISECONDS.toSeconds(refreshMarginMs));
+
+        Map<String, Object> perIdentity = new LinkedHashMap<>();
+        entries.forEach((identity, entry) -> {
+            AccessToken token = entry.credentials.getAccessToken();
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("holders", entry.holders.size());
+            item.put("tokenExpiresInSeconds", token != null && token.getExpirationTime() != null
+                ? (token.getExpirationTime().getTime() - now) / 1000 : null);
+            item.put("lastRefresh", entry.lastRefresh > 0 ? entry.lastRefresh : null);
+            item.put("lastRefreshError", entry.lastRefreshError);
+            item.put("refreshing", entry.refreshing.get());
+            perIdentity.put(identity.toString(), item);
+        });
+        stats.put("credentials", perIdentity);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private void unhold(CredentialIdentity identity, String holder) {
+        entries.computeIfPresent(identity, (id, entry) -> {
+            entry.holders.remove(holder);
+            if (entry.holders.isEmpty()) {
+                log.info("[CREDENTIALS] Dropped credentials {} (no holders left)", identity);
+                return null;
+            }
+            return entry;
+        });
+    }
+
+    private boolean needsRefresh(AccessToken token, long now) {
+        if (token == null) {
+            return true;
+        }
+        return token.getExpirationTime() != null && token.getExpirationTime().getTime() - now <= refreshMarginMs;
+    }
+
+    private void refreshInBackground(CredentialIdentity identity, Entry entry) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> refresh(identity, entry));
+        } catch (RejectedExecutionException e) {
+            // Refreshed by the next sweep, or by the next request if it comes first
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void refresh(CredentialIdentity identity, Entry entry) {
+        long start = System.nanoTime();
+        try {
+            entry.credentials.refresh();
+            refreshSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            entry.lastRefresh = System.currentTimeMillis();
+            entry.lastRefreshError = null;
+            log.debug("[CREDENTIALS] Refreshed access token of {} in {} ms", identity,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (IOException | RuntimeException e) {
+            refreshFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            entry.lastRefreshError = e.getMessage();
+            log.warn("[CREDENTIALS] Access token refresh of {} failed: {}", identity, e.getMessage());
+        } finally {
+            entry.refreshing.set(false);
+        }
+    }
+
+    private static Timer refreshTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("bigquery.credentials.refresh")
+            .description("Background OAuth access token refresh of shared credentials")
+            .tags("outcome", outcome)
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofMillis(1))
+            .maximumExpectedValue(Duration.ofMinutes(1))
+            .register(registry);
+    }
+
+    private static final class Entry {
+        private final GoogleCredentials credentials;
+        private final Set<String> holders = ConcurrentHashMap.newKeySet();
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile long lastRefresh;
+        private volatile String lastRefreshError;
+
+        private Entry(GoogleCredentials credentials) {
+            this.credentials = credentials;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.mercadolibre.incidenciabq.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key into one execution
+ *
+ * The first caller for a key (the leader) runs the call on its own thread; callers that arrive
+ * while it is running wait for it and get the same result, or the same exception. Nothing is
+ * kept once the call completes: this only deduplicates work that is in flight at the same time.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong suppressed = new AtomicLong();
+
+    /**
+     * Run the call, or join the identical call already running for this key
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> mine = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            suppressed.incrementAndGet();
+            return await(running);
+        }
+
+        executions.incrementAndGet();
+        try {
+            V value = call.get();
+            mine.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Wait for the call running for this key, if any
+     *
+     * @return its result, or null if no call is in flight for the key
+     */
+    public V awaitIfInFlight(K key) {
+        CompletableFuture<V> running = inFlight.get(key);
+        if (running == null) {
+            return null;
+        }
+        suppressed.incrementAndGet();
+        return await(running);
+    }
+
+    /**
+     * Detach the calls running for matching keys: they finish for the callers already waiting on
+     * them, but later callers start a new call instead of joining one that began before this
+     */
+    public void forget(Predicate<K> keys) {
+        inFlight.keySet().removeIf(keys);
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    /** Calls actually executed */
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    /** Calls that joined an execution already in flight instead of running their own */
+    public long getSuppressed() {
+        return suppressed.get();
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.mercadolibre.incidenciabq.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+
+/**
+ * High-cardinality string column of a compact listing (table and field names, descriptions)
+ *
+ * The UTF-8 bytes of every row live in one array with an end offset per row, instead of a String
+ * object plus its own byte array per row. A column whose rows are all null (descriptions, usually)
+ * holds no arrays at all. Values are decoded into a new String on every get().
+ */
+final class StringColumn {
+
+    private static final StringColumn ALL_NULL = new StringColumn(null, null, null);
+
+    private final byte[] data;
+    /** End offset of every row's bytes; row i starts where row i - 1 ends */
+    private final int[] ends;
+    /** Rows that are null, or null when none is */
+    private final BitSet nulls;
+
+    private StringColumn(byte[] data, int[] ends, BitSet nulls) {
+        this.data = data;
+        this.ends = ends;
+        this.nulls = nulls;
+    }
+
+    static StringColumn of(int size, IntFunction<String> values) {
+        byte[] data = new byte[Math.max(16, size * 16)];
+        int[] ends = new int[size];
+        BitSet nulls = null;
+        int length = 0;
+        for (int row = 0; row < size; row++) {
+            String value = values.apply(row);
+            if (value == null) {
+                if (nulls == null) {
+                    nulls = new BitSet(size);
+                }
+                nulls.set(row);
+            } else {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                if (length + bytes.length > data.length) {
+                    data = Arrays.copyOf(data, Math.max(data.length * 2, length + bytes.length));
+                }
+                System.arraycopy(bytes, 0, data, length, bytes.length);
+                length += bytes.length;
+            }
+            ends[row] = length;
+        }
+        if (nulls != null && nulls.cardinality() == size) {
+            return ALL_NULL;
+        }
+        return new StringColumn(Arrays.copyOf(data, length), ends, nulls);
+    }
+
+    String get(int row) {
+        if (ends == null || (nulls != null && nulls.get(row))) {
+            return null;
+        }
+        int start = row == 0 ? 0 : ends[row - 1];
+        return new String(data, start, ends[row] - start, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * True when every row is null
+     */
+    boolean isAllNull() {
+        return ends == null;
+    }
+
+    /**
+     * Every row decoded, in order
+     */
+    String[] toArray(int size) {
+        String[] values = new String[size];
+        for (int row = 0; row < size; row++) {
+            values[row] = get(row);
+        }
+        return values;
+    }
+
+    long estimatedBytes() {
+        if (ends == null) {
+            return 0;
+        }
+        return 24 + (16 + data.length) + (16 + 4L * ends.length)
+            + (nulls != null ? 40 + nulls.size() / 8 : 0);
+    }
+}
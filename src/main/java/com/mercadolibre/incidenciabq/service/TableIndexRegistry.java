@@ -0,0 +1,40 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mercadolibre.incidenciabq.model.Table;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Table-name search indexes, one per cached table listing
+ *
+ * Indexes are keyed by the listing instance held in MetadataCache (weak, identity-based keys):
+ * when a listing is refreshed the cache holds a new List, the next search builds a fresh index
+ * for it, and the index of the old listing is dropped once that listing is garbage collected.
+ */
+@Component
+@Slf4j
+public class TableIndexRegistry {
+
+    private final Cache<List<Table>, TableNameIndex> indexes = Caffeine.newBuilder().weakKeys().build();
+
+    /**
+     * Search a listing by table name, building its index on the first search
+     */
+    public List<Table> search(List<Table> listing, String query, int limit) {
+        return indexFor(listing).search(listing, query, limit);
+    }
+
+    public TableNameIndex indexFor(List<Table> listing) {
+        return indexes.get(listing, key -> {
+            long start = System.currentTimeMillis();
+            TableNameIndex index = TableNameIndex.build(key);
+            log.info("[INDEX] Built table-name index for {} tables in {} ms",
+                    index.size(), System.currentTimeMillis() - start);
+            return index;
+        });
+    }
+}
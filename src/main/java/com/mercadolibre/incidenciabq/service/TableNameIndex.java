@@ -0,0 +1,200 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.model.Table;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable, case-insensitive search index over the table names of one dataset listing
+ *
+ * - Prefix lookups: binary search over the lower-cased names, kept in sorted order
+ * - Substring lookups: trigram postings (trigram → sorted positions of names containing it);
+ *   the postings of the query's rarest trigrams are intersected and the survivors verified
+ *
+ * Results are ranked prefix matches first, then other substring matches, each in name order.
+ * The index keeps positions into the listing, not the tables, so a compact listing
+ * (CompactTableList) is not expanded into Table objects to index it.
+ */
+public final class TableNameIndex {
+
+    private static final int GRAM = 3;
+
+    /** Listing position of every key */
+    private final int[] rows;
+    private final String[] keys;
+    private final Map<Long, int[]> postings;
+
+    private TableNameIndex(int[] rows, String[] keys, Map<Long, int[]> postings) {
+        this.rows = rows;
+        this.keys = keys;
+        this.postings = postings;
+    }
+
+    public static TableNameIndex build(List<Table> listing) {
+        String[] names = new String[listing.size()];
+        for (int i = 0; i < names.length; i++) {
+            String tableId = listing instanceof CompactTableList
+                ? ((CompactTableList) listing).getTableId(i)
+                : listing.get(i).getTableId();
+            names[i] = tableId.toLowerCase(Locale.ROOT);
+        }
+        Integer[] order = new Integer[names.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer row) -> names[row]));
+        int[] rows = new int[order.length];
+        String[] keys = new String[order.length];
+        for (int i = 0; i < order.length; i++) {
+            rows[i] = order[i];
+            keys[i] = names[order[i]];
+        }
+
+        // Positions are added in ascending order, so every posting list comes out sorted
+        Map<Long, IntList> building = new HashMap<>();
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            for (int j = 0; j + GRAM <= key.length(); j++) {
+                IntList list = building.computeIfAbsent(trigram(key, j), k -> new IntList());
+                if (list.size == 0 || list.last() != i) {
+                    list.add(i);
+                }
+            }
+        }
+        Map<Long, int[]> postings = new HashMap<>(building.size() * 2);
+        building.forEach((gram, list) -> postings.put(gram, list.toArray()));
+        return new TableNameIndex(rows, keys, postings);
+    }
+
+    /**
+     * Top-k tables whose name starts with or contains the query (case-insensitive)
+     *
+     * @param listing the listing the index was built from
+     */
+    public List<Table> search(List<Table> listing, String query, int limit) {
+        String q = query.toLowerCase(Locale.ROOT);
+        List<Table> results = new ArrayList<>(Math.min(limit, 64));
+        if (q.isEmpty() || limit <= 0) {
+            return results;
+        }
+
+        // 1. Prefix matches: one contiguous run in the sorted keys
+        int prefixStart = lowerBound(q);
+        int prefixEnd = prefixStart;
+        while (prefixEnd < keys.length && keys[prefixEnd].startsWith(q)) {
+            if (results.size() < limit) {
+                results.add(listing.get(rows[prefixEnd]));
+            }
+            prefixEnd++;
+        }
+        if (results.size() >= limit) {
+            return results;
+        }
+
+        // 2. Substring matches outside the prefix run
+        if (q.length() < GRAM) {
+            for (int i = 0; i < keys.length && results.size() < limit; i++) {
+                if ((i < prefixStart || i >= prefixEnd) && keys[i].contains(q)) {
+                    results.add(listing.get(rows[i]));
+                }
+            }
+            return results;
+        }
+        for (int i : candidates(q)) {
+            if (results.size() >= limit) {
+                break;
+            }
+            if ((i < prefixStart || i >= prefixEnd) && keys[i].contains(q)) {
+                results.add(listing.get(rows[i]));
+            }
+        }
+        return results;
+    }
+
+    public int size() {
+        return keys.length;
+    }
+
+    /**
+     * Positions containing every trigram of the query (a superset of the true matches)
+     */
+    private int[] candidates(String q) {
+        List<int[]> lists = new ArrayList<>();
+        for (int j = 0; j + GRAM <= q.length(); j++) {
+            int[] list = postings.get(trigram(q, j));
+            if (list == null) {
+                return new int[0];
+            }
+            lists.add(list);
+        }
+        lists.sort(Comparator.comparingInt(list -> list.length));
+        int[] result = lists.get(0);
+        for (int k = 1; k < lists.size() && result.length > 0; k++) {
+            result = intersect(result, lists.get(k));
+        }
+        return result;
+    }
+
+    private int lowerBound(String q) {
+        int low = 0;
+        int high = keys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keys[mid].compareTo(q) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] out = new int[Math.min(a.length, b.length)];
+        int i = 0;
+        int j = 0;
+        int n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                out[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long trigram(String s, int offset) {
+        return ((long) s.charAt(offset) << 32) | ((long) s.charAt(offset + 1) << 16) | s.charAt(offset + 2);
+    }
+
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int last() {
+            return values[size - 1];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.mercadolibre.incidenciabq.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread factories for the internal pools (BigQuery I/O, REST page prefetch, cache refresh)
+ *
+ * spring.threads.virtual.enabled=true switches them to virtual threads, the same property that makes
+ * Spring Boot run Tomcat request handling on virtual threads. Both services block on I/O (REST page
+ * iteration, JDBC executeQuery), so a virtual thread waiting on BigQuery costs a few KB of heap
+ * instead of a platform thread and its stack.
+ *
+ * The build targets Java 17, so virtual threads are created through reflection: on a Java 21 runtime
+ * they are used, on older runtimes the pools fall back to platform threads with a warning.
+ */
+@Component
+@Slf4j
+public class WorkerThreads {
+
+    private final boolean virtual;
+
+    /** Thread.ofVirtual(), Thread.Builder.name(String, long) and Thread.Builder.factory(), or null below Java 21 */
+    private final Method ofVirtual;
+    private final Method builderName;
+    private final Method builderFactory;
+
+    public WorkerThreads(@Value("${spring.threads.virtual.enabled:false}") boolean virtualRequested) {
+        Method[] methods = virtualRequested ? virtualThreadMethods() : null;
+        this.ofVirtual = methods != null ? methods[0] : null;
+        this.builderName = methods != null ? methods[1] : null;
+        this.builderFactory = methods != null ? methods[2] : null;
+        this.virtual = methods != null;
+        log.info("[THREADS] Internal pools use {} threads", virtual ? "virtual" : "platform");
+    }
+
+    /**
+     * Whether the pools run on virtual threads
+     */
+    public boolean isVirtual() {
+        return virtual;
+    }
+
+    /**
+     * Factory of threads named prefix1, prefix2, ... (daemon platform threads, or virtual threads)
+     */
+    public ThreadFactory factory(String prefix) {
+        if (virtual) {
+            try {
+                Object builder = builderName.invoke(ofVirtual.invoke(null), prefix, 1L);
+                return (ThreadFactory) builderFactory.invoke(builder);
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Failed to create virtual thread factory", e);
+            }
+        }
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static Method[] virtualThreadMethods() {
+        try {
+            Class<?> builder = Class.forName("java.lang.Thread$Builder");
+            return new Method[] {
+                Thread.class.getMethod("ofVirtual"),
+                builder.getMethod("name", String.class, long.class),
+                builder.getMethod("factory")
+            };
+        } catch (ReflectiveOperationException e) {
+            log.warn("[THREADS] spring.threads.virtual.enabled=true but Java {} has no virtual threads (Java 21+ required), " +
+                "using platform threads", Runtime.version().feature());
+            return null;
+        }
+    }
+}
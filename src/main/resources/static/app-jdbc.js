@@ -172,7 +172,7 @@ async function loadTables(datasetId) {
         // Step 2: API call (to JDBC endpoint)
         const apiCallStart = Date.now();
         console.log(`[TIMING][JDBC] Fetching tables for dataset '${datasetId}' via JDBC from API...`);
-        const response = await fetch(`${API_BASE_URL}/datasets/${datasetId}/tables`);
+        const response = await fetch(`${API_BASE_URL}/datasets/${datasetId}/tables?format=columnar`);
         const apiCallTime = logTiming('Step 2/4: API call (JDBC endpoint)', apiCallStart);
         
         if (!response.ok) {
@@ -181,7 +181,7 @@ async function loadTables(datasetId) {
         
         // Step 3: Parse JSON
         const parseStart = Date.now();
-        const tables = await response.json();
+        const tables = decodeColumnarTables(await response.json());
         const parseTime = logTiming('Step 3/4: JSON parsing', parseStart);
         
         hideLoading(loadingTables);
@@ -219,6 +219,23 @@ async function loadTables(datasetId) {
     }
 }
 
+// Decode a ?format=columnar listing back into table objects: each attribute is either a
+// constant, a dictionary plus one index per table, or a plain array with one value per table
+function decodeColumnarTables(columnar) {
+    const { count, constants, dictionaries, columns } = columnar;
+    const tables = new Array(count);
+    for (let i = 0; i < count; i++) {
+        tables[i] = { ...constants };
+    }
+    for (const [name, column] of Object.entries(columns)) {
+        const dictionary = dictionaries[name];
+        for (let i = 0; i < count; i++) {
+            tables[i][name] = dictionary ? dictionary[column[i]] : column[i];
+        }
+    }
+    return tables;
+}
+
 // Create Table Item
 function createTableItem(table) {
     const createStart = Date.now();
@@ -0,0 +1,136 @@
+package com.mercadolibre.incidenciabq.load;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs concurrent simulated users against the running app and reports throughput and latency percentiles
+ *
+ * Every user runs its steps back to back (closed loop, no think time); all users start together.
+ * A step is one HTTP call; non-2xx statuses and exceptions count as errors.
+ */
+public class LoadDriver {
+
+    /** Matches the app's bigquery.io.request-timeout-ms, after which it answers 504 itself */
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(Long.getLong("load.requestTimeoutSeconds", 300));
+
+    @FunctionalInterface
+    public interface Step {
+        /**
+         * One request of a user, returning its HTTP status
+         */
+        int run(LoadDriver driver, int user, int iteration) throws Exception;
+    }
+
+    /**
+     * Outcome of one run; latencies in milliseconds
+     */
+    public record Report(String name, int users, int requests, int errors, long wallMs,
+                         double throughput, long p50, long p99, long max) {
+
+        @Override
+        public String toString() {
+            return String.format("[LOAD] %-32s users=%3d requests=%5d errors=%3d wall=%6d ms  %8.1f req/s  p50=%5d ms  p99=%5d ms  max=%5d ms",
+                name, users, requests, errors, wallMs, throughput, p50, p99, max);
+        }
+    }
+
+    private final String baseUrl;
+    private final HttpClient client;
+
+    public LoadDriver(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    }
+
+    public HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return get(path, "application/json");
+    }
+
+    public HttpResponse<String> get(String path, String accept) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", accept)
+            .GET()
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    /**
+     * GET path and return only the status (the body is read and discarded)
+     */
+    public int getStatus(String path) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .GET()
+            .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    public Report run(String name, int users, int iterationsPerUser, Step step) throws InterruptedException {
+        long[] latencies = new long[users * iterationsPerUser];
+        AtomicInteger recorded = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        List<Future<?>> running = new ArrayList<>(users);
+        try {
+            for (int u = 0; u < users; u++) {
+                int user = u;
+                running.add(executor.submit(() -> {
+                    start.await();
+                    for (int iteration = 0; iteration < iterationsPerUser; iteration++) {
+                        long requestStart = System.nanoTime();
+                        try {
+                            int status = step.run(this, user, iteration);
+                            if (status < 200 || status >= 300) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[recorded.getAndIncrement()] = (System.nanoTime() - requestStart) / 1_000_000;
+                    }
+                    return null;
+                }));
+            }
+            long runStart = System.nanoTime();
+            start.countDown();
+            for (Future<?> user : running) {
+                try {
+                    user.get();
+                } catch (Exception e) {
+                    throw new IllegalStateException("Load user failed", e);
+                }
+            }
+            long wallMs = Math.max(1, (System.nanoTime() - runStart) / 1_000_000);
+
+            Arrays.sort(latencies);
+            int requests = latencies.length;
+            Report report = new Report(name, users, requests, errors.get(), wallMs, requests * 1000.0 / wallMs,
+                percentile(latencies, 0.50), percentile(latencies, 0.99), latencies[requests - 1]);
+            System.out.println(report);
+            return report;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(sorted.length * quantile) - 1)];
+    }
+}
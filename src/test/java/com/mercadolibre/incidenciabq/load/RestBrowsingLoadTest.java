@@ -0,0 +1,184 @@
+package com.mercadolibre.incidenciabq.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.incidenciabq.fake.FakeBigQueryServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load harness for the REST backend against FakeBigQueryServer: no network, no GCP project
+ *
+ * Sizes default to a run of a few seconds and can be raised from the command line, e.g. the
+ * 30k-table listing of PERFORMANCE_ANALYSIS.md with its ~50-table pages and ~320 ms per page:
+ *
+ *   mvn test -Dtest=RestBrowsingLoadTest -Dfake.pageSize=50 -Dfake.pageLatencyMs=320 -Dload.users=20
+ *
+ * Each run prints a [LOAD] line with throughput and p50/p99 latency.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "bigquery.catalog.snapshot.enabled=false",
+    "logging.file.name=target/load-test.log",
+    "logging.level.com.mercadolibre=WARN",
+    "logging.level.com.mercadolibre.incidenciabq.service=WARN",
+    "logging.level.com.mercadolibre.incidenciabq.controller=WARN"
+})
+class RestBrowsingLoadTest {
+
+    private static final String PROJECT_ID = "load-test-project";
+    private static final String LARGE_DATASET = "large";
+
+    private static final int USERS = Integer.getInteger("load.users", 8);
+    private static final int ITERATIONS = Integer.getInteger("load.iterations", 5);
+    private static final int TABLES_PER_DATASET = Integer.getInteger("load.tables", 2000);
+    private static final int LARGE_DATASET_TABLES = Integer.getInteger("load.largeTables", 30000);
+    private static final int PAGE_SIZE = Integer.getInteger("fake.pageSize", 1000);
+    private static final long PAGE_LATENCY_MS = Long.getLong("fake.pageLatencyMs", 5);
+
+    private static FakeBigQueryServer fake;
+
+    @LocalServerPort
+    private int port;
+
+    private LoadDriver driver;
+
+    @DynamicPropertySource
+    static void fakeBigQuery(DynamicPropertyRegistry registry) throws IOException {
+        FakeBigQueryServer.Builder builder = FakeBigQueryServer.builder()
+            .dataset(LARGE_DATASET, LARGE_DATASET_TABLES)
+            .pageSize(PAGE_SIZE)
+            .pageLatencyMs(PAGE_LATENCY_MS);
+        // One dataset per cold listing, so every listing misses the metadata cache
+        for (int user = 0; user < USERS; user++) {
+            for (int iteration = 0; iteration < ITERATIONS; iteration++) {
+                builder.dataset(coldDataset(user, iteration), TABLES_PER_DATASET);
+            }
+        }
+        fake = builder.start();
+        Path key = fake.writeServiceAccountKey(Files.createTempFile("fake-service-account-", ".json"), PROJECT_ID);
+        key.toFile().deleteOnExit();
+
+        registry.add("bigquery.rest.host", fake::getUrl);
+        registry.add("bigquery.project.id", () -> PROJECT_ID);
+        registry.add("bigquery.service.account.key.path", key::toString);
+    }
+
+    @AfterAll
+    static void stopFake() {
+        if (fake != null) {
+            fake.close();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        driver = new LoadDriver("http://localhost:" + port);
+    }
+
+    @Test
+    void listsLargeDatasetOffline() throws Exception {
+        long pagesBefore = fake.getTablePageRequests();
+        long start = System.nanoTime();
+        HttpResponse<String> response = driver.get("/api/bigquery/datasets/" + LARGE_DATASET + "/tables");
+        System.out.printf("[LOAD] cold %d-table listing: %d ms (%d pages of %d, %d ms per page)%n", LARGE_DATASET_TABLES,
+            (System.nanoTime() - start) / 1_000_000, fake.getTablePageRequests() - pagesBefore, PAGE_SIZE, PAGE_LATENCY_MS);
+        assertEquals(200, response.statusCode());
+
+        JsonNode tables = new ObjectMapper().readTree(response.body());
+        assertEquals(LARGE_DATASET_TABLES, tables.size());
+        assertEquals(FakeBigQueryServer.tableId(0), tables.get(0).get("tableId").asText());
+        assertEquals(PROJECT_ID, tables.get(0).get("projectId").asText());
+        assertEquals((LARGE_DATASET_TABLES + PAGE_SIZE - 1) / PAGE_SIZE, fake.getTablePageRequests() - pagesBefore);
+        // The access token came from the fake too: nothing left the machine
+        assertTrue(fake.getTokenRequests() > 0);
+
+        LoadDriver.Report report = driver.run("cached " + LARGE_DATASET_TABLES + "-table listing", USERS, ITERATIONS,
+            (d, user, iteration) -> d.getStatus("/api/bigquery/datasets/" + LARGE_DATASET + "/tables"));
+        assertEquals(0, report.errors());
+
+        HttpResponse<String> columnar = driver.get("/api/bigquery/datasets/" + LARGE_DATASET + "/tables?format=columnar");
+        assertEquals(200, columnar.statusCode());
+        System.out.printf("[LOAD] %d-table listing body: %d bytes as objects, %d bytes columnar%n", LARGE_DATASET_TABLES,
+            response.body().length(), columnar.body().length());
+        JsonNode columns = new ObjectMapper().readTree(columnar.body());
+        assertEquals(LARGE_DATASET_TABLES, columns.get("count").asInt());
+        assertEquals(PROJECT_ID, columns.get("constants").get("projectId").asText());
+        assertEquals(FakeBigQueryServer.tableId(0), columns.get("columns").get("tableId").get(0).asText());
+
+        report = driver.run("cached " + LARGE_DATASET_TABLES + "-table listing, columnar", USERS, ITERATIONS,
+            (d, user, iteration) -> d.getStatus("/api/bigquery/datasets/" + LARGE_DATASET + "/tables?format=columnar"));
+        assertEquals(0, report.errors());
+    }
+
+    @Test
+    void coldTableListingsUnderConcurrentUsers() throws Exception {
+        LoadDriver.Report report = driver.run("cold " + TABLES_PER_DATASET + "-table listings", USERS, ITERATIONS,
+            (d, user, iteration) -> d.getStatus("/api/bigquery/datasets/" + coldDataset(user, iteration) + "/tables"));
+        assertEquals(0, report.errors());
+    }
+
+    @Test
+    void streamsTableListingOnTheIoExecutor() throws Exception {
+        long submittedBefore = ioSubmitted();
+        HttpResponse<String> response = driver.get("/api/bigquery/datasets/" + coldDataset(0, 1) + "/tables",
+            "application/x-ndjson");
+        assertEquals(200, response.statusCode());
+        assertTrue(response.headers().firstValue("Content-Type").orElse("").startsWith("application/x-ndjson"));
+
+        String[] lines = response.body().split("\n");
+        assertEquals(TABLES_PER_DATASET, lines.length);
+        assertEquals(FakeBigQueryServer.tableId(0), new ObjectMapper().readTree(lines[0]).get("tableId").asText());
+        // The stream ran on the BigQuery I/O executor, not on the Tomcat thread
+        assertTrue(ioSubmitted() > submittedBefore);
+    }
+
+    @Test
+    void browsingMix() throws Exception {
+        // Dataset list, then a table list and one table's schema, as the UI does when a dataset is opened
+        LoadDriver.Report report = driver.run("browse datasets/tables/schema", USERS, ITERATIONS * 3, (d, user, iteration) ->
+            switch (iteration % 3) {
+                case 0 -> d.getStatus("/api/bigquery/datasets");
+                case 1 -> d.getStatus("/api/bigquery/datasets/" + coldDataset(user, 0) + "/tables");
+                default -> d.getStatus("/api/bigquery/datasets/" + coldDataset(user, 0) + "/tables/"
+                    + FakeBigQueryServer.tableId(iteration % TABLES_PER_DATASET) + "/schema");
+            });
+        assertEquals(0, report.errors());
+
+        HttpResponse<String> schema = driver.get("/api/bigquery/datasets/" + LARGE_DATASET + "/tables/"
+            + FakeBigQueryServer.tableId(1) + "/schema");
+        assertEquals(200, schema.statusCode());
+        JsonNode fields = new ObjectMapper().readTree(schema.body());
+        assertEquals("column_0", fields.get(0).get("name").asText());
+    }
+
+    @Test
+    void schemaStreamRejectsDatasetIdsThatCouldEscapeTheSql() throws Exception {
+        long submittedBefore = ioSubmitted();
+        assertEquals(400, driver.getStatus("/api/bigquery/datasets/ds%60%20UNION%20SELECT%201--/schemas"));
+        assertEquals(400, driver.getStatus("/api/bigquery/datasets/x%27%20OR%20%271%27%3D%271/schemas"));
+        assertEquals(400, driver.getStatus("/api/bigquery/datasets/ds-1/schemas"));
+        // Rejected on the request thread, before any query was queued
+        assertEquals(submittedBefore, ioSubmitted());
+    }
+
+    private long ioSubmitted() throws Exception {
+        return new ObjectMapper().readTree(driver.get("/api/bigquery/io/stats").body()).get("submitted").asLong();
+    }
+
+    private static String coldDataset(int user, int iteration) {
+        return "users_" + user + "_" + iteration;
+    }
+}
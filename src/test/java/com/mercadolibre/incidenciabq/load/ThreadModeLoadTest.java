@@ -0,0 +1,128 @@
+package com.mercadolibre.incidenciabq.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.incidenciabq.fake.FakeBigQueryServer;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * How many concurrent slow cold listings the BigQuery I/O executor sustains in each thread mode
+ *
+ * Every user opens one dataset nobody listed before, so every request holds an I/O worker for
+ * all of its pages. The mode is spring.threads.virtual.enabled, taken from -Dload.virtualThreads;
+ * run the class once per mode (virtual threads need a Java 21 runtime and the java21 profile):
+ *
+ *   mvn test -Dtest=ThreadModeLoadTest -Dload.levels=100,250,500,1000 -Dfake.pageLatencyMs=500
+ *   mvn -Pjava21 test -Dtest=ThreadModeLoadTest -Dload.levels=100,250,500,1000 -Dfake.pageLatencyMs=500 -Dload.virtualThreads=true
+ *
+ * Each level prints a [LOAD] line; the errors are the listings answered 503 because the executor
+ * and its queue were full.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "spring.threads.virtual.enabled=${load.virtualThreads:false}",
+    "bigquery.catalog.snapshot.enabled=false",
+    "logging.file.name=target/load-test.log",
+    "logging.level.com.mercadolibre=WARN",
+    "logging.level.com.mercadolibre.incidenciabq.service=ERROR",
+    "logging.level.com.mercadolibre.incidenciabq.controller=WARN"
+})
+class ThreadModeLoadTest {
+
+    private static final String PROJECT_ID = "load-test-project";
+
+    private static final int[] LEVELS = Arrays.stream(System.getProperty("load.levels", "8,32").split(","))
+        .map(String::trim)
+        .mapToInt(Integer::parseInt)
+        .toArray();
+    private static final int TABLES_PER_DATASET = Integer.getInteger("load.tables", 100);
+    private static final int PAGE_SIZE = Integer.getInteger("fake.pageSize", 50);
+    private static final long PAGE_LATENCY_MS = Long.getLong("fake.pageLatencyMs", 20);
+
+    private static FakeBigQueryServer fake;
+
+    @LocalServerPort
+    private int port;
+
+    @DynamicPropertySource
+    static void fakeBigQuery(DynamicPropertyRegistry registry) throws IOException {
+        FakeBigQueryServer.Builder builder = FakeBigQueryServer.builder()
+            .pageSize(PAGE_SIZE)
+            .pageLatencyMs(PAGE_LATENCY_MS);
+        for (int level : LEVELS) {
+            for (int user = 0; user < level; user++) {
+                builder.dataset(coldDataset(level, user), TABLES_PER_DATASET);
+            }
+        }
+        fake = builder.start();
+        Path key = fake.writeServiceAccountKey(Files.createTempFile("fake-service-account-", ".json"), PROJECT_ID);
+        key.toFile().deleteOnExit();
+
+        registry.add("bigquery.rest.host", fake::getUrl);
+        registry.add("bigquery.project.id", () -> PROJECT_ID);
+        registry.add("bigquery.service.account.key.path", key::toString);
+    }
+
+    @AfterAll
+    static void stopFake() {
+        if (fake != null) {
+            fake.close();
+        }
+    }
+
+    @Test
+    void concurrentColdListings() throws Exception {
+        LoadDriver driver = new LoadDriver("http://localhost:" + port);
+        JsonNode io = ioStats(driver);
+        boolean virtual = Boolean.getBoolean("load.virtualThreads") && Runtime.version().feature() >= 21;
+        assertEquals(virtual ? "virtual" : "platform", io.get("threadMode").asText());
+        int threads = io.get("threads").asInt();
+        int admitted = threads + io.get("queueCapacity").asInt();
+        int pages = (TABLES_PER_DATASET + PAGE_SIZE - 1) / PAGE_SIZE;
+        System.out.printf("[LOAD] Java %d, %s I/O threads: %d threads + %d queued, cold listings of %d pages x %d ms%n",
+            Runtime.version().feature(), io.get("threadMode").asText(), threads, admitted - threads, pages, PAGE_LATENCY_MS);
+
+        for (int level : LEVELS) {
+            AtomicInteger unavailable = new AtomicInteger();
+            long rejectedBefore = ioStats(driver).get("rejected").asLong();
+            LoadDriver.Report report = driver.run(io.get("threadMode").asText() + " threads, cold listings", level, 1,
+                (d, user, iteration) -> {
+                    int status = d.getStatus("/api/bigquery/datasets/" + coldDataset(level, user) + "/tables");
+                    if (status == 503) {
+                        unavailable.incrementAndGet();
+                    }
+                    return status;
+                });
+            long rejected = ioStats(driver).get("rejected").asLong() - rejectedBefore;
+            int listed = level - report.errors();
+            System.out.printf("[LOAD]   %4d concurrent: %4d listed (%.1f listings/s), %4d answered 503 (executor rejected %d)%n",
+                level, listed, listed * 1000.0 / report.wallMs(), unavailable.get(), rejected);
+
+            // Saturation only ever shows up as 503s, and never while every listing gets its own worker
+            assertEquals(report.errors(), unavailable.get());
+            if (level <= threads) {
+                assertEquals(0, report.errors());
+            }
+        }
+    }
+
+    private static JsonNode ioStats(LoadDriver driver) throws Exception {
+        return new ObjectMapper().readTree(driver.get("/api/bigquery/io/stats").body());
+    }
+
+    private static String coldDataset(int level, int user) {
+        return "level_" + level + "_user_" + user;
+    }
+}
@@ -0,0 +1,149 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.model.Dataset;
+import com.mercadolibre.incidenciabq.model.Field;
+import com.mercadolibre.incidenciabq.model.Table;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip of the binary snapshot format: write(), open(), lookup() and readAll()
+ */
+class CatalogSnapshotFileTest {
+
+    private static final String IDENTITY = "loader@project.iam.gserviceaccount.com#ab12cd34";
+
+    @TempDir
+    Path dir;
+
+    private Map<MetadataCacheKey, CachedMetadata> entries;
+
+    @BeforeEach
+    void setUp() {
+        entries = new LinkedHashMap<>();
+        // Inserted out of directory order on purpose: write() has to sort them the way lookup() searches
+        put(MetadataCacheKey.of("jdbc", IDENTITY, MetadataCacheKey.Type.SCHEMA, "ventas", "pedidos_año"), List.of(
+            new Field("número", "INT64", "REQUIRED", "Identificador único"),
+            new Field("detalle", "STRUCT<a STRING>", null, null)), 3000L);
+        put(MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.TABLES, "ventas", null), List.of(
+            new Table("pedidos_año", "ventas", "p-1", "Pedidos del año", null, "TABLE", 1700000000000L, 42L),
+            new Table("vista_日本", "ventas", "p-1", null, "ビュー", "VIEW", 1700000001000L, null)), 2000L);
+        put(MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.DATASETS, null, null), List.of(
+            new Dataset("ventas", "p-1", null, "Ventas €", "US", 1600000000000L),
+            new Dataset("zeta", "p-1", "Zeta", null, null, null)), 1000L);
+        put(MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.SCHEMA, "ventas", "pedidos_año"), List.of(
+            new Field("id", "STRING", "NULLABLE", null)), 4000L);
+        put(MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.TABLES, "vacío", null), List.of(), 5000L);
+    }
+
+    @Test
+    void lookupReturnsWhatWasWritten() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        assertEquals(entries.size(), CatalogSnapshotFile.write(path, IDENTITY, entries));
+
+        CatalogSnapshotFile snapshot = CatalogSnapshotFile.open(path);
+        assertEquals(IDENTITY, snapshot.getIdentity());
+        assertEquals(entries.size(), snapshot.getEntryCount());
+        assertEquals(2, snapshot.getTableCount());
+        assertEquals(Files.size(path), snapshot.getSizeBytes());
+
+        entries.forEach((key, expected) -> {
+            CachedMetadata actual = snapshot.lookup(key);
+            assertEquals(expected.getValue(), actual.getValue(), key.toString());
+            assertEquals(expected.getLoadedAt(), actual.getLoadedAt(), key.toString());
+            assertTrue(actual.isFromSnapshot());
+        });
+    }
+
+    @Test
+    void lookupMissesUnknownKeys() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        CatalogSnapshotFile.write(path, IDENTITY, entries);
+        CatalogSnapshotFile snapshot = CatalogSnapshotFile.open(path);
+
+        assertNull(snapshot.lookup(MetadataCacheKey.of("jdbc", IDENTITY, MetadataCacheKey.Type.DATASETS, null, null)));
+        assertNull(snapshot.lookup(MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.TABLES, "otro", null)));
+        assertNull(snapshot.lookup(MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.SCHEMA, "ventas", "pedidos")));
+        assertNull(snapshot.lookup(MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.SCHEMA, "ventas", "zzz")));
+        assertNull(snapshot.lookup(MetadataCacheKey.of("aaa", IDENTITY, MetadataCacheKey.Type.DATASETS, null, null)));
+    }
+
+    @Test
+    void readAllDecodesEveryEntry() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        CatalogSnapshotFile.write(path, IDENTITY, entries);
+
+        Map<MetadataCacheKey, CachedMetadata> read = CatalogSnapshotFile.open(path).readAll();
+        assertEquals(entries.keySet(), read.keySet());
+        entries.forEach((key, expected) -> assertEquals(expected.getValue(), read.get(key).getValue(), key.toString()));
+    }
+
+    @Test
+    void skipsValuesItCannotEncode() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        MetadataCacheKey other = MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.TABLES, "raro", null);
+        entries.put(other, new CachedMetadata(List.of("not a table"), 0, 6000L, false));
+
+        assertEquals(entries.size() - 1, CatalogSnapshotFile.write(path, IDENTITY, entries));
+        assertNull(CatalogSnapshotFile.open(path).lookup(other));
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        CatalogSnapshotFile.write(path, IDENTITY, entries);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(file.length() - 1);
+        }
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.open(path));
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.setLength(40);
+        }
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.open(path));
+    }
+
+    @Test
+    void rejectsWrongMagicOrVersion() throws IOException {
+        Path path = dir.resolve("snapshot.bin");
+        CatalogSnapshotFile.write(path, IDENTITY, entries);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.writeInt(CatalogSnapshotFile.VERSION + 1);
+            file.seek(4);
+            file.writeInt(CatalogSnapshotFile.VERSION);
+        }
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.open(path));
+
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.writeInt(CatalogSnapshotFile.MAGIC);
+            file.writeInt(CatalogSnapshotFile.VERSION + 1);
+        }
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.open(path));
+    }
+
+    @Test
+    void rejectsFileThatIsNotASnapshot() throws IOException {
+        Path path = Files.writeString(dir.resolve("snapshot.bin"), "{\"tables\": []}");
+        assertThrows(IOException.class, () -> CatalogSnapshotFile.open(path));
+        assertFalse(Files.exists(dir.resolve("snapshot.bin.tmp")));
+    }
+
+    private void put(MetadataCacheKey key, List<?> value, long loadedAt) {
+        entries.put(key, new CachedMetadata(value, 0, loadedAt, false));
+    }
+}
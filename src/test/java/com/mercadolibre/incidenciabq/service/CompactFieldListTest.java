@@ -0,0 +1,71 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.model.Field;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip of the column-by-column table schema
+ */
+class CompactFieldListTest {
+
+    @Test
+    void readsBackEveryField() {
+        List<Field> fields = List.of(
+            new Field("número", "INT64", "REQUIRED", "Identificador único"),
+            new Field("detalle", "STRUCT<a STRING, b ARRAY<INT64>>", null, null),
+            new Field("notas", "STRING", "NULLABLE", ""),
+            new Field("sin_tipo", null, "REPEATED", null));
+        CompactFieldList compact = CompactFieldList.of(fields);
+
+        assertEquals(fields, compact);
+        assertNull(compact.get(1).getMode());
+        assertNull(compact.get(3).getType());
+        assertThrows(IndexOutOfBoundsException.class, () -> compact.get(-1));
+    }
+
+    @Test
+    void moreThan256DistinctTypesUseIntCodes() {
+        List<Field> fields = new ArrayList<>();
+        for (int row = 0; row < 600; row++) {
+            fields.add(new Field("column_" + row, "STRUCT<f" + row % 300 + " STRING>",
+                row % 5 == 0 ? null : "NULLABLE", row % 2 == 0 ? null : "description " + row));
+        }
+
+        assertEquals(fields, CompactFieldList.of(fields));
+    }
+
+    @Test
+    void copiesListsWithoutRandomAccess() {
+        List<Field> fields = new LinkedList<>(List.of(
+            new Field("a", "STRING", "NULLABLE", null),
+            new Field("b", "INT64", "REQUIRED", null)));
+        CompactFieldList compact = CompactFieldList.of(fields);
+
+        assertEquals(fields, compact);
+        assertSame(compact, CompactFieldList.of(compact));
+    }
+
+    @Test
+    void weightCountsDictionaryValues() {
+        String longType = "STRUCT<" + "nested_field STRING, ".repeat(50) + "last INT64>";
+        List<Field> shortTypes = new ArrayList<>();
+        List<Field> longTypes = new ArrayList<>();
+        for (int row = 0; row < 100; row++) {
+            shortTypes.add(new Field("c" + row, "STRING", "NULLABLE", null));
+            longTypes.add(new Field("c" + row, longType, "NULLABLE", null));
+        }
+
+        long difference = CompactFieldList.of(longTypes).estimatedBytes() - CompactFieldList.of(shortTypes).estimatedBytes();
+        assertTrue(difference >= longType.length() - "STRING".length(), "difference " + difference);
+    }
+}
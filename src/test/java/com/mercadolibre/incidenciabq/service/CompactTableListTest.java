@@ -0,0 +1,130 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.model.ColumnarTables;
+import com.mercadolibre.incidenciabq.model.Table;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip of the column-by-column table listing, and its columnar form
+ */
+class CompactTableListTest {
+
+    @Test
+    void readsBackEveryTable() {
+        List<Table> tables = List.of(
+            new Table("pedidos_año", "ventas", "p-1", "Pedidos del año", null, "TABLE", 1700000000000L, 42L),
+            new Table("vista_日本", "ventas", "p-1", null, "ビュー", "VIEW", 1700000001000L, null),
+            new Table("externa", "ventas", "p-1", "", "", "EXTERNAL", null, 0L),
+            new Table("sin_tipo", "ventas", "p-1", null, null, null, null, null));
+        CompactTableList compact = CompactTableList.of(tables);
+
+        assertEquals(tables, compact);
+        assertEquals(tables.size(), compact.size());
+        assertEquals("vista_日本", compact.getTableId(1));
+        assertNull(compact.get(1).getNumRows());
+        assertNull(compact.get(2).getCreationTime());
+        assertEquals(0L, compact.get(2).getNumRows());
+        assertNull(compact.get(3).getType());
+        assertThrows(IndexOutOfBoundsException.class, () -> compact.get(tables.size()));
+    }
+
+    @Test
+    void moreThan256DistinctValuesUseIntCodes() {
+        List<Table> tables = new ArrayList<>();
+        for (int row = 0; row < 1000; row++) {
+            tables.add(new Table("table_" + row, "dataset_" + row % 300, row % 2 == 0 ? "p-1" : null, null, null,
+                "TYPE_" + row % 260, (long) row, row % 3 == 0 ? null : (long) row * 10));
+        }
+        CompactTableList compact = CompactTableList.of(tables);
+
+        assertEquals(tables, compact);
+        ColumnarTables columnar = compact.toColumnar();
+        assertEquals(300, columnar.getDictionaries().get("datasetId").size());
+        assertEquals(260, columnar.getDictionaries().get("type").size());
+        int[] typeCodes = (int[]) columnar.getColumns().get("type");
+        assertEquals("TYPE_259", columnar.getDictionaries().get("type").get(typeCodes[259]));
+        assertEquals("TYPE_0", columnar.getDictionaries().get("type").get(typeCodes[260]));
+    }
+
+    @Test
+    void copiesListsWithoutRandomAccess() {
+        List<Table> tables = new LinkedList<>();
+        for (int row = 0; row < 10; row++) {
+            tables.add(new Table("t" + row, "ds", "p", null, null, "TABLE", null, null));
+        }
+        CompactTableList compact = CompactTableList.of(tables);
+
+        assertEquals(tables, compact);
+        assertSame(compact, CompactTableList.of(compact));
+    }
+
+    @Test
+    void columnarFormKeepsNullsAndConstants() {
+        List<Table> tables = List.of(
+            new Table("a", "ds", "p", null, null, "TABLE", 1L, null),
+            new Table("b", "ds", "p", null, null, "VIEW", 2L, 5L),
+            new Table("c", "ds", "p", null, null, "TABLE", 3L, null));
+        ColumnarTables columnar = CompactTableList.of(tables).toColumnar();
+
+        assertEquals(3, columnar.getCount());
+        assertEquals("ds", columnar.getConstants().get("datasetId"));
+        assertEquals("p", columnar.getConstants().get("projectId"));
+        assertTrue(columnar.getConstants().containsKey("friendlyName"));
+        assertNull(columnar.getConstants().get("description"));
+        assertArrayEquals(new String[] {"a", "b", "c"}, (String[]) columnar.getColumns().get("tableId"));
+        assertEquals(List.of("TABLE", "VIEW"), columnar.getDictionaries().get("type"));
+        assertArrayEquals(new int[] {0, 1, 0}, (int[]) columnar.getColumns().get("type"));
+        assertArrayEquals(new long[] {1L, 2L, 3L}, (long[]) columnar.getColumns().get("creationTime"));
+        assertEquals(Arrays.asList(null, 5L, null), Arrays.asList((Long[]) columnar.getColumns().get("numRows")));
+        assertFalse(columnar.getConstants().containsKey("numRows"));
+    }
+
+    @Test
+    void allNullLongColumnsBecomeConstants() {
+        List<Table> tables = List.of(
+            new Table("a", "ds", "p", null, null, "TABLE", null, null),
+            new Table("b", "ds", "p", null, null, "TABLE", null, null));
+        ColumnarTables columnar = CompactTableList.of(tables).toColumnar();
+
+        assertTrue(columnar.getConstants().containsKey("creationTime"));
+        assertTrue(columnar.getConstants().containsKey("numRows"));
+        assertFalse(columnar.getColumns().containsKey("numRows"));
+        assertEquals(tables, CompactTableList.of(tables));
+    }
+
+    @Test
+    void weightCountsDictionaryValues() {
+        String longType = "STRUCT<" + "nested_field STRING, ".repeat(50) + "last INT64>";
+        List<Table> shortValues = new ArrayList<>();
+        List<Table> longValues = new ArrayList<>();
+        for (int row = 0; row < 100; row++) {
+            shortValues.add(new Table("t" + row, "ds", "p", null, null, "TABLE", null, null));
+            longValues.add(new Table("t" + row, "ds", "p", null, null, longType, null, null));
+        }
+
+        long difference = CompactTableList.of(longValues).estimatedBytes() - CompactTableList.of(shortValues).estimatedBytes();
+        assertTrue(difference >= longType.length() - "TABLE".length(), "difference " + difference);
+    }
+
+    @Test
+    void emptyListing() {
+        CompactTableList compact = CompactTableList.of(List.of());
+
+        assertTrue(compact.isEmpty());
+        assertEquals(0, compact.toColumnar().getCount());
+        assertTrue(compact.estimatedBytes() > 0);
+    }
+}
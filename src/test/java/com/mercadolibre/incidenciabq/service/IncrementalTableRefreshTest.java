@@ -0,0 +1,197 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.model.Table;
+import com.mercadolibre.incidenciabq.model.TableRefreshResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Merge and delete detection of the incremental table refresh, and the SQL it sends
+ */
+class IncrementalTableRefreshTest {
+
+    private static final int TABLES = 200;
+
+    @Test
+    void fingerprintMatchesBigQueryFarmFingerprint() {
+        // From the FARM_FINGERPRINT example of the BigQuery documentation
+        assertEquals(-1541654101129638711L, IncrementalTableRefresh.fingerprint("1footrue"));
+        assertEquals(2794438866806483259L, IncrementalTableRefresh.fingerprint("2applefalse"));
+        assertEquals(-4880158226897771312L, IncrementalTableRefresh.fingerprint("3true"));
+    }
+
+    @Test
+    void unchangedDatasetHasNoMismatchedBuckets() {
+        IncrementalTableRefresh refresh = new IncrementalTableRefresh(listing(), 0);
+        assertTrue(refresh.mismatchedBuckets(summaryOf(tableIds())).isEmpty());
+        assertEquals(TABLES, refresh.toList().size());
+    }
+
+    @Test
+    void upsertAddsNewTable() {
+        IncrementalTableRefresh refresh = new IncrementalTableRefresh(listing(), 0);
+        refresh.upsert(new Table("new_table", "ds", "p", null, null, "TABLE", 5L, null));
+
+        assertEquals(1, refresh.getAdded());
+        assertEquals(0, refresh.getModified());
+        assertEquals(Set.of("new_table"), refresh.getChangedTableIds());
+        assertEquals(TABLES + 1, refresh.toList().size());
+
+        Set<String> remote = tableIds();
+        remote.add("new_table");
+        assertTrue(refresh.mismatchedBuckets(summaryOf(remote)).isEmpty());
+    }
+
+    @Test
+    void upsertReplacesModifiedTableKeepingListingOnlyAttributes() {
+        IncrementalTableRefresh refresh = new IncrementalTableRefresh(listing(), 0);
+        refresh.upsert(new Table(tableId(7), "ds", "p", null, null, "VIEW", 99L, null));
+
+        assertEquals(0, refresh.getAdded());
+        assertEquals(1, refresh.getModified());
+        Table merged = refresh.toList().stream().filter(t -> t.getTableId().equals(tableId(7))).findFirst().orElseThrow();
+        assertEquals("VIEW", merged.getType());
+        assertEquals(99L, merged.getCreationTime());
+        assertEquals("Table 7", merged.getFriendlyName());
+        assertEquals(7L, merged.getNumRows());
+        assertEquals(TABLES, refresh.toList().size());
+    }
+
+    @Test
+    void deletedTableIsFoundThroughItsBucket() {
+        IncrementalTableRefresh refresh = new IncrementalTableRefresh(listing(), 0);
+        String deleted = tableId(42);
+        Set<String> remote = tableIds();
+        remote.remove(deleted);
+
+        List<Integer> mismatched = refresh.mismatchedBuckets(summaryOf(remote));
+        assertEquals(List.of(IncrementalTableRefresh.bucket(deleted)), mismatched);
+
+        refresh.replaceBuckets(mismatched, tablesIn(remote, mismatched));
+        assertEquals(1, refresh.getDeleted());
+        assertEquals(0, refresh.getAdded());
+        assertEquals(Set.of(deleted), refresh.getChangedTableIds());
+        assertFalse(refresh.toList().stream().anyMatch(t -> t.getTableId().equals(deleted)));
+        assertTrue(refresh.mismatchedBuckets(summaryOf(remote)).isEmpty());
+        assertEquals(1, refresh.toResult("ds", 0).getReconciledBuckets());
+    }
+
+    @Test
+    void bucketMissingFromRemoteSummaryIsEmptied() {
+        IncrementalTableRefresh refresh = new IncrementalTableRefresh(listing(), 0);
+        int bucket = IncrementalTableRefresh.bucket(tableId(0));
+        Set<String> remote = tableIds();
+        Set<String> goneWithBucket = remote.stream()
+            .filter(id -> IncrementalTableRefresh.bucket(id) == bucket)
+            .collect(Collectors.toCollection(TreeSet::new));
+        remote.removeAll(goneWithBucket);
+
+        Map<Integer, long[]> summary = summaryOf(remote);
+        assertFalse(summary.containsKey(bucket));
+        List<Integer> mismatched = refresh.mismatchedBuckets(summary);
+        assertEquals(List.of(bucket), mismatched);
+
+        refresh.replaceBuckets(mismatched, List.of());
+        assertEquals(goneWithBucket.size(), refresh.getDeleted());
+        assertEquals(goneWithBucket, refresh.getChangedTableIds());
+        assertEquals(TABLES - goneWithBucket.size(), refresh.toList().size());
+    }
+
+    @Test
+    void replaceBucketsAddsTablesTheDeltaMissed() {
+        IncrementalTableRefresh refresh = new IncrementalTableRefresh(listing(), 0);
+        Set<String> remote = tableIds();
+        remote.add("missed_by_delta");
+
+        List<Integer> mismatched = refresh.mismatchedBuckets(summaryOf(remote));
+        refresh.replaceBuckets(mismatched, tablesIn(remote, mismatched));
+
+        TableRefreshResult result = refresh.toResult("ds", 12);
+        assertEquals(1, result.getAdded());
+        assertEquals(0, result.getDeleted());
+        assertEquals(TABLES + 1, result.getTotalTables());
+    }
+
+    @Test
+    void tableTypesMatchTablesList() {
+        assertEquals("TABLE", IncrementalTableRefresh.tableType("BASE TABLE"));
+        assertEquals("TABLE", IncrementalTableRefresh.tableType("CLONE"));
+        assertEquals("MATERIALIZED_VIEW", IncrementalTableRefresh.tableType("MATERIALIZED VIEW"));
+        assertEquals("VIEW", IncrementalTableRefresh.tableType("VIEW"));
+        assertEquals("SNAPSHOT", IncrementalTableRefresh.tableType("SNAPSHOT"));
+        assertEquals("EXTERNAL", IncrementalTableRefresh.tableType("EXTERNAL"));
+
+        // A clone merged from the delta keeps the type the full listing gave it
+        IncrementalTableRefresh refresh = new IncrementalTableRefresh(listing(), 0);
+        refresh.upsert(new Table(tableId(3), "ds", "p", null, null, IncrementalTableRefresh.tableType("CLONE"), 5L, null));
+        assertEquals(Set.of(), refresh.toList().stream()
+            .map(Table::getType).filter(type -> !"TABLE".equals(type)).collect(Collectors.toSet()));
+    }
+
+    @Test
+    void rejectsDatasetIdsThatCouldEscapeTheSql() {
+        for (String datasetId : new String[] {"ds' OR '1'='1", "ds`; DROP", "other.ds", "", "ds-1", null}) {
+            assertThrows(IllegalArgumentException.class, () -> IncrementalTableRefresh.checkDatasetId(datasetId));
+            assertThrows(IllegalArgumentException.class,
+                () -> IncrementalTableRefresh.changedTablesSql("p", "region-us", datasetId, 0));
+            assertThrows(IllegalArgumentException.class, () -> IncrementalTableRefresh.bucketSummarySql("p", datasetId));
+            assertThrows(IllegalArgumentException.class,
+                () -> IncrementalTableRefresh.bucketTablesSql("p", datasetId, List.of(1)));
+        }
+        assertTrue(IncrementalTableRefresh.changedTablesSql("p", "region-us", "Sales_2024", 0)
+            .contains("table_schema = 'Sales_2024'"));
+    }
+
+    private static List<Table> listing() {
+        List<Table> tables = new ArrayList<>();
+        for (int i = 0; i < TABLES; i++) {
+            tables.add(new Table(tableId(i), "ds", "p", "Table " + i, null, "TABLE", 1000L + i, (long) i));
+        }
+        return tables;
+    }
+
+    private static Set<String> tableIds() {
+        Set<String> ids = new TreeSet<>();
+        for (int i = 0; i < TABLES; i++) {
+            ids.add(tableId(i));
+        }
+        return ids;
+    }
+
+    private static String tableId(int i) {
+        return String.format("table_%03d", i);
+    }
+
+    /**
+     * What the bucket summary query returns for a dataset with these tables
+     */
+    private static Map<Integer, long[]> summaryOf(Collection<String> tableIds) {
+        Map<Integer, long[]> summary = new HashMap<>();
+        for (String tableId : tableIds) {
+            long[] bucket = summary.computeIfAbsent(IncrementalTableRefresh.bucket(tableId), b -> new long[2]);
+            bucket[0]++;
+            bucket[1] ^= IncrementalTableRefresh.fingerprint(tableId);
+        }
+        return summary;
+    }
+
+    private static List<Table> tablesIn(Collection<String> tableIds, Collection<Integer> buckets) {
+        return tableIds.stream()
+            .filter(id -> buckets.contains(IncrementalTableRefresh.bucket(id)))
+            .map(id -> new Table(id, "ds", "p", null, null, "TABLE", 1L, null))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,179 @@
+package com.mercadolibre.incidenciabq.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Invalidation racing with loads and background refreshes: what was invalidated must not come back
+ */
+class MetadataCacheTest {
+
+    private static final String IDENTITY = "loader@project.iam.gserviceaccount.com#ab12cd34";
+    private static final MetadataCacheKey TABLES = MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.TABLES, "ventas", null);
+    private static final MetadataCacheKey OTHER_TABLES = MetadataCacheKey.of("api", IDENTITY, MetadataCacheKey.Type.TABLES, "zeta", null);
+
+    private MetadataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        // Table listings go stale right away, so every get after the first one refreshes in the background
+        cache = new MetadataCache(new CatalogSnapshotStore(false, "target/no-snapshot", 24), new WorkerThreads(false),
+            64, 300, 0, 1800, 3600, 1, 16, 0.8, 2, true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    void loadOvertakenByInvalidationIsNotCached() throws Exception {
+        Blocking old = new Blocking(List.of("old"));
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> cache.get(TABLES, old));
+        old.awaitStarted();
+
+        cache.invalidateDataset("ventas");
+        old.release();
+        assertEquals(List.of("old"), first.get(5, TimeUnit.SECONDS));
+
+        assertNull(cache.getIfPresent(TABLES));
+        AtomicInteger loads = new AtomicInteger();
+        assertEquals(List.of("new"), cache.get(TABLES, () -> {
+            loads.incrementAndGet();
+            return List.of("new");
+        }));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void callerAfterInvalidationDoesNotJoinOlderLoad() throws Exception {
+        Blocking old = new Blocking(List.of("old"));
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> cache.get(TABLES, old));
+        old.awaitStarted();
+
+        cache.invalidateAll();
+        // Answered by its own load while the one from before the invalidation is still running
+        assertEquals(List.of("new"), cache.get(TABLES, () -> List.of("new")));
+        assertNull(cache.awaitInFlight(TABLES));
+
+        old.release();
+        assertEquals(List.of("old"), first.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of("new"), cache.getIfPresent(TABLES));
+    }
+
+    @Test
+    void unrelatedInvalidationKeepsLoad() throws Exception {
+        Blocking load = new Blocking(List.of("ventas"));
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> cache.get(TABLES, load));
+        load.awaitStarted();
+
+        cache.invalidateDataset("zeta");
+        load.release();
+        first.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("ventas"), cache.getIfPresent(TABLES));
+    }
+
+    @Test
+    void refreshOvertakenByInvalidationIsDropped() throws Exception {
+        cache.get(TABLES, () -> List.of("v1"));
+        Thread.sleep(5);
+
+        Blocking refresh = new Blocking(List.of("v2"));
+        // Stale: served as is, refreshed in the background with this loader
+        assertEquals(List.of("v1"), cache.get(TABLES, refresh));
+        refresh.awaitStarted();
+
+        cache.invalidateDataset("ventas");
+        refresh.release();
+        awaitNoRefreshes();
+        assertNull(cache.getIfPresent(TABLES));
+    }
+
+    @Test
+    void refreshOfEntryGoneBeforeItRanDoesNotRecreateIt() throws Exception {
+        cache.get(TABLES, () -> List.of("v1"));
+        cache.get(OTHER_TABLES, () -> List.of("z1"));
+        Thread.sleep(5);
+
+        // The single refresh thread is busy with OTHER_TABLES while TABLES waits in the queue
+        Blocking busy = new Blocking(List.of("z2"));
+        cache.get(OTHER_TABLES, busy);
+        busy.awaitStarted();
+        AtomicInteger reloads = new AtomicInteger();
+        cache.get(TABLES, () -> {
+            reloads.incrementAndGet();
+            return List.of("v2");
+        });
+
+        cache.invalidateDataset("ventas");
+        busy.release();
+        awaitNoRefreshes();
+
+        assertEquals(0, reloads.get());
+        assertNull(cache.getIfPresent(TABLES));
+        assertEquals(List.of("z2"), cache.getIfPresent(OTHER_TABLES));
+    }
+
+    @Test
+    void refreshReplacesEntryStillCached() throws Exception {
+        cache.get(TABLES, () -> List.of("v1"));
+        Thread.sleep(5);
+
+        assertEquals(List.of("v1"), cache.get(TABLES, () -> List.of("v2")));
+        awaitNoRefreshes();
+        assertEquals(List.of("v2"), cache.getIfPresent(TABLES));
+    }
+
+    private void awaitNoRefreshes() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (((Number) cache.getStats().get("backgroundRefreshesPending")).intValue() > 0) {
+            assertTrue(System.currentTimeMillis() < deadline, "background refresh still running");
+            Thread.sleep(5);
+        }
+    }
+
+    /**
+     * A loader that blocks until released
+     */
+    private static final class Blocking implements Supplier<List<String>> {
+        private final List<String> value;
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch released = new CountDownLatch(1);
+
+        Blocking(List<String> value) {
+            this.value = value;
+        }
+
+        @Override
+        public List<String> get() {
+            started.countDown();
+            try {
+                assertTrue(released.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+            return value;
+        }
+
+        void awaitStarted() throws InterruptedException {
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+        }
+
+        void release() {
+            released.countDown();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.mercadolibre.incidenciabq.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Round trip of the packed UTF-8 column: every row reads back as written, nulls and empty strings included
+ */
+class StringColumnTest {
+
+    @Test
+    void readsBackEveryRow() {
+        String[] rows = {"pedidos", null, "", "vista_日本", "Ventas €", null, "x".repeat(100)};
+        StringColumn column = StringColumn.of(rows.length, row -> rows[row]);
+
+        for (int row = 0; row < rows.length; row++) {
+            assertEquals(rows[row], column.get(row), "row " + row);
+        }
+        assertArrayEquals(rows, column.toArray(rows.length));
+        assertFalse(column.isAllNull());
+        assertTrue(column.estimatedBytes() > 0);
+    }
+
+    @Test
+    void firstAndLastRowNull() {
+        String[] rows = {null, "a", "b", null};
+        StringColumn column = StringColumn.of(rows.length, row -> rows[row]);
+
+        assertNull(column.get(0));
+        assertEquals("a", column.get(1));
+        assertEquals("b", column.get(2));
+        assertNull(column.get(3));
+    }
+
+    @Test
+    void allNullColumnHoldsNoArrays() {
+        StringColumn column = StringColumn.of(1000, row -> null);
+
+        assertTrue(column.isAllNull());
+        assertNull(column.get(0));
+        assertNull(column.get(999));
+        assertEquals(0, column.estimatedBytes());
+        assertArrayEquals(new String[3], column.toArray(3));
+    }
+
+    @Test
+    void growsPastItsInitialBuffer() {
+        // The buffer starts at 16 bytes per row; these rows need far more
+        List<String> rows = new ArrayList<>();
+        for (int row = 0; row < 500; row++) {
+            rows.add(row % 7 == 0 ? null : "table_with_a_rather_long_name_" + row + "_ñ".repeat(row % 5));
+        }
+        StringColumn column = StringColumn.of(rows.size(), rows::get);
+
+        assertEquals(rows, Arrays.asList(column.toArray(rows.size())));
+    }
+
+    @Test
+    void emptyColumn() {
+        StringColumn column = StringColumn.of(0, row -> {
+            throw new AssertionError("no rows to read");
+        });
+        assertEquals(0, column.toArray(0).length);
+    }
+}
@@ -0,0 +1,95 @@
+package com.mercadolibre.incidenciabq.service;
+
+import com.mercadolibre.incidenciabq.model.Table;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Table name search: prefix matches first, then substring matches, each in name order
+ */
+class TableNameIndexTest {
+
+    @Test
+    void prefixMatchesRankFirst() {
+        List<Table> listing = tables("zz_ventas", "ventas_2024", "a_ventas", "ventas", "otra", "ventas_2023");
+
+        assertEquals(List.of("ventas", "ventas_2023", "ventas_2024", "a_ventas", "zz_ventas"), search(listing, "ventas", 10));
+        assertEquals(List.of("ventas_2023", "ventas_2024"), search(listing, "ventas_", 10));
+        assertEquals(List.of(), search(listing, "compras", 10));
+    }
+
+    @Test
+    void ignoresCase() {
+        List<Table> listing = tables("Ventas_MX", "ventas_ar", "HistVENTAS", "otra");
+
+        // Ranked by the lower-cased name, returned with the listing's own spelling
+        assertEquals(List.of("ventas_ar", "Ventas_MX", "HistVENTAS"), search(listing, "VENTAS", 10));
+        assertEquals(List.of("HistVENTAS"), search(listing, "tVen", 10));
+    }
+
+    @Test
+    void queriesShorterThanATrigramScanTheNames() {
+        List<Table> listing = tables("tax", "x_b", "a_b", "b_ax", "otra");
+
+        assertEquals(List.of("x_b", "b_ax", "tax"), search(listing, "x", 10));
+        assertEquals(List.of("b_ax"), search(listing, "_a", 10));
+        assertEquals(List.of("a_b", "x_b"), search(listing, "_B", 10));
+        assertEquals(List.of(), search(listing, "q", 10));
+    }
+
+    @Test
+    void trigramsThatAreNotAdjacentDoNotMatch() {
+        // Both names hold the trigrams "abc" and "bcd"; only one holds "abcd"
+        List<Table> listing = tables("abc_bcd", "xabcd", "bcd_abc");
+
+        assertEquals(List.of("xabcd"), search(listing, "abcd", 10));
+        assertEquals(List.of(), search(listing, "bcdabc", 10));
+    }
+
+    @Test
+    void buildsFromCompactListing() {
+        List<Table> tables = new ArrayList<>();
+        for (int row = 0; row < 200; row++) {
+            tables.add(new Table("tabla_" + row, "ventas", "p-1", null, null, row % 2 == 0 ? "TABLE" : "VIEW", (long) row, null));
+        }
+        CompactTableList compact = CompactTableList.of(tables);
+        TableNameIndex index = TableNameIndex.build(compact);
+
+        assertEquals(200, index.size());
+        List<Table> results = index.search(compact, "la_19", 10);
+        assertEquals(List.of(tables.get(19), tables.get(190), tables.get(191), tables.get(192), tables.get(193),
+            tables.get(194), tables.get(195), tables.get(196), tables.get(197), tables.get(198)), results);
+        assertEquals("VIEW", results.get(0).getType());
+        assertEquals(List.of(tables.get(7)), index.search(compact, "TABLA_7", 1));
+    }
+
+    @Test
+    void stopsAtTheLimit() {
+        List<Table> listing = tables("log_a", "log_b", "log_c", "app_log", "web_log");
+
+        // Cut inside the prefix run
+        assertEquals(List.of("log_a", "log_b"), search(listing, "log", 2));
+        // Cut among the substring matches, trigram and linear-scan paths alike
+        assertEquals(List.of("log_a", "log_b", "log_c", "app_log"), search(listing, "log", 4));
+        assertEquals(List.of("log_a", "log_b", "log_c", "app_log"), search(listing, "lo", 4));
+        assertTrue(search(listing, "log", 0).isEmpty());
+        assertTrue(search(listing, "", 10).isEmpty());
+    }
+
+    private static List<String> search(List<Table> listing, String query, int limit) {
+        return TableNameIndex.build(listing).search(listing, query, limit).stream().map(Table::getTableId).toList();
+    }
+
+    private static List<Table> tables(String... tableIds) {
+        List<Table> tables = new ArrayList<>();
+        for (String tableId : tableIds) {
+            tables.add(new Table(tableId, "ventas", "p-1", null, null, "TABLE", null, null));
+        }
+        return tables;
+    }
+}